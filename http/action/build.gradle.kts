@@ -38,6 +38,9 @@ dependencies {
     implementation(group = "io.vertx", name = "vertx-rx-java2")
     implementation(group = "io.vertx", name = "vertx-web-client")
     implementation(group = "org.apache.commons", name = "commons-lang3")
+    implementation(group = "com.fasterxml.jackson.dataformat", name = "jackson-dataformat-cbor")
+    implementation(group = "com.fasterxml.jackson.dataformat", name = "jackson-dataformat-smile")
+    implementation(group = "org.msgpack", name = "jackson-dataformat-msgpack", version = "0.8.18")
 
     testImplementation(group = "org.mockito", name = "mockito-core")
     testImplementation(group = "org.mockito", name = "mockito-junit-jupiter")
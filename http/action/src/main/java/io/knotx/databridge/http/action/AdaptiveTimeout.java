@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Request timeout derived from the latency distribution of an endpoint. Latencies are counted in
+ * log-linear buckets (about 3% wide) of a sliding window split into slots, so recording is
+ * lock-free and allocation-free. The percentile is recomputed at most once a second and the
+ * timeout is its multiple, clamped between the configured limits. Until the window holds {@code
+ * minSamples} latencies the fallback timeout is used. Instances are registered per endpoint in the
+ * Vert.x local shared data, so the current timeout can be read by monitoring code.
+ */
+class AdaptiveTimeout implements Shareable {
+
+  static final String TIMEOUTS_MAP = "knotx.http.action.timeouts";
+
+  private static final int SLOTS = 6;
+  private static final int LINEAR_BUCKETS = 64;
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MIN_EXPONENT = 6;
+  private static final int MAX_EXPONENT = 40;
+  private static final int BUCKETS =
+      LINEAR_BUCKETS + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+  private static final long MAX_UPDATE_INTERVAL_MS = 1000L;
+  private static final double PERCENT = 100.0;
+
+  private final String endpoint;
+  private final AdaptiveTimeoutOptions options;
+  private final long fallbackTimeoutMs;
+  private final LongSupplier clock;
+  private final long slotMs;
+  private final long updateIntervalMs;
+  private final Slot[] slots = new Slot[SLOTS];
+  private final AtomicLong nextUpdate = new AtomicLong();
+  private volatile long timeoutMs;
+  private volatile double percentileMs;
+  private volatile long samples;
+
+  AdaptiveTimeout(AdaptiveTimeoutOptions options, long requestTimeoutMs, LongSupplier clock) {
+    this(null, options, requestTimeoutMs, clock);
+  }
+
+  AdaptiveTimeout(String endpoint, AdaptiveTimeoutOptions options, long requestTimeoutMs,
+      LongSupplier clock) {
+    this.endpoint = endpoint;
+    this.options = options;
+    this.fallbackTimeoutMs = requestTimeoutMs > 0 ? clamp(requestTimeoutMs)
+        : options.getMaxTimeoutMs();
+    this.clock = clock;
+    this.slotMs = Math.max(options.getWindowMs() / SLOTS, 1L);
+    this.updateIntervalMs = Math.min(slotMs, MAX_UPDATE_INTERVAL_MS);
+    for (int i = 0; i < SLOTS; i++) {
+      slots[i] = new Slot();
+    }
+    this.timeoutMs = fallbackTimeoutMs;
+  }
+
+  static AdaptiveTimeout getOrCreate(Vertx vertx, String endpoint, AdaptiveTimeoutOptions options,
+      long requestTimeoutMs) {
+    LocalMap<String, AdaptiveTimeout> timeouts = vertx.sharedData().getLocalMap(TIMEOUTS_MAP);
+    String key = endpoint + options.toJson().encode() + requestTimeoutMs;
+    AdaptiveTimeout timeout = timeouts.get(key);
+    if (timeout == null) {
+      AdaptiveTimeout created = new AdaptiveTimeout(endpoint, options, requestTimeoutMs,
+          System::currentTimeMillis);
+      timeout = timeouts.putIfAbsent(key, created);
+      if (timeout == null) {
+        timeout = created;
+      }
+    }
+    return timeout;
+  }
+
+  void record(long latencyNanos) {
+    long now = clock.getAsLong();
+    currentSlot(now).counts.incrementAndGet(
+        bucket(TimeUnit.NANOSECONDS.toMicros(Math.max(latencyNanos, 0L))));
+  }
+
+  /**
+   * @return current request timeout in milliseconds
+   */
+  long getTimeoutMs() {
+    long now = clock.getAsLong();
+    long next = nextUpdate.get();
+    if (now >= next && nextUpdate.compareAndSet(next, now + updateIntervalMs)) {
+      update(now);
+    }
+    return timeoutMs;
+  }
+
+  /**
+   * @return gauge of the current timeout, the latency percentile it is derived from and the
+   * number of latencies in the window
+   */
+  JsonObject getMetrics() {
+    return new JsonObject()
+        .put("endpoint", endpoint)
+        .put("timeoutMs", getTimeoutMs())
+        .put("percentileMs", percentileMs)
+        .put("samples", samples);
+  }
+
+  private void update(long now) {
+    long[] merged = new long[BUCKETS];
+    long total = 0L;
+    long windowStart = now - slotMs * SLOTS;
+    for (Slot slot : slots) {
+      if (slot.start > windowStart) {
+        for (int i = 0; i < BUCKETS; i++) {
+          long count = slot.counts.get(i);
+          merged[i] += count;
+          total += count;
+        }
+      }
+    }
+    samples = total;
+    if (total == 0 || total < options.getMinSamples()) {
+      timeoutMs = fallbackTimeoutMs;
+      return;
+    }
+    long rank = (long) Math.ceil(total * Math.min(options.getPercentile(), PERCENT) / PERCENT);
+    long seen = 0L;
+    int bucket = 0;
+    while (bucket < BUCKETS - 1 && (seen += merged[bucket]) < rank) {
+      bucket++;
+    }
+    double percentile = upperBoundMicros(bucket) / 1000.0;
+    percentileMs = percentile;
+    timeoutMs = clamp((long) Math.ceil(percentile * options.getMultiplier()));
+  }
+
+  private long clamp(long value) {
+    return Math.max(options.getMinTimeoutMs(), Math.min(value, options.getMaxTimeoutMs()));
+  }
+
+  private Slot currentSlot(long now) {
+    long start = now - now % slotMs;
+    Slot slot = slots[(int) ((now / slotMs) % SLOTS)];
+    if (slot.start != start) {
+      synchronized (slot) {
+        if (slot.start != start) {
+          for (int i = 0; i < BUCKETS; i++) {
+            slot.counts.set(i, 0L);
+          }
+          slot.start = start;
+        }
+      }
+    }
+    return slot;
+  }
+
+  static int bucket(long micros) {
+    if (micros < LINEAR_BUCKETS) {
+      return (int) micros;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return LINEAR_BUCKETS + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * @return exclusive upper bound of the bucket in microseconds
+   */
+  static long upperBoundMicros(int bucket) {
+    if (bucket < LINEAR_BUCKETS) {
+      return bucket + 1L;
+    }
+    int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + MIN_EXPONENT;
+    int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return (SUB_BUCKETS + subBucket + 1L) * width;
+  }
+
+  private static final class Slot {
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private volatile long start = Long.MIN_VALUE;
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the adaptive request timeout. The timeout is a multiple of a latency percentile of the
+ * endpoint observed in a sliding window, clamped between {@code minTimeoutMs} and {@code
+ * maxTimeoutMs}.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class AdaptiveTimeoutOptions {
+
+  private static final double DEFAULT_PERCENTILE = 99.9;
+  private static final double DEFAULT_MULTIPLIER = 2.0;
+  private static final long DEFAULT_MIN_TIMEOUT = 100L;
+  private static final long DEFAULT_MAX_TIMEOUT = 10000L;
+  private static final long DEFAULT_WINDOW = 60000L;
+  private static final int DEFAULT_MIN_SAMPLES = 1000;
+
+  private boolean enabled;
+  private double percentile = DEFAULT_PERCENTILE;
+  private double multiplier = DEFAULT_MULTIPLIER;
+  private long minTimeoutMs = DEFAULT_MIN_TIMEOUT;
+  private long maxTimeoutMs = DEFAULT_MAX_TIMEOUT;
+  private long windowMs = DEFAULT_WINDOW;
+  private int minSamples = DEFAULT_MIN_SAMPLES;
+
+  public AdaptiveTimeoutOptions() {
+    //empty default constructor
+  }
+
+  public AdaptiveTimeoutOptions(AdaptiveTimeoutOptions other) {
+    this.enabled = other.enabled;
+    this.percentile = other.percentile;
+    this.multiplier = other.multiplier;
+    this.minTimeoutMs = other.minTimeoutMs;
+    this.maxTimeoutMs = other.maxTimeoutMs;
+    this.windowMs = other.windowMs;
+    this.minSamples = other.minSamples;
+  }
+
+  public AdaptiveTimeoutOptions(JsonObject json) {
+    this();
+    AdaptiveTimeoutOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    AdaptiveTimeoutOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the adaptive request timeout. It replaces {@code requestTimeoutMs}, which is used only
+   * until {@code minSamples} latencies are observed. By default it is set to {@code false}.
+   *
+   * @param enabled - determines if the request timeout adapts to the endpoint latency
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  /**
+   * Sets the latency percentile the timeout is derived from. By default it is set to {@code
+   * 99.9}.
+   *
+   * @param percentile - latency percentile, between {@code 0} and {@code 100}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setPercentile(double percentile) {
+    this.percentile = percentile;
+    return this;
+  }
+
+  public double getMultiplier() {
+    return multiplier;
+  }
+
+  /**
+   * Sets the multiple of the latency percentile used as the timeout. By default it is set to
+   * {@code 2.0}.
+   *
+   * @param multiplier - multiple of the latency percentile
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setMultiplier(double multiplier) {
+    this.multiplier = multiplier;
+    return this;
+  }
+
+  public long getMinTimeoutMs() {
+    return minTimeoutMs;
+  }
+
+  /**
+   * Sets the lower limit of the timeout in milliseconds. By default it is set to {@code 100}.
+   *
+   * @param minTimeoutMs - minimum timeout in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setMinTimeoutMs(long minTimeoutMs) {
+    this.minTimeoutMs = minTimeoutMs;
+    return this;
+  }
+
+  public long getMaxTimeoutMs() {
+    return maxTimeoutMs;
+  }
+
+  /**
+   * Sets the upper limit of the timeout in milliseconds. It is also the timeout until {@code
+   * minSamples} latencies are observed when {@code requestTimeoutMs} is not set. By default it is
+   * set to {@code 10000}.
+   *
+   * @param maxTimeoutMs - maximum timeout in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setMaxTimeoutMs(long maxTimeoutMs) {
+    this.maxTimeoutMs = maxTimeoutMs;
+    return this;
+  }
+
+  public long getWindowMs() {
+    return windowMs;
+  }
+
+  /**
+   * Sets the length in milliseconds of the sliding window of observed latencies. By default it is
+   * set to {@code 60000}.
+   *
+   * @param windowMs - sliding window length in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setWindowMs(long windowMs) {
+    this.windowMs = windowMs;
+    return this;
+  }
+
+  public int getMinSamples() {
+    return minSamples;
+  }
+
+  /**
+   * Sets the number of latencies in the window required to derive the timeout. By default it is
+   * set to {@code 1000}, so the {@code 99.9} percentile is not just the slowest response.
+   *
+   * @param minSamples - minimum number of observed latencies
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setMinSamples(int minSamples) {
+    this.minSamples = minSamples;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "AdaptiveTimeoutOptions{" +
+        "enabled=" + enabled +
+        ", percentile=" + percentile +
+        ", multiplier=" + multiplier +
+        ", minTimeoutMs=" + minTimeoutMs +
+        ", maxTimeoutMs=" + maxTimeoutMs +
+        ", windowMs=" + windowMs +
+        ", minSamples=" + minSamples +
+        '}';
+  }
+}
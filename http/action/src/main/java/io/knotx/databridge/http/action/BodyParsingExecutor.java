@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.reactivex.Single;
+import io.vertx.core.Closeable;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded worker pool parsing response bodies off the event loop. One instance is shared by all
+ * actions configured with the same pool name within a Vert.x instance. Results are delivered on
+ * the calling context. The pool is closed and the instance removed when the last user's context
+ * closes (e.g. the verticle is undeployed).
+ */
+class BodyParsingExecutor implements Shareable {
+
+  static final String EXECUTORS_MAP = "knotx.http.action.body-parsing-executors";
+
+  private final String name;
+  private final WorkerExecutor workerExecutor;
+  private final int poolSize;
+  private final int capacity;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder callerRuns = new LongAdder();
+  private final List<Context> users = new ArrayList<>();
+  private boolean closed;
+
+  private BodyParsingExecutor(Vertx vertx, Context context, BodyParsingOptions options) {
+    this.name = options.getWorkerPoolName();
+    this.poolSize = options.getWorkerPoolSize();
+    this.capacity = options.getWorkerPoolSize() + options.getWorkerQueueSize();
+    this.workerExecutor = vertx.createSharedWorkerExecutor(name, poolSize);
+    // Vert.x closes the executor with the creating context, other users still need it
+    if (workerExecutor instanceof Closeable) {
+      context.removeCloseHook((Closeable) workerExecutor);
+    }
+  }
+
+  /**
+   * Returns the instance shared by all users of the Vert.x instance with the same pool name,
+   * creating it on the first call. The calling context becomes a user of the instance until it
+   * closes.
+   */
+  static BodyParsingExecutor getOrCreate(Vertx vertx, BodyParsingOptions options) {
+    LocalMap<String, BodyParsingExecutor> executors = vertx.sharedData()
+        .getLocalMap(EXECUTORS_MAP);
+    String key = options.getWorkerPoolName();
+    Context context = vertx.getOrCreateContext();
+    while (true) {
+      BodyParsingExecutor current = executors.get(key);
+      if (current == null) {
+        BodyParsingExecutor created = new BodyParsingExecutor(vertx, context, options);
+        current = executors.putIfAbsent(key, created);
+        if (current == null) {
+          current = created;
+        } else {
+          created.workerExecutor.close();
+        }
+      }
+      BodyParsingExecutor executor = current;
+      if (executor.retain(context, () -> executors.removeIfPresent(key, executor))) {
+        return executor;
+      }
+      executors.removeIfPresent(key, executor);
+    }
+  }
+
+  <T> Single<T> execute(Callable<T> task, ParsingRejectionPolicy rejectionPolicy) {
+    return Single.defer(() -> {
+      if (pending.incrementAndGet() > capacity) {
+        pending.decrementAndGet();
+        rejected.increment();
+        if (rejectionPolicy == ParsingRejectionPolicy.CALLER_RUNS) {
+          callerRuns.increment();
+          return Single.fromCallable(task);
+        }
+        return Single.error(new RejectedExecutionException(
+            "Body parsing queue [" + name + "] is full, capacity: " + capacity));
+      }
+      submitted.increment();
+      return Single.create(emitter -> {
+        try {
+          workerExecutor.<T>executeBlocking(promise -> {
+            try {
+              promise.complete(task.call());
+            } catch (Exception e) {
+              promise.fail(e);
+            }
+          }, false, result -> {
+            pending.decrementAndGet();
+            completed.increment();
+            if (result.succeeded()) {
+              emitter.onSuccess(result.result());
+            } else {
+              emitter.onError(result.cause());
+            }
+          });
+        } catch (RuntimeException e) {
+          // the task was not submitted, e.g. the executor is closed
+          pending.decrementAndGet();
+          emitter.onError(e);
+        }
+      });
+    });
+  }
+
+  /**
+   * Registers the context as a user of the instance.
+   *
+   * @return {@code false} when the instance has already been closed by its last user
+   */
+  private synchronized boolean retain(Context context, Runnable onClosed) {
+    if (closed) {
+      return false;
+    }
+    users.add(context);
+    context.addCloseHook(completion -> {
+      release(context, onClosed);
+      completion.handle(Future.succeededFuture());
+    });
+    return true;
+  }
+
+  private synchronized void release(Context context, Runnable onClosed) {
+    users.remove(context);
+    if (users.isEmpty()) {
+      closed = true;
+      workerExecutor.close();
+      onClosed.run();
+    }
+  }
+
+  /**
+   * @return snapshot of the pool queue metrics
+   */
+  JsonObject getMetrics() {
+    int inFlight = pending.get();
+    return new JsonObject()
+        .put("name", name)
+        .put("poolSize", poolSize)
+        .put("active", Math.min(inFlight, poolSize))
+        .put("queued", Math.max(inFlight - poolSize, 0))
+        .put("submitted", submitted.sum())
+        .put("completed", completed.sum())
+        .put("rejected", rejected.sum())
+        .put("callerRuns", callerRuns.sum());
+  }
+}
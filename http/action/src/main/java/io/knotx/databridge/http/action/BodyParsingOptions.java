@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes how response bodies are parsed. Bodies larger than {@code offloadThresholdBytes} are
+ * parsed on a bounded worker pool instead of the event loop.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class BodyParsingOptions {
+
+  private static final long DEFAULT_OFFLOAD_THRESHOLD = 0L;
+  private static final String DEFAULT_WORKER_POOL_NAME = "knotx-http-action-body-parser";
+  private static final int DEFAULT_WORKER_POOL_SIZE = 4;
+  private static final int DEFAULT_WORKER_QUEUE_SIZE = 256;
+
+  private long offloadThresholdBytes = DEFAULT_OFFLOAD_THRESHOLD;
+  private String workerPoolName = DEFAULT_WORKER_POOL_NAME;
+  private int workerPoolSize = DEFAULT_WORKER_POOL_SIZE;
+  private int workerQueueSize = DEFAULT_WORKER_QUEUE_SIZE;
+  private ParsingRejectionPolicy rejectionPolicy = ParsingRejectionPolicy.CALLER_RUNS;
+
+  public BodyParsingOptions() {
+    //empty default constructor
+  }
+
+  public BodyParsingOptions(BodyParsingOptions other) {
+    this.offloadThresholdBytes = other.offloadThresholdBytes;
+    this.workerPoolName = other.workerPoolName;
+    this.workerPoolSize = other.workerPoolSize;
+    this.workerQueueSize = other.workerQueueSize;
+    this.rejectionPolicy = other.rejectionPolicy;
+  }
+
+  public BodyParsingOptions(JsonObject json) {
+    this();
+    BodyParsingOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    BodyParsingOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public long getOffloadThresholdBytes() {
+    return offloadThresholdBytes;
+  }
+
+  /**
+   * Sets the response body size in bytes from which the body is parsed on the worker pool. Smaller
+   * bodies are parsed inline on the event loop. Setting zero or a negative value disables
+   * offloading. By default it is set to {@code 0}.
+   *
+   * @param offloadThresholdBytes - body size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BodyParsingOptions setOffloadThresholdBytes(long offloadThresholdBytes) {
+    this.offloadThresholdBytes = offloadThresholdBytes;
+    return this;
+  }
+
+  public String getWorkerPoolName() {
+    return workerPoolName;
+  }
+
+  /**
+   * Sets the name of the worker pool. Actions configured with the same name share one pool. By
+   * default it is set to {@code knotx-http-action-body-parser}.
+   *
+   * @param workerPoolName - worker pool name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BodyParsingOptions setWorkerPoolName(String workerPoolName) {
+    this.workerPoolName = workerPoolName;
+    return this;
+  }
+
+  public int getWorkerPoolSize() {
+    return workerPoolSize;
+  }
+
+  /**
+   * Sets the number of worker threads parsing response bodies. By default it is set to {@code 4}.
+   *
+   * @param workerPoolSize - number of worker threads
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BodyParsingOptions setWorkerPoolSize(int workerPoolSize) {
+    this.workerPoolSize = workerPoolSize;
+    return this;
+  }
+
+  public int getWorkerQueueSize() {
+    return workerQueueSize;
+  }
+
+  /**
+   * Sets the maximum number of bodies waiting for a free worker thread. When the queue is full the
+   * {@code rejectionPolicy} applies. By default it is set to {@code 256}.
+   *
+   * @param workerQueueSize - maximum number of queued bodies
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BodyParsingOptions setWorkerQueueSize(int workerQueueSize) {
+    this.workerQueueSize = workerQueueSize;
+    return this;
+  }
+
+  public ParsingRejectionPolicy getRejectionPolicy() {
+    return rejectionPolicy;
+  }
+
+  /**
+   * Sets the behaviour when the worker queue is full. {@code CALLER_RUNS} parses the body inline
+   * on the event loop, {@code FAIL} ends the action with the _error transition. By default it is
+   * set to {@code CALLER_RUNS}.
+   *
+   * @param rejectionPolicy - rejection policy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public BodyParsingOptions setRejectionPolicy(ParsingRejectionPolicy rejectionPolicy) {
+    this.rejectionPolicy = rejectionPolicy;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "BodyParsingOptions{" +
+        "offloadThresholdBytes=" + offloadThresholdBytes +
+        ", workerPoolName='" + workerPoolName + '\'' +
+        ", workerPoolSize=" + workerPoolSize +
+        ", workerQueueSize=" + workerQueueSize +
+        ", rejectionPolicy=" + rejectionPolicy +
+        '}';
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.functions.Function;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Event bus API of the response caches registered with the same invalidation address. One
+ * consumer is registered per address and Vert.x instance, it serves all actions and verticle
+ * instances of the node. Caches are unregistered when the context that created them closes (e.g.
+ * the verticle is undeployed); the consumer is then registered again on the context of another
+ * cache, and the admin is removed with the last cache. Messages are JSON objects with the
+ * {@code action} field:
+ * <ul>
+ * <li>{@code invalidate} - invalidates entries by {@code key}, {@code prefix} or {@code tag}, all
+ * entries when none is given; {@code alias} limits the invalidation to the caches of an action.
+ * Invalidations published on the address are received by all nodes of a clustered Vert.x. An
+ * invalidation sent to a single node is applied and then published to the other nodes, the
+ * receiving node skips its own copy; the reply contains the number of indexed entries invalidated
+ * on the receiving node.</li>
+ * <li>{@code stats} - replies with the statistics of the caches of the receiving node.</li>
+ * </ul>
+ */
+class CacheAdmin implements Shareable {
+
+  static final String ADMIN_MAP = "knotx.http.action.cache.admin";
+  static final int INVALID_MESSAGE = 400;
+
+  private static final String ORIGIN_HEADER = "knotx-cache-admin-origin";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CacheAdmin.class);
+
+  private final Vertx vertx;
+  private final String address;
+  private final String id = UUID.randomUUID().toString();
+  private final List<ResponseCache> caches = new CopyOnWriteArrayList<>();
+  private final List<Context> contexts = new ArrayList<>();
+  private MessageConsumer<Object> consumer;
+  private Context consumerContext;
+  private boolean closed;
+
+  private CacheAdmin(Vertx vertx, String address) {
+    this.vertx = vertx;
+    this.address = address;
+  }
+
+  /**
+   * Registers the cache with the admin of the address, creating the admin on the first call. Must
+   * be called on the context of the cache.
+   */
+  static void register(Vertx vertx, String address, ResponseCache cache) {
+    LocalMap<String, CacheAdmin> admins = vertx.sharedData().getLocalMap(ADMIN_MAP);
+    Context context = vertx.getOrCreateContext();
+    while (true) {
+      CacheAdmin current = admins.get(address);
+      if (current == null) {
+        CacheAdmin created = new CacheAdmin(vertx, address);
+        current = admins.putIfAbsent(address, created);
+        if (current == null) {
+          current = created;
+        }
+      }
+      CacheAdmin admin = current;
+      if (admin.add(cache, context, () -> admins.removeIfPresent(address, admin))) {
+        return;
+      }
+      admins.removeIfPresent(address, admin);
+    }
+  }
+
+  /**
+   * @return {@code false} when the admin has already been closed with its last cache
+   */
+  private synchronized boolean add(ResponseCache cache, Context context, Runnable onClosed) {
+    if (closed) {
+      return false;
+    }
+    caches.add(cache);
+    contexts.add(context);
+    context.addCloseHook(completion -> {
+      remove(cache, context, onClosed);
+      completion.handle(Future.succeededFuture());
+    });
+    if (consumerContext == null) {
+      listen(context);
+    }
+    return true;
+  }
+
+  private synchronized void remove(ResponseCache cache, Context context, Runnable onClosed) {
+    caches.remove(cache);
+    contexts.remove(context);
+    if (contexts.isEmpty()) {
+      closed = true;
+      unlisten();
+      onClosed.run();
+    } else if (context == consumerContext && !contexts.contains(context)) {
+      unlisten();
+      Context next = contexts.get(0);
+      consumerContext = next;
+      next.runOnContext(v -> relisten(next));
+    }
+  }
+
+  private synchronized void relisten(Context context) {
+    if (!closed && consumerContext == context) {
+      listen(context);
+    }
+  }
+
+  /**
+   * Registers the consumer, must be called on the context it is bound to.
+   */
+  private void listen(Context context) {
+    consumerContext = context;
+    consumer = vertx.eventBus().consumer(address, this::handle);
+    consumer.completionHandler(ar -> {
+      if (ar.failed()) {
+        LOGGER.error("Could not register cache admin on [{}]", address, ar.cause());
+      }
+    });
+  }
+
+  private void unlisten() {
+    if (consumer != null) {
+      consumer.unregister();
+      consumer = null;
+    }
+    consumerContext = null;
+  }
+
+  private void handle(Message<Object> message) {
+    if (id.equals(message.headers().get(ORIGIN_HEADER))) {
+      // already applied when the sent message was received
+      return;
+    }
+    if (!(message.body() instanceof JsonObject)) {
+      message.fail(INVALID_MESSAGE, "Cache admin message must be a JSON object");
+      return;
+    }
+    JsonObject body = (JsonObject) message.body();
+    String action = body.getString("action");
+    if ("invalidate".equals(action)) {
+      invalidate(message, body);
+    } else if ("stats".equals(action)) {
+      message.reply(stats());
+    } else {
+      message.fail(INVALID_MESSAGE, "Unknown cache admin action [" + action + "]");
+    }
+  }
+
+  private void invalidate(Message<Object> message, JsonObject body) {
+    Function<ResponseCache, Single<Integer>> invalidation;
+    if (body.getString("key") != null) {
+      invalidation = cache -> cache.invalidateKey(body.getString("key"));
+    } else if (body.getString("prefix") != null) {
+      invalidation = cache -> cache.invalidatePrefix(body.getString("prefix"));
+    } else if (body.getString("tag") != null) {
+      invalidation = cache -> cache.invalidateTag(body.getString("tag"));
+    } else {
+      invalidation = ResponseCache::invalidateAll;
+    }
+    if (message.isSend()) {
+      vertx.eventBus().publish(address, body, new DeliveryOptions().addHeader(ORIGIN_HEADER, id));
+    }
+    String alias = body.getString("alias");
+    Observable.fromIterable(caches)
+        .filter(cache -> alias == null || alias.equals(cache.getActionAlias()))
+        .flatMapSingle(invalidation)
+        .reduce(0, Integer::sum)
+        .subscribe(invalidated -> {
+          LOGGER.debug("Invalidated [{}] cached responses for [{}]", invalidated, body);
+          if (message.replyAddress() != null) {
+            message.reply(new JsonObject().put("invalidated", invalidated));
+          }
+        });
+  }
+
+  private JsonObject stats() {
+    JsonArray stats = new JsonArray();
+    caches.forEach(cache -> stats.add(cache.getStats()));
+    return new JsonObject().put("caches", stats);
+  }
+}
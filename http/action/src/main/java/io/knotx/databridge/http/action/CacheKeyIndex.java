@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keys of the entries stored by a {@link ResponseCache}, so they can be found by key prefix or
+ * tag. The cache store is not asked for its keys, as remote stores can not list them. Entries are
+ * forgotten when they expire, entries evicted by the store stay indexed until then.
+ */
+class CacheKeyIndex {
+
+  private final Map<String, IndexedKey> keys = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> tags = new ConcurrentHashMap<>();
+
+  void add(String key, String sourceKey, Set<String> keyTags, long expiresAt) {
+    IndexedKey previous = keys.put(key, new IndexedKey(sourceKey, keyTags, expiresAt));
+    if (previous != null) {
+      untag(key, previous.tags);
+    }
+    for (String tag : keyTags) {
+      tags.compute(tag, (t, tagged) -> {
+        Set<String> result = tagged == null ? ConcurrentHashMap.newKeySet() : tagged;
+        result.add(key);
+        return result;
+      });
+    }
+  }
+
+  boolean contains(String key) {
+    return keys.containsKey(key);
+  }
+
+  void remove(String key) {
+    IndexedKey removed = keys.remove(key);
+    if (removed != null) {
+      untag(key, removed.tags);
+    }
+  }
+
+  /**
+   * @return keys of the entries which key before hashing starts with the prefix
+   */
+  List<String> keysWithPrefix(String prefix) {
+    List<String> result = new ArrayList<>();
+    keys.forEach((key, indexed) -> {
+      if (indexed.sourceKey.startsWith(prefix)) {
+        result.add(key);
+      }
+    });
+    return result;
+  }
+
+  List<String> keysWithTag(String tag) {
+    Set<String> tagged = tags.get(tag);
+    return tagged == null ? Collections.emptyList() : new ArrayList<>(tagged);
+  }
+
+  List<String> allKeys() {
+    return new ArrayList<>(keys.keySet());
+  }
+
+  int size() {
+    return keys.size();
+  }
+
+  int tagsCount() {
+    return tags.size();
+  }
+
+  void removeExpired(long now) {
+    Iterator<Map.Entry<String, IndexedKey>> iterator = keys.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, IndexedKey> entry = iterator.next();
+      if (now >= entry.getValue().expiresAt) {
+        iterator.remove();
+        untag(entry.getKey(), entry.getValue().tags);
+      }
+    }
+  }
+
+  private void untag(String key, Set<String> keyTags) {
+    for (String tag : keyTags) {
+      tags.computeIfPresent(tag, (t, tagged) -> {
+        tagged.remove(key);
+        return tagged.isEmpty() ? null : tagged;
+      });
+    }
+  }
+
+  private static final class IndexedKey {
+
+    private final String sourceKey;
+    private final Set<String> tags;
+    private final long expiresAt;
+
+    private IndexedKey(String sourceKey, Set<String> tags, long expiresAt) {
+      this.sourceKey = sourceKey;
+      this.tags = tags;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.knotx.databridge.http.action.tracing.TraceContext;
+import io.vertx.reactivex.core.MultiMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Builds cache keys from endpoint requests according to {@link CacheKeyOptions}. The request sent
+ * to the endpoint is not changed, only its key.
+ */
+class CacheKeyNormalizer {
+
+  private static final int HASH_BYTES = 16;
+  private static final String WILDCARD = "*";
+  private static final Comparator<String[]> BY_NAME_AND_VALUE = Comparator
+      .<String[], String>comparing(param -> param[0])
+      .thenComparing(param -> param[1]);
+  private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal
+      .withInitial(CacheKeyNormalizer::sha256);
+
+  private final String keyPrefix;
+  private final CacheKeyOptions options;
+  private final Predicate<String> ignoredQueryParam;
+  private final List<String> headers;
+  private final Set<String> perRequestHeaders;
+  private final boolean queryNormalized;
+
+  CacheKeyNormalizer(String keyPrefix, CacheKeyOptions options) {
+    this(keyPrefix, options, Collections.emptySet());
+  }
+
+  /**
+   * @param keyPrefix - prefix of all keys, usually the endpoint address
+   * @param options - key options
+   * @param perRequestHeaders - headers that differ for every request, such as the deadline
+   * headers, left out of the default key together with the trace context headers
+   */
+  CacheKeyNormalizer(String keyPrefix, CacheKeyOptions options,
+      Collection<String> perRequestHeaders) {
+    this.keyPrefix = keyPrefix;
+    this.options = options;
+    this.ignoredQueryParam = createIgnoredQueryParamPredicate(options.getIgnoredQueryParams());
+    this.headers = options.getHeaders() == null ? null : options.getHeaders().stream()
+        .map(header -> header.toLowerCase(Locale.ROOT))
+        .sorted()
+        .collect(Collectors.toList());
+    this.perRequestHeaders = new HashSet<>(
+        Arrays.asList(TraceContext.TRACEPARENT, TraceContext.TRACESTATE));
+    perRequestHeaders.stream()
+        .map(header -> header.toLowerCase(Locale.ROOT))
+        .forEach(this.perRequestHeaders::add);
+    this.queryNormalized = options.isSortQueryParams() || options.isDropEmptyQueryParams()
+        || !options.getIgnoredQueryParams().isEmpty();
+  }
+
+  String key(EndpointRequest request) {
+    return toKey(sourceKey(request));
+  }
+
+  /**
+   * @param request - endpoint request
+   * @return normalized, human readable key of the request, before hashing
+   */
+  String sourceKey(EndpointRequest request) {
+    return keyPrefix + normalizePath(request.getPath()) + headersPart(request.getHeaders());
+  }
+
+  /**
+   * @param sourceKey - normalized key returned by {@link #sourceKey(EndpointRequest)}
+   * @return cache key, hashed when configured
+   */
+  String toKey(String sourceKey) {
+    return options.isHashed() ? hash(sourceKey) : sourceKey;
+  }
+
+  private String normalizePath(String path) {
+    int queryStart = path.indexOf('?');
+    String pathPart = queryStart < 0 ? path : path.substring(0, queryStart);
+    String queryPart = queryStart < 0 ? null : path.substring(queryStart + 1);
+    StringBuilder normalized = new StringBuilder(lowercaseSegments(pathPart));
+    if (queryPart != null) {
+      String query = queryNormalized ? normalizeQuery(queryPart) : queryPart;
+      if (!query.isEmpty()) {
+        normalized.append('?').append(query);
+      }
+    }
+    return normalized.toString();
+  }
+
+  private String lowercaseSegments(String path) {
+    if (options.getLowercasePathSegments().isEmpty()) {
+      return path;
+    }
+    String[] segments = path.split("/", -1);
+    // segments[0] is the part before the leading slash
+    for (int i = 1; i < segments.length; i++) {
+      if (options.getLowercasePathSegments().contains(i - 1)) {
+        segments[i] = segments[i].toLowerCase(Locale.ROOT);
+      }
+    }
+    return String.join("/", segments);
+  }
+
+  private String normalizeQuery(String query) {
+    List<String[]> params = new ArrayList<>();
+    for (String param : StringUtils.split(query, '&')) {
+      int valueStart = param.indexOf('=');
+      String name = valueStart < 0 ? param : param.substring(0, valueStart);
+      String value = valueStart < 0 ? "" : param.substring(valueStart + 1);
+      if (ignoredQueryParam.test(name)
+          || (options.isDropEmptyQueryParams() && value.isEmpty())) {
+        continue;
+      }
+      params.add(new String[]{name, param});
+    }
+    if (options.isSortQueryParams()) {
+      params.sort(BY_NAME_AND_VALUE);
+    }
+    return params.stream()
+        .map(param -> param[1])
+        .collect(Collectors.joining("&"));
+  }
+
+  /**
+   * Without configured headers, all headers sent to the endpoint except the per request ones are
+   * part of the key.
+   */
+  private String headersPart(MultiMap requestHeaders) {
+    List<String> keyHeaders = headers == null ? sentHeaders(requestHeaders) : headers;
+    if (keyHeaders.isEmpty()) {
+      return "";
+    }
+    StringBuilder part = new StringBuilder();
+    for (String header : keyHeaders) {
+      part.append('\n').append(header).append(':')
+          .append(String.join(",", requestHeaders.getAll(header)));
+    }
+    return part.toString();
+  }
+
+  private List<String> sentHeaders(MultiMap requestHeaders) {
+    return requestHeaders.names().stream()
+        .map(header -> header.toLowerCase(Locale.ROOT))
+        .filter(header -> !perRequestHeaders.contains(header))
+        .distinct()
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  private static Predicate<String> createIgnoredQueryParamPredicate(Set<String> ignored) {
+    Set<String> names = ignored.stream()
+        .filter(name -> !name.endsWith(WILDCARD))
+        .collect(Collectors.toSet());
+    List<String> prefixes = ignored.stream()
+        .filter(name -> name.endsWith(WILDCARD))
+        .map(name -> StringUtils.removeEnd(name, WILDCARD))
+        .collect(Collectors.toList());
+    return name -> names.contains(name) || prefixes.stream().anyMatch(name::startsWith);
+  }
+
+  private static String hash(String key) {
+    byte[] digest = SHA_256.get().digest(key.getBytes(StandardCharsets.UTF_8));
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(Arrays.copyOf(digest, HASH_BYTES));
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+}
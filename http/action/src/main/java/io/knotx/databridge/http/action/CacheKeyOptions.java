@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes how cache keys are built from endpoint requests. Requests differing only in the query
+ * parameters order, empty or tracking parameters, or the letter case of some path segments get the
+ * same key, so they share a cache entry. By default the key is the resolved request path and the
+ * headers sent to the endpoint.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class CacheKeyOptions {
+
+  private boolean sortQueryParams;
+  private boolean dropEmptyQueryParams;
+  private Set<String> ignoredQueryParams = new HashSet<>();
+  private Set<Integer> lowercasePathSegments = new HashSet<>();
+  private Set<String> headers;
+  private boolean hashed;
+
+  public CacheKeyOptions() {
+    //empty default constructor
+  }
+
+  public CacheKeyOptions(CacheKeyOptions other) {
+    this.sortQueryParams = other.sortQueryParams;
+    this.dropEmptyQueryParams = other.dropEmptyQueryParams;
+    this.ignoredQueryParams = new HashSet<>(other.ignoredQueryParams);
+    this.lowercasePathSegments = new HashSet<>(other.lowercasePathSegments);
+    this.headers = other.headers == null ? null : new HashSet<>(other.headers);
+    this.hashed = other.hashed;
+  }
+
+  public CacheKeyOptions(JsonObject json) {
+    this();
+    CacheKeyOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    CacheKeyOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isSortQueryParams() {
+    return sortQueryParams;
+  }
+
+  /**
+   * Sorts the query parameters by name, so their order does not matter. By default it is set to
+   * {@code false}.
+   *
+   * @param sortQueryParams - determines if query parameters are sorted
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheKeyOptions setSortQueryParams(boolean sortQueryParams) {
+    this.sortQueryParams = sortQueryParams;
+    return this;
+  }
+
+  public boolean isDropEmptyQueryParams() {
+    return dropEmptyQueryParams;
+  }
+
+  /**
+   * Drops query parameters without a value, e.g. {@code a=} or {@code a}. By default it is set to
+   * {@code false}.
+   *
+   * @param dropEmptyQueryParams - determines if empty query parameters are dropped
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheKeyOptions setDropEmptyQueryParams(boolean dropEmptyQueryParams) {
+    this.dropEmptyQueryParams = dropEmptyQueryParams;
+    return this;
+  }
+
+  public Set<String> getIgnoredQueryParams() {
+    return ignoredQueryParams;
+  }
+
+  /**
+   * Sets the names of query parameters not included in the key, e.g. tracking parameters. A name
+   * ending with {@code *} matches all parameters with that prefix, e.g. {@code utm_*}.
+   *
+   * @param ignoredQueryParams - names or name prefixes of ignored query parameters
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheKeyOptions setIgnoredQueryParams(Set<String> ignoredQueryParams) {
+    this.ignoredQueryParams = ignoredQueryParams;
+    return this;
+  }
+
+  public Set<Integer> getLowercasePathSegments() {
+    return lowercasePathSegments;
+  }
+
+  /**
+   * Sets the indexes of path segments that are case insensitive and are lowercased in the key. The
+   * first segment after the leading slash has the index {@code 0}.
+   *
+   * @param lowercasePathSegments - indexes of case insensitive path segments
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheKeyOptions setLowercasePathSegments(Set<Integer> lowercasePathSegments) {
+    this.lowercasePathSegments = lowercasePathSegments;
+    return this;
+  }
+
+  public Set<String> getHeaders() {
+    return headers;
+  }
+
+  /**
+   * Sets the names of request headers whose values are included in the key. Use it for headers
+   * the endpoint response depends on, e.g. {@code Accept-Language}. Other headers are not part of
+   * the key. When not set, all headers sent to the endpoint (the allowed request headers and the
+   * additional headers) are part of the key, so a response personalised by e.g. a cookie or an
+   * authorization header is never served to another user. The per request trace context and
+   * deadline headers are left out of this default key. List the headers explicitly only when the
+   * response does not depend on the others.
+   *
+   * @param headers - names of headers included in the key
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheKeyOptions setHeaders(Set<String> headers) {
+    this.headers = headers;
+    return this;
+  }
+
+  public boolean isHashed() {
+    return hashed;
+  }
+
+  /**
+   * Stores keys as fixed-size hashes (22 characters of a URL-safe Base64 encoded 128-bit SHA-256
+   * prefix) instead of full paths, which keeps the cache memory small for long URLs. By default it
+   * is set to {@code false}.
+   *
+   * @param hashed - determines if keys are hashed
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheKeyOptions setHashed(boolean hashed) {
+    this.hashed = hashed;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheKeyOptions{" +
+        "sortQueryParams=" + sortQueryParams +
+        ", dropEmptyQueryParams=" + dropEmptyQueryParams +
+        ", ignoredQueryParams=" + ignoredQueryParams +
+        ", lowercasePathSegments=" + lowercasePathSegments +
+        ", headers=" + headers +
+        ", hashed=" + hashed +
+        '}';
+  }
+}
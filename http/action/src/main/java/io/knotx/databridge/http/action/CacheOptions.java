@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes the endpoint responses cache. Successful responses are stored in a {@link
+ * io.knotx.databridge.http.action.cache.CacheStore} selected by its factory name and served from
+ * it until they expire. Error responses with the configured status codes (negative caching) are
+ * stored with their own, usually shorter, time to live.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class CacheOptions {
+
+  private static final String DEFAULT_STORE = "local";
+  private static final long DEFAULT_TTL = 60000L;
+  private static final long DEFAULT_NEGATIVE_TTL = 5000L;
+
+  private boolean enabled;
+  private String store = DEFAULT_STORE;
+  private JsonObject storeConfig = new JsonObject();
+  private boolean shared;
+  private long ttlMs = DEFAULT_TTL;
+  private Set<Integer> negativeStatusCodes = new HashSet<>();
+  private long negativeTtlMs = DEFAULT_NEGATIVE_TTL;
+  private RefreshAheadOptions refreshAheadOptions = new RefreshAheadOptions();
+  private CacheKeyOptions keyOptions = new CacheKeyOptions();
+  private String invalidationAddress;
+  private String tagHeader;
+
+  public CacheOptions() {
+    //empty default constructor
+  }
+
+  public CacheOptions(CacheOptions other) {
+    this.enabled = other.enabled;
+    this.store = other.store;
+    this.storeConfig = other.storeConfig.copy();
+    this.shared = other.shared;
+    this.ttlMs = other.ttlMs;
+    this.negativeStatusCodes = new HashSet<>(other.negativeStatusCodes);
+    this.negativeTtlMs = other.negativeTtlMs;
+    this.refreshAheadOptions = new RefreshAheadOptions(other.refreshAheadOptions);
+    this.keyOptions = new CacheKeyOptions(other.keyOptions);
+    this.invalidationAddress = other.invalidationAddress;
+    this.tagHeader = other.tagHeader;
+  }
+
+  public CacheOptions(JsonObject json) {
+    this();
+    CacheOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    CacheOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the endpoint responses cache. By default it is set to {@code false}.
+   *
+   * @param enabled - determines if responses are cached
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public String getStore() {
+    return store;
+  }
+
+  /**
+   * Sets the name of the {@link io.knotx.databridge.http.action.cache.CacheStoreFactory} creating
+   * the cache store. Available stores are {@code local} (embedded in-process store) and {@code
+   * tcp} (remote store). By default it is set to {@code local}.
+   *
+   * @param store - cache store factory name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setStore(String store) {
+    this.store = store;
+    return this;
+  }
+
+  public JsonObject getStoreConfig() {
+    return storeConfig;
+  }
+
+  /**
+   * Sets the cache store configuration passed to the cache store factory.
+   *
+   * @param storeConfig - JSON Object with the cache store configuration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setStoreConfig(JsonObject storeConfig) {
+    this.storeConfig = storeConfig;
+    return this;
+  }
+
+  public boolean isShared() {
+    return shared;
+  }
+
+  /**
+   * Shares the store among all actions and verticle instances of the Vert.x instance configured
+   * with the same {@code store} and {@code storeConfig}, so an embedded store is not duplicated per
+   * event loop. Cache keys contain the endpoint domain and port, so actions calling different
+   * endpoints do not share entries. By default it is set to {@code false}.
+   *
+   * @param shared - determines if the store is shared within the Vert.x instance
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setShared(boolean shared) {
+    this.shared = shared;
+    return this;
+  }
+
+  public long getTtlMs() {
+    return ttlMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which a cached response expires. By default it is set to
+   * {@code 60000}.
+   *
+   * @param ttlMs - time to live in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setTtlMs(long ttlMs) {
+    this.ttlMs = ttlMs;
+    return this;
+  }
+
+  public Set<Integer> getNegativeStatusCodes() {
+    return negativeStatusCodes;
+  }
+
+  /**
+   * Sets the status codes of error responses that are cached, e.g. {@code 404} for missing
+   * entities. Cached error responses end with the same payload and transition as responses received
+   * from the endpoint. Only responses received from the endpoint are cached, timeouts and rate
+   * limiting rejections never are. By default no error responses are cached.
+   *
+   * @param negativeStatusCodes - status codes of cached error responses
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setNegativeStatusCodes(Set<Integer> negativeStatusCodes) {
+    this.negativeStatusCodes = negativeStatusCodes;
+    return this;
+  }
+
+  public long getNegativeTtlMs() {
+    return negativeTtlMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which a cached error response expires. By default it is
+   * set to {@code 5000}.
+   *
+   * @param negativeTtlMs - time to live of error responses in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setNegativeTtlMs(long negativeTtlMs) {
+    this.negativeTtlMs = negativeTtlMs;
+    return this;
+  }
+
+  public RefreshAheadOptions getRefreshAheadOptions() {
+    return refreshAheadOptions;
+  }
+
+  /**
+   * Sets the refresh-ahead of hot entries. Entries read often enough are fetched again in the
+   * background before they expire. By default it is disabled.
+   *
+   * @param refreshAheadOptions - refresh-ahead configuration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setRefreshAheadOptions(RefreshAheadOptions refreshAheadOptions) {
+    this.refreshAheadOptions = refreshAheadOptions;
+    return this;
+  }
+
+  public CacheKeyOptions getKeyOptions() {
+    return keyOptions;
+  }
+
+  /**
+   * Sets how cache keys are built from endpoint requests. By default the key is the resolved
+   * request path.
+   *
+   * @param keyOptions - cache key configuration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setKeyOptions(CacheKeyOptions keyOptions) {
+    this.keyOptions = keyOptions;
+    return this;
+  }
+
+  public String getInvalidationAddress() {
+    return invalidationAddress;
+  }
+
+  /**
+   * Sets the event bus address on which the cache accepts invalidation and stats messages. Cached
+   * responses can be invalidated by exact key, key prefix, action alias or tag. Invalidations
+   * published on the address reach all nodes of a clustered Vert.x. By default it is not set and
+   * the cache is not managed through the event bus.
+   *
+   * @param invalidationAddress - event bus address of the cache admin API
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setInvalidationAddress(String invalidationAddress) {
+    this.invalidationAddress = invalidationAddress;
+    return this;
+  }
+
+  public String getTagHeader() {
+    return tagHeader;
+  }
+
+  /**
+   * Sets the name of the endpoint response header listing the tags of a cached response, e.g.
+   * {@code Cache-Tag}. Tags are separated with commas or whitespace. Tagged responses can be
+   * invalidated by tag through the {@code invalidationAddress}. By default it is not set.
+   *
+   * @param tagHeader - name of the response header with cache tags
+   * @return a reference to this, so the API can be used fluently
+   */
+  public CacheOptions setTagHeader(String tagHeader) {
+    this.tagHeader = tagHeader;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheOptions{" +
+        "enabled=" + enabled +
+        ", store='" + store + '\'' +
+        ", storeConfig=" + storeConfig +
+        ", shared=" + shared +
+        ", ttlMs=" + ttlMs +
+        ", negativeStatusCodes=" + negativeStatusCodes +
+        ", negativeTtlMs=" + negativeTtlMs +
+        ", refreshAheadOptions=" + refreshAheadOptions +
+        ", keyOptions=" + keyOptions +
+        ", invalidationAddress='" + invalidationAddress + '\'' +
+        ", tagHeader='" + tagHeader + '\'' +
+        '}';
+  }
+}
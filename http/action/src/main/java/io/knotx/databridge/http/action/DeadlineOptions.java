@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes where the action finds the processing deadline of the page and how the remaining
+ * time budget is passed to the endpoint. The deadline is an absolute time in milliseconds since
+ * the epoch.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class DeadlineOptions {
+
+  private String clientRequestHeader;
+  private String payloadKey;
+  private String propagationHeader;
+
+  public DeadlineOptions() {
+    //empty default constructor
+  }
+
+  public DeadlineOptions(DeadlineOptions other) {
+    this.clientRequestHeader = other.clientRequestHeader;
+    this.payloadKey = other.payloadKey;
+    this.propagationHeader = other.propagationHeader;
+  }
+
+  public DeadlineOptions(JsonObject json) {
+    this();
+    DeadlineOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    DeadlineOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public String getClientRequestHeader() {
+    return clientRequestHeader;
+  }
+
+  /**
+   * Sets the name of the original client HTTP request header containing the deadline.
+   *
+   * @param clientRequestHeader - header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeadlineOptions setClientRequestHeader(String clientRequestHeader) {
+    this.clientRequestHeader = clientRequestHeader;
+    return this;
+  }
+
+  public String getPayloadKey() {
+    return payloadKey;
+  }
+
+  /**
+   * Sets the Fragment's payload key containing the deadline. It is used when the client request
+   * header is not configured or not present.
+   *
+   * @param payloadKey - Fragment's payload key
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeadlineOptions setPayloadKey(String payloadKey) {
+    this.payloadKey = payloadKey;
+    return this;
+  }
+
+  public String getPropagationHeader() {
+    return propagationHeader;
+  }
+
+  /**
+   * Sets the name of the request header sending the remaining time budget in milliseconds to the
+   * endpoint. When not set, the budget is not sent.
+   *
+   * @param propagationHeader - header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeadlineOptions setPropagationHeader(String propagationHeader) {
+    this.propagationHeader = propagationHeader;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "DeadlineOptions{" +
+        "clientRequestHeader='" + clientRequestHeader + '\'' +
+        ", payloadKey='" + payloadKey + '\'' +
+        ", propagationHeader='" + propagationHeader + '\'' +
+        '}';
+  }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.web.client.WebClientOptions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Replicas of an endpoint and the load balancing between them. Requests are spread randomly,
+ * proportionally to the host weights. With {@link OutlierDetectionOptions} enabled, hosts failing
+ * {@code consecutiveFailures} times in a row, or with the mean latency in an interval above {@code
+ * latencyFactor} times the median of all hosts, are ejected (their weight drops to zero) for a
+ * growing time, and their weight ramps up during the slow start after they return. With {@link
+ * HealthCheckOptions} enabled, hosts get no traffic until they pass the first active health check,
+ * and hosts failing it later get no traffic until they pass it again. Instances are registered in
+ * the Vert.x local shared data, so all actions calling the same hosts share the state. The latency
+ * check and health check timers run on the context of one of the users and move to another one
+ * when its context closes (e.g. the verticle is undeployed); the instance is removed when the last
+ * user's context closes.
+ */
+class EndpointHosts implements Shareable {
+
+  static final String HOSTS_MAP = "knotx.http.action.hosts";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EndpointHosts.class);
+  private static final double MIN_SLOW_START_WEIGHT = 0.1;
+  private static final double PERCENT = 100.0;
+
+  private final List<Host> hosts;
+  private final OutlierDetectionOptions options;
+  private final HealthCheckOptions healthCheckOptions;
+  private final LongSupplier clock;
+  private final LongAdder skippedEjections = new LongAdder();
+  private final Vertx vertx;
+  private final WebClientOptions webClientOptions;
+  private final List<Context> users = new ArrayList<>();
+  private Context monitoringContext;
+  private long latencyTimerId = -1;
+  private HealthChecker healthChecker;
+  private boolean closed;
+
+  EndpointHosts(List<String> hosts, OutlierDetectionOptions options, LongSupplier clock) {
+    this(hosts, options, new HealthCheckOptions(), clock);
+  }
+
+  EndpointHosts(List<String> hosts, OutlierDetectionOptions options,
+      HealthCheckOptions healthCheckOptions, LongSupplier clock) {
+    this(null, hosts, options, healthCheckOptions, null, clock);
+  }
+
+  EndpointHosts(Vertx vertx, List<String> hosts, OutlierDetectionOptions options,
+      HealthCheckOptions healthCheckOptions, WebClientOptions webClientOptions,
+      LongSupplier clock) {
+    this.hosts = hosts.stream().map(Host::parse).collect(Collectors.toList());
+    // the state of hosts is unknown until the first health check
+    this.hosts.forEach(host -> host.healthy = !healthCheckOptions.isEnabled());
+    this.options = options;
+    this.healthCheckOptions = healthCheckOptions;
+    this.clock = clock;
+    this.vertx = vertx;
+    this.webClientOptions = webClientOptions;
+  }
+
+  /**
+   * Returns the instance shared by all users of the Vert.x instance calling the same hosts with the
+   * same options, creating it on the first call. The calling context becomes a user of the instance
+   * until it closes.
+   */
+  static EndpointHosts getOrCreate(Vertx vertx, List<String> hosts,
+      OutlierDetectionOptions options, HealthCheckOptions healthCheckOptions,
+      WebClientOptions webClientOptions) {
+    LocalMap<String, EndpointHosts> endpoints = vertx.sharedData().getLocalMap(HOSTS_MAP);
+    String key = String.join(",", hosts) + options.toJson().encode()
+        + healthCheckOptions.toJson().encode();
+    Context context = vertx.getOrCreateContext();
+    while (true) {
+      EndpointHosts current = endpoints.get(key);
+      if (current == null) {
+        EndpointHosts created = new EndpointHosts(vertx, hosts, options, healthCheckOptions,
+            webClientOptions, System::currentTimeMillis);
+        current = endpoints.putIfAbsent(key, created);
+        if (current == null) {
+          current = created;
+        }
+      }
+      EndpointHosts endpointHosts = current;
+      if (endpointHosts.retain(context, () -> endpoints.removeIfPresent(key, endpointHosts))) {
+        return endpointHosts;
+      }
+      endpoints.removeIfPresent(key, endpointHosts);
+    }
+  }
+
+  /**
+   * @return host the next request is sent to; when all hosts are ejected, a random one
+   */
+  Host select() {
+    long now = clock.getAsLong();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    Host selected = null;
+    double totalWeight = 0.0;
+    for (Host host : hosts) {
+      double weight = weight(host, now);
+      if (weight > 0.0) {
+        totalWeight += weight;
+        if (random.nextDouble() * totalWeight < weight) {
+          selected = host;
+        }
+      }
+    }
+    return selected != null ? selected : hosts.get(random.nextInt(hosts.size()));
+  }
+
+  /**
+   * @return {@code false} when no host passed the active health check or all failed it
+   */
+  boolean hasHealthyHost() {
+    for (Host host : hosts) {
+      if (host.healthy) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Records the outcome of a request. Responses with {@code 5xx} status codes, timeouts and errors
+   * without any response (e.g. refused connections) are failures. Errors raised for a received
+   * response by response predicates are not.
+   *
+   * @param host - host the request was sent to
+   * @param status - response status code or {@link PhaseTimings#NO_RESPONSE}
+   * @param error - request error or {@code null}
+   * @param latencyNanos - time from sending the request to its outcome
+   */
+  void record(Host host, int status, Throwable error, long latencyNanos) {
+    boolean failure = status >= 500 || error instanceof TimeoutException
+        || (status == PhaseTimings.NO_RESPONSE && error != null);
+    host.requests.increment();
+    host.intervalRequests.increment();
+    host.intervalLatencyNanos.add(latencyNanos);
+    if (failure) {
+      host.failures.increment();
+      int failuresInRow = host.consecutiveFailures.incrementAndGet();
+      if (options.isEnabled() && options.getConsecutiveFailures() > 0
+          && failuresInRow >= options.getConsecutiveFailures()) {
+        eject(host, failuresInRow + " consecutive failures");
+      }
+    } else {
+      host.consecutiveFailures.set(0);
+    }
+  }
+
+  /**
+   * Ejects hosts with the mean latency in the last interval above {@code latencyFactor} times the
+   * median of the mean latencies of the hosts handling at least {@code minRequests} requests.
+   */
+  void checkLatency() {
+    long now = clock.getAsLong();
+    List<Host> measured = new ArrayList<>();
+    List<Double> means = new ArrayList<>();
+    for (Host host : hosts) {
+      long requests = host.intervalRequests.sumThenReset();
+      long latencyNanos = host.intervalLatencyNanos.sumThenReset();
+      if (requests >= Math.max(options.getMinRequests(), 1) && !isEjected(host, now)) {
+        measured.add(host);
+        means.add((double) latencyNanos / requests);
+      }
+    }
+    if (measured.size() < 2) {
+      return;
+    }
+    double[] sorted = means.stream().mapToDouble(Double::doubleValue).toArray();
+    Arrays.sort(sorted);
+    double median = sorted[(sorted.length - 1) / 2];
+    for (int i = 0; i < measured.size(); i++) {
+      if (means.get(i) > median * options.getLatencyFactor()) {
+        eject(measured.get(i), String.format("mean latency %.1fms above %.1f x median %.1fms",
+            means.get(i) / 1_000_000.0, options.getLatencyFactor(), median / 1_000_000.0));
+      }
+    }
+  }
+
+  /**
+   * Records the result of an active health check. The first check decides whether the host is
+   * healthy. Later, a healthy host becomes unhealthy after {@code unhealthyThreshold} failed checks
+   * in a row, an unhealthy one becomes healthy after {@code healthyThreshold} passed checks in a
+   * row.
+   */
+  void recordHealthCheck(Host host, boolean passed) {
+    boolean first = host.healthChecks.sum() == 0;
+    host.healthChecks.increment();
+    if (passed) {
+      host.failedChecksInRow.set(0);
+      if ((host.passedChecksInRow.incrementAndGet() >= healthCheckOptions.getHealthyThreshold()
+          || first) && !host.healthy) {
+        host.healthy = true;
+        LOGGER.info("Host [{}] passed the health check and is healthy", host);
+      }
+    } else {
+      host.failedHealthChecks.increment();
+      host.passedChecksInRow.set(0);
+      if ((host.failedChecksInRow.incrementAndGet() >= healthCheckOptions.getUnhealthyThreshold()
+          || first) && host.healthy) {
+        host.healthy = false;
+        LOGGER.warn("Host [{}] failed the health check and is unhealthy", host);
+      }
+    }
+    host.finishHealthCheck();
+  }
+
+  /**
+   * Registers the context as a user of the instance and starts the timers on it when no other
+   * context runs them.
+   *
+   * @return {@code false} when the instance has already been closed by its last user
+   */
+  private synchronized boolean retain(Context context, Runnable onClosed) {
+    if (closed) {
+      return false;
+    }
+    users.add(context);
+    context.addCloseHook(completion -> {
+      release(context, onClosed);
+      completion.handle(Future.succeededFuture());
+    });
+    if (monitoringContext == null) {
+      startMonitoring(context);
+    }
+    return true;
+  }
+
+  private synchronized void release(Context context, Runnable onClosed) {
+    users.remove(context);
+    if (users.isEmpty()) {
+      closed = true;
+      stopMonitoring();
+      onClosed.run();
+    } else if (context == monitoringContext && !users.contains(context)) {
+      stopMonitoring();
+      Context next = users.get(0);
+      monitoringContext = next;
+      next.runOnContext(v -> restartMonitoring(next));
+    }
+  }
+
+  private synchronized void restartMonitoring(Context context) {
+    if (!closed && monitoringContext == context) {
+      startMonitoring(context);
+    }
+  }
+
+  /**
+   * Starts the timers, must be called on the context they are bound to.
+   */
+  private void startMonitoring(Context context) {
+    monitoringContext = context;
+    if (options.isEnabled() && options.getLatencyFactor() > 0) {
+      latencyTimerId = vertx.setPeriodic(options.getIntervalMs(), timerId -> checkLatency());
+    }
+    if (healthCheckOptions.isEnabled()) {
+      healthChecker = new HealthChecker(vertx, this, healthCheckOptions, webClientOptions);
+      healthChecker.start();
+    }
+  }
+
+  private void stopMonitoring() {
+    if (latencyTimerId >= 0) {
+      vertx.cancelTimer(latencyTimerId);
+      latencyTimerId = -1;
+    }
+    if (healthChecker != null) {
+      healthChecker.stop();
+      healthChecker = null;
+    }
+    monitoringContext = null;
+  }
+
+  private synchronized void eject(Host host, String reason) {
+    long now = clock.getAsLong();
+    if (isEjected(host, now)) {
+      return;
+    }
+    long ejected = hosts.stream().filter(h -> isEjected(h, now)).count();
+    if ((ejected + 1) * PERCENT > options.getMaxEjectionPercent() * hosts.size()) {
+      skippedEjections.increment();
+      LOGGER.warn("Host [{}] not ejected ({}), {}% of hosts already ejected", host, reason,
+          options.getMaxEjectionPercent());
+      return;
+    }
+    if (now - host.ejectedUntil > options.getMaxEjectionTimeMs()) {
+      host.ejections = 0;
+    }
+    host.ejections++;
+    long ejectionTimeMs = Math.min(options.getBaseEjectionTimeMs() * host.ejections,
+        options.getMaxEjectionTimeMs());
+    host.ejectedUntil = now + ejectionTimeMs;
+    host.consecutiveFailures.set(0);
+    LOGGER.warn("Host [{}] ejected for {}ms: {}", host, ejectionTimeMs, reason);
+  }
+
+  private static boolean isEjected(Host host, long now) {
+    return now < host.ejectedUntil;
+  }
+
+  /**
+   * @return share of the traffic the host gets, {@code 0} when unhealthy or ejected and growing
+   * linearly from {@code 0.1} to {@code 1} during the slow start after it returns
+   */
+  double weight(Host host, long now) {
+    if (!host.healthy || isEjected(host, now)) {
+      return 0.0;
+    }
+    long sinceReturn = now - host.ejectedUntil;
+    if (host.ejections == 0 || options.getSlowStartMs() <= 0
+        || sinceReturn >= options.getSlowStartMs()) {
+      return 1.0;
+    }
+    return Math.max(MIN_SLOW_START_WEIGHT, (double) sinceReturn / options.getSlowStartMs());
+  }
+
+  List<Host> getHosts() {
+    return hosts;
+  }
+
+  /**
+   * @return snapshot of the hosts state: requests, failures, ejections, health and current weight
+   */
+  JsonObject getMetrics() {
+    long now = clock.getAsLong();
+    JsonArray hostsMetrics = new JsonArray();
+    for (Host host : hosts) {
+      hostsMetrics.add(new JsonObject()
+          .put("host", host.toString())
+          .put("requests", host.requests.sum())
+          .put("failures", host.failures.sum())
+          .put("ejections", host.ejections)
+          .put("ejected", isEjected(host, now))
+          .put("healthy", host.healthy)
+          .put("healthChecks", host.healthChecks.sum())
+          .put("failedHealthChecks", host.failedHealthChecks.sum())
+          .put("weight", weight(host, now)));
+    }
+    return new JsonObject()
+        .put("hosts", hostsMetrics)
+        .put("skippedEjections", skippedEjections.sum());
+  }
+
+  static final class Host {
+
+    private final String name;
+    private final int port;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder intervalRequests = new LongAdder();
+    private final LongAdder intervalLatencyNanos = new LongAdder();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder healthChecks = new LongAdder();
+    private final LongAdder failedHealthChecks = new LongAdder();
+    private final AtomicInteger passedChecksInRow = new AtomicInteger();
+    private final AtomicInteger failedChecksInRow = new AtomicInteger();
+    private final AtomicBoolean checkInProgress = new AtomicBoolean();
+    private volatile boolean healthy;
+    private volatile long ejectedUntil;
+    private volatile int ejections;
+
+    private Host(String name, int port) {
+      this.name = name;
+      this.port = port;
+    }
+
+    private static Host parse(String host) {
+      int separator = host.lastIndexOf(':');
+      if (separator <= 0 || separator == host.length() - 1) {
+        throw new IllegalArgumentException(
+            "Endpoint host [" + host + "] must be defined as host:port");
+      }
+      return new Host(host.substring(0, separator),
+          Integer.parseInt(host.substring(separator + 1)));
+    }
+
+    /**
+     * @return {@code false} when the previous health check of the host has not finished yet
+     */
+    boolean startHealthCheck() {
+      return checkInProgress.compareAndSet(false, true);
+    }
+
+    void finishHealthCheck() {
+      checkInProgress.set(false);
+    }
+
+    boolean isHealthy() {
+      return healthy;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    int getPort() {
+      return port;
+    }
+
+    @Override
+    public String toString() {
+      return name + ":" + port;
+    }
+  }
+}
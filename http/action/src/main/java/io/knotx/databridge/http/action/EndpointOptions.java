@@ -34,6 +34,8 @@ public class EndpointOptions {
   private String path;
   private String domain;
   private int port;
+  private String unixSocketPath;
+  private List<String> hosts = new ArrayList<>();
   private Set<String> allowedRequestHeaders;
   private JsonObject additionalHeaders;
   private List<Pattern> allowedRequestHeadersPatterns;
@@ -47,6 +49,8 @@ public class EndpointOptions {
     this.path = other.path;
     this.domain = other.domain;
     this.port = other.port;
+    this.unixSocketPath = other.unixSocketPath;
+    this.hosts = new ArrayList<>(other.hosts);
     this.allowedRequestHeaders = new HashSet<>(other.allowedRequestHeaders);
     this.allowedRequestHeadersPatterns = new ArrayList<>(other.allowedRequestHeadersPatterns);
     this.additionalHeaders = other.additionalHeaders.copy();
@@ -118,6 +122,49 @@ public class EndpointOptions {
     return this;
   }
 
+  /**
+   * @return path of the Unix domain socket of the external service
+   */
+  public String getUnixSocketPath() {
+    return unixSocketPath;
+  }
+
+  /**
+   * Sets the path of the Unix domain socket the external service listens on, e.g. a sidecar on
+   * the same host. Requests are sent through the socket instead of the TCP loopback when Vert.x
+   * runs with the native transport. Otherwise the action falls back to TCP with the configured
+   * {@code domain} and {@code port}, which are also used as the {@code Host} header.
+   *
+   * @param unixSocketPath - path of the Unix domain socket
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EndpointOptions setUnixSocketPath(String unixSocketPath) {
+    this.unixSocketPath = unixSocketPath;
+    return this;
+  }
+
+  /**
+   * @return replicas of the external service, as {@code host:port}
+   */
+  public List<String> getHosts() {
+    return hosts;
+  }
+
+  /**
+   * Sets the replicas of the external service as {@code host:port} entries, e.g. {@code
+   * 10.0.0.1:8080}. Every request is sent to one of the hosts, the {@code domain} and {@code port}
+   * stay the logical name of the endpoint sent as the {@code Host} header and the TLS server name,
+   * and used in cache and rate limiting keys. By default it is empty and requests are sent to the
+   * {@code domain} and {@code port}.
+   *
+   * @param hosts - list of {@code host:port} entries
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EndpointOptions setHosts(List<String> hosts) {
+    this.hosts = hosts;
+    return this;
+  }
+
   /**
    * @return Set of allowed request headers that should be passed-through to the service
    */
@@ -15,16 +15,26 @@
  */
 package io.knotx.databridge.http.action;
 
+import io.knotx.databridge.http.action.tracing.TraceContext;
 import io.vertx.reactivex.core.MultiMap;
 
 class EndpointRequest {
 
+  static final long NO_DEADLINE = Long.MAX_VALUE;
+
   private final String path;
   private final MultiMap headers;
+  private final long deadline;
+  private TraceContext traceContext;
 
   public EndpointRequest(String path, MultiMap headers) {
+    this(path, headers, NO_DEADLINE);
+  }
+
+  EndpointRequest(String path, MultiMap headers, long deadline) {
     this.path = path;
     this.headers = headers;
+    this.deadline = deadline;
   }
 
   public String getPath() {
@@ -35,4 +45,31 @@ class EndpointRequest {
     return headers;
   }
 
+  /**
+   * @return the processing deadline in milliseconds since the epoch, {@link #NO_DEADLINE} when
+   * there is no deadline
+   */
+  long getDeadline() {
+    return deadline;
+  }
+
+  /**
+   * @return milliseconds left until the deadline
+   */
+  long getRemainingMs() {
+    return deadline == NO_DEADLINE ? NO_DEADLINE : deadline - System.currentTimeMillis();
+  }
+
+  /**
+   * @return the client span context propagated to the endpoint, {@code null} when tracing is
+   * disabled
+   */
+  TraceContext getTraceContext() {
+    return traceContext;
+  }
+
+  void setTraceContext(TraceContext traceContext) {
+    this.traceContext = traceContext;
+  }
+
 }
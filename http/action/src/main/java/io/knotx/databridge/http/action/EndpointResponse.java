@@ -17,6 +17,7 @@ package io.knotx.databridge.http.action;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonArray;
 import io.vertx.reactivex.core.MultiMap;
 import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
@@ -29,11 +30,24 @@ class EndpointResponse {
   private MultiMap headers = MultiMap.caseInsensitiveMultiMap();
   private MultiMap trailers = MultiMap.caseInsensitiveMultiMap();
   private Buffer body;
+  private JsonArray records;
+  private boolean truncated;
+  private Runnable releaseHook;
 
   EndpointResponse(HttpResponseStatus statusCode) {
     this.statusCode = statusCode;
   }
 
+  EndpointResponse(HttpResponseStatus statusCode, String statusMessage, HttpVersion httpVersion,
+      MultiMap headers, MultiMap trailers, Buffer body) {
+    this.statusCode = statusCode;
+    this.statusMessage = statusMessage;
+    this.httpVersion = httpVersion;
+    this.headers = headers;
+    this.trailers = trailers;
+    this.body = body;
+  }
+
   static EndpointResponse fromHttpResponse(HttpResponse<Buffer> response) {
     EndpointResponse endpointResponse = new EndpointResponse(
         HttpResponseStatus.valueOf(response.statusCode()));
@@ -58,10 +72,60 @@ class EndpointResponse {
     return trailers;
   }
 
+  /**
+   * @return the body; for a streamed response it is encoded back from the records on first use
+   */
   public Buffer getBody() {
+    if (body == null && records != null) {
+      Buffer encoded = Buffer.buffer();
+      records.forEach(record -> encoded.appendString(String.valueOf(record)).appendString("\n"));
+      body = encoded;
+    }
     return body;
   }
 
+  /**
+   * @return records of a streamed newline delimited JSON body, or {@code null} when the body was
+   * not streamed
+   */
+  JsonArray getRecords() {
+    return records;
+  }
+
+  /**
+   * @return {@code true} when reading of a streamed body stopped at a limit
+   */
+  boolean isTruncated() {
+    return truncated;
+  }
+
+  EndpointResponse withRecords(JsonArray records, boolean truncated) {
+    this.records = records;
+    this.truncated = truncated;
+    return this;
+  }
+
+  /**
+   * @param releaseHook - called by {@link #release()}, e.g. to return the pooled memory the body is
+   * read from
+   * @return a reference to this
+   */
+  EndpointResponse withReleaseHook(Runnable releaseHook) {
+    this.releaseHook = releaseHook;
+    return this;
+  }
+
+  /**
+   * Releases the memory the body is read from, the body must not be used afterwards.
+   */
+  void release() {
+    Runnable hook = releaseHook;
+    releaseHook = null;
+    if (hook != null) {
+      hook.run();
+    }
+  }
+
   public String getStatusMessage() {
     return statusMessage;
   }
@@ -70,6 +134,14 @@ class EndpointResponse {
     return httpVersion;
   }
 
+  /**
+   * @return {@code true} when the response was received from the endpoint, {@code false} when it
+   * was created by the action, e.g. for a timeout or a rate limiting rejection
+   */
+  boolean isFromEndpoint() {
+    return httpVersion != null;
+  }
+
   @Override
   public String toString() {
     return "EndpointResponse{" +
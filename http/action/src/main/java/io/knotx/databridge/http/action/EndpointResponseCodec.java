@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.core.buffer.Buffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Compact binary representation of {@link EndpointResponse} used by response cache stores.
+ *
+ * <pre>
+ * byte    format version
+ * short   status code
+ * byte    HTTP version ordinal, -1 when unknown
+ * string  status message
+ * int     headers count, followed by name and value strings
+ * int     trailers count, followed by name and value strings
+ * int     body length, followed by body bytes
+ * </pre>
+ * Strings are encoded as an int length (-1 for null) followed by UTF-8 bytes.
+ */
+final class EndpointResponseCodec {
+
+  private static final byte FORMAT_VERSION = 1;
+  private static final byte UNKNOWN_HTTP_VERSION = -1;
+  private static final int NULL_LENGTH = -1;
+
+  private EndpointResponseCodec() {
+    //util class
+  }
+
+  static Buffer encode(EndpointResponse response) {
+    io.vertx.core.buffer.Buffer buffer = io.vertx.core.buffer.Buffer
+        .buffer(estimateSize(response));
+    buffer.appendByte(FORMAT_VERSION)
+        .appendShort((short) response.getStatusCode().code())
+        .appendByte(response.getHttpVersion() == null ? UNKNOWN_HTTP_VERSION
+            : (byte) response.getHttpVersion().ordinal());
+    appendString(buffer, response.getStatusMessage());
+    appendMultiMap(buffer, response.getHeaders());
+    appendMultiMap(buffer, response.getTrailers());
+    io.vertx.core.buffer.Buffer body = response.getBody().getDelegate();
+    buffer.appendInt(body.length())
+        .appendBuffer(body);
+    return Buffer.newInstance(buffer);
+  }
+
+  static EndpointResponse decode(Buffer encoded) {
+    Reader reader = new Reader(encoded.getDelegate());
+    byte version = reader.readByte();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported cached response format: " + version);
+    }
+    HttpResponseStatus statusCode = HttpResponseStatus.valueOf(reader.readShort());
+    byte httpVersion = reader.readByte();
+    String statusMessage = reader.readString();
+    MultiMap headers = reader.readMultiMap();
+    MultiMap trailers = reader.readMultiMap();
+    Buffer body = Buffer.newInstance(reader.readBuffer());
+    return new EndpointResponse(statusCode, statusMessage,
+        httpVersion == UNKNOWN_HTTP_VERSION ? null : HttpVersion.values()[httpVersion], headers,
+        trailers, body);
+  }
+
+  private static int estimateSize(EndpointResponse response) {
+    return 64 + response.getBody().length();
+  }
+
+  private static void appendMultiMap(io.vertx.core.buffer.Buffer buffer, MultiMap multiMap) {
+    List<Entry<String, String>> entries = multiMap.getDelegate().entries();
+    buffer.appendInt(entries.size());
+    for (Entry<String, String> entry : entries) {
+      appendString(buffer, entry.getKey());
+      appendString(buffer, entry.getValue());
+    }
+  }
+
+  private static void appendString(io.vertx.core.buffer.Buffer buffer, String value) {
+    if (value == null) {
+      buffer.appendInt(NULL_LENGTH);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+  }
+
+  private static final class Reader {
+
+    private final io.vertx.core.buffer.Buffer buffer;
+    private int position;
+
+    private Reader(io.vertx.core.buffer.Buffer buffer) {
+      this.buffer = buffer;
+    }
+
+    private byte readByte() {
+      return buffer.getByte(position++);
+    }
+
+    private short readShort() {
+      short value = buffer.getShort(position);
+      position += Short.BYTES;
+      return value;
+    }
+
+    private int readInt() {
+      int value = buffer.getInt(position);
+      position += Integer.BYTES;
+      return value;
+    }
+
+    private String readString() {
+      int length = readInt();
+      if (length == NULL_LENGTH) {
+        return null;
+      }
+      String value = buffer.getString(position, position + length, "UTF-8");
+      position += length;
+      return value;
+    }
+
+    private MultiMap readMultiMap() {
+      int size = readInt();
+      MultiMap multiMap = MultiMap.caseInsensitiveMultiMap();
+      for (int i = 0; i < size; i++) {
+        multiMap.add(readString(), readString());
+      }
+      return multiMap;
+    }
+
+    private io.vertx.core.buffer.Buffer readBuffer() {
+      int length = readInt();
+      io.vertx.core.buffer.Buffer value = buffer.slice(position, position + length);
+      position += length;
+      return value;
+    }
+  }
+}
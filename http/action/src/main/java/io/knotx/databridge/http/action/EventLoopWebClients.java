@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.util.UUID;
+
+/**
+ * Web clients of an action. With event loop affinity every event loop context calling the action
+ * gets its own client, kept in the context data, so the connections it pools are bound to the
+ * event loop of the caller and responses are handled without a thread hop. Clients created on a
+ * verticle context are closed when the verticle is undeployed. Calls from other threads, and all
+ * calls without affinity, use a single client.
+ */
+class EventLoopWebClients {
+
+  private final Vertx vertx;
+  private final WebClientOptions webClientOptions;
+  private final boolean eventLoopAffinity;
+  private final String contextKey = "knotx.http.action.webClient." + UUID.randomUUID();
+  private final WebClient sharedClient;
+
+  EventLoopWebClients(Vertx vertx, WebClientOptions webClientOptions,
+      boolean eventLoopAffinity) {
+    this.vertx = vertx;
+    this.webClientOptions = webClientOptions;
+    this.eventLoopAffinity = eventLoopAffinity;
+    this.sharedClient = createWebClient();
+  }
+
+  /**
+   * @return web client bound to the calling event loop, or the shared client
+   */
+  WebClient get() {
+    Context context = Vertx.currentContext();
+    if (!eventLoopAffinity || context == null || !context.isEventLoopContext()) {
+      return sharedClient;
+    }
+    WebClient client = context.get(contextKey);
+    if (client == null) {
+      client = createWebClient();
+      context.put(contextKey, client);
+    }
+    return client;
+  }
+
+  private WebClient createWebClient() {
+    WebClient webClient = WebClient
+        .create(io.vertx.reactivex.core.Vertx.newInstance(vertx), webClientOptions);
+    PhaseTimingInterceptor.install(webClient);
+    NdjsonBodyCodec.install(webClient);
+    return webClient;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes a single endpoint called by the fan-out HTTP Action.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class FanOutEndpointOptions {
+
+  private static final long DEFAULT_REQUEST_TIMEOUT = 0L;
+
+  private String key;
+  private boolean required = true;
+  private EndpointOptions endpointOptions = new EndpointOptions();
+  private long requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT;
+
+  public FanOutEndpointOptions() {
+    //empty default constructor
+  }
+
+  public FanOutEndpointOptions(FanOutEndpointOptions other) {
+    this.key = other.key;
+    this.required = other.required;
+    this.endpointOptions = new EndpointOptions(other.endpointOptions);
+    this.requestTimeoutMs = other.requestTimeoutMs;
+  }
+
+  public FanOutEndpointOptions(JsonObject json) {
+    this();
+    FanOutEndpointOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    FanOutEndpointOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Sets the key under which the endpoint payload is merged into the action payload.
+   *
+   * @param key - payload sub-key
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutEndpointOptions setKey(String key) {
+    this.key = key;
+    return this;
+  }
+
+  public boolean isRequired() {
+    return required;
+  }
+
+  /**
+   * Sets required - it determines if the action fails when the endpoint call fails. Failures of
+   * optional endpoints are logged and the remaining payloads are still returned with the _success
+   * transition. By default it is set to {@code true}.
+   *
+   * @param required - determines if the endpoint is required
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutEndpointOptions setRequired(boolean required) {
+    this.required = required;
+    return this;
+  }
+
+  public EndpointOptions getEndpointOptions() {
+    return endpointOptions;
+  }
+
+  /**
+   * Set the details of the remote http endpoint location.
+   *
+   * @param endpointOptions a {@link EndpointOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutEndpointOptions setEndpointOptions(EndpointOptions endpointOptions) {
+    this.endpointOptions = endpointOptions;
+    return this;
+  }
+
+  public long getRequestTimeoutMs() {
+    return requestTimeoutMs;
+  }
+
+  /**
+   * Configures the amount of time in milliseconds after which if the endpoint does not return any
+   * data within, its call fails with the _timeout transition. Setting zero or a negative value
+   * disables the timeout. By default it is set to {@code 0}.
+   *
+   * @param requestTimeoutMs - request timeout in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutEndpointOptions setRequestTimeoutMs(long requestTimeoutMs) {
+    this.requestTimeoutMs = requestTimeoutMs;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "FanOutEndpointOptions{" +
+        "key='" + key + '\'' +
+        ", required=" + required +
+        ", endpointOptions=" + endpointOptions +
+        ", requestTimeoutMs=" + requestTimeoutMs +
+        '}';
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static io.knotx.fragments.handler.api.domain.FragmentResult.ERROR_TRANSITION;
+import static io.knotx.fragments.handler.api.domain.FragmentResult.SUCCESS_TRANSITION;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.handler.api.Action;
+import io.knotx.fragments.handler.api.actionlog.ActionLogLevel;
+import io.knotx.fragments.handler.api.actionlog.ActionLogger;
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.reactivex.Single;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Calls several endpoints in parallel with a shared Web Client and merges their payloads under
+ * the endpoint keys. The action ends with the _success transition when all required endpoints
+ * succeed; failures of optional endpoints are only logged.
+ */
+public class FanOutHttpAction implements Action {
+
+  private static final String LOGS_KEY = "logs";
+
+  private final String actionAlias;
+  private final ActionLogLevel logLevel;
+  private final List<Endpoint> endpoints;
+
+  FanOutHttpAction(Vertx vertx, FanOutHttpActionOptions options, String actionAlias,
+      ActionLogLevel logLevel) {
+    if (options.getEndpoints().isEmpty()) {
+      throw new IllegalArgumentException("Fan-out HTTP Action requires at least one endpoint");
+    }
+    this.actionAlias = actionAlias;
+    this.logLevel = logLevel;
+    EventLoopWebClients webClients = new EventLoopWebClients(vertx,
+        options.getWebClientOptions(), options.isEventLoopAffinity());
+    this.endpoints = options.getEndpoints().stream()
+        .map(endpoint -> new Endpoint(endpoint, new HttpAction(vertx,
+            toHttpActionOptions(options, endpoint), actionAlias + "." + endpoint.getKey(),
+            logLevel, webClients)))
+        .collect(Collectors.toList());
+  }
+
+  private static HttpActionOptions toHttpActionOptions(FanOutHttpActionOptions options,
+      FanOutEndpointOptions endpoint) {
+    return new HttpActionOptions()
+        .setWebClientOptions(options.getWebClientOptions())
+        .setEventLoopAffinity(options.isEventLoopAffinity())
+        .setResponseOptions(options.getResponseOptions())
+        .setEndpointOptions(endpoint.getEndpointOptions())
+        .setRequestTimeoutMs(endpoint.getRequestTimeoutMs());
+  }
+
+  @Override
+  public void apply(FragmentContext fragmentContext,
+      Handler<AsyncResult<FragmentResult>> resultHandler) {
+    final ActionLogger actionLogger = ActionLogger.create(actionAlias, logLevel);
+    List<Single<EndpointOutcome>> calls = endpoints.stream()
+        .map(endpoint -> call(endpoint, fragmentContext))
+        .collect(Collectors.toList());
+    Single.zip(calls, outcomes -> merge(fragmentContext, outcomes, actionLogger))
+        .onErrorReturn(error -> {
+          actionLogger.error(error);
+          return new FragmentResult(fragmentContext.getFragment(), ERROR_TRANSITION,
+              actionLogger.toLog().toJson());
+        })
+        .map(Future::succeededFuture)
+        .subscribe(future -> future.setHandler(resultHandler));
+  }
+
+  private Single<EndpointOutcome> call(Endpoint endpoint, FragmentContext fragmentContext) {
+    ActionLogger endpointLogger = ActionLogger
+        .create(actionAlias + "." + endpoint.options.getKey(), logLevel);
+    return endpoint.action.invoke(fragmentContext, endpointLogger)
+        .onErrorReturn(error -> {
+          endpointLogger.error(error);
+          return new InvocationResult(null, ERROR_TRANSITION);
+        })
+        .map(result -> new EndpointOutcome(endpoint.options, result, endpointLogger));
+  }
+
+  private FragmentResult merge(FragmentContext fragmentContext, Object[] outcomes,
+      ActionLogger actionLogger) {
+    JsonObject payload = new JsonObject();
+    String transition = SUCCESS_TRANSITION;
+    for (Object item : outcomes) {
+      EndpointOutcome outcome = (EndpointOutcome) item;
+      String key = outcome.options.getKey();
+      if (outcome.result.getPayload() != null) {
+        payload.put(key, outcome.result.getPayload().toJson());
+      }
+      JsonObject endpointLogs = outcome.logger.toLog().toJson().getJsonObject(LOGS_KEY);
+      if (SUCCESS_TRANSITION.equals(outcome.result.getTransition())) {
+        actionLogger.info(key, endpointLogs);
+      } else {
+        actionLogger.error(key, endpointLogs);
+        if (outcome.options.isRequired()) {
+          transition = worse(transition, outcome.result.getTransition());
+        }
+      }
+    }
+    Fragment fragment = fragmentContext.getFragment();
+    fragment.appendPayload(actionAlias, payload);
+    return new FragmentResult(fragment, transition, actionLogger.toLog().toJson());
+  }
+
+  private static String worse(String current, String failure) {
+    if (ERROR_TRANSITION.equals(current) || ERROR_TRANSITION.equals(failure)) {
+      return ERROR_TRANSITION;
+    }
+    return failure;
+  }
+
+  private static final class Endpoint {
+
+    private final FanOutEndpointOptions options;
+    private final HttpAction action;
+
+    private Endpoint(FanOutEndpointOptions options, HttpAction action) {
+      this.options = options;
+      this.action = action;
+    }
+  }
+
+  private static final class EndpointOutcome {
+
+    private final FanOutEndpointOptions options;
+    private final InvocationResult result;
+    private final ActionLogger logger;
+
+    private EndpointOutcome(FanOutEndpointOptions options, InvocationResult result,
+        ActionLogger logger) {
+      this.options = options;
+      this.result = result;
+      this.logger = logger;
+    }
+  }
+}
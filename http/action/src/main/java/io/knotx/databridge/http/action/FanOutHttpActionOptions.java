@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClientOptions;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fan-out HTTP Action configuration
+ */
+@DataObject(generateConverter = true)
+public class FanOutHttpActionOptions {
+
+  private WebClientOptions webClientOptions = new WebClientOptions();
+  private boolean eventLoopAffinity;
+  private ResponseOptions responseOptions = new ResponseOptions();
+  private List<FanOutEndpointOptions> endpoints = new ArrayList<>();
+  private String logLevel;
+
+  public FanOutHttpActionOptions() {
+  }
+
+  public FanOutHttpActionOptions(JsonObject json) {
+    FanOutHttpActionOptionsConverter.fromJson(json, this);
+  }
+
+  public WebClientOptions getWebClientOptions() {
+    return webClientOptions;
+  }
+
+  /**
+   * Set the {@code WebClientOptions} of the HTTP client shared by all endpoint calls. See
+   * https://vertx.io/docs/vertx-web-client/dataobjects.html#WebClientOptions for the details what
+   * can be configured.
+   *
+   * @param webClientOptions {@link WebClientOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutHttpActionOptions setWebClientOptions(WebClientOptions webClientOptions) {
+    this.webClientOptions = webClientOptions;
+    return this;
+  }
+
+  public boolean isEventLoopAffinity() {
+    return eventLoopAffinity;
+  }
+
+  /**
+   * Binds HTTP clients to event loops. Requests sent from an event loop use a client (and its
+   * connection pool) created for the calling context, so the request is sent, the response is
+   * received and parsed on the same thread. Each event loop keeps its own pool of {@code
+   * webClientOptions.maxPoolSize} connections, so the endpoint gets up to the number of event
+   * loops times {@code maxPoolSize} connections; lower {@code maxPoolSize} accordingly when
+   * enabling it. Requests sent from other threads use a client shared by the action. By default it
+   * is set to {@code false}.
+   *
+   * @param eventLoopAffinity - determines if HTTP clients are bound to the calling event loop
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutHttpActionOptions setEventLoopAffinity(boolean eventLoopAffinity) {
+    this.eventLoopAffinity = eventLoopAffinity;
+    return this;
+  }
+
+  public ResponseOptions getResponseOptions() {
+    return responseOptions;
+  }
+
+  /**
+   * Set the details of the response handling applied to all endpoints.
+   *
+   * @param responseOptions a {@link ResponseOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutHttpActionOptions setResponseOptions(ResponseOptions responseOptions) {
+    this.responseOptions = responseOptions;
+    return this;
+  }
+
+  public List<FanOutEndpointOptions> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * Set the endpoints called in parallel. Each endpoint payload is merged into the action payload
+   * under the endpoint key.
+   *
+   * @param endpoints list of {@link FanOutEndpointOptions}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutHttpActionOptions setEndpoints(List<FanOutEndpointOptions> endpoints) {
+    this.endpoints = endpoints;
+    return this;
+  }
+
+  public String getLogLevel() {
+    return logLevel;
+  }
+
+  /**
+   * Set level of action logs.
+   *
+   * @param logLevel level of action logs
+   * @return a reference to this, so the API can be used fluently
+   */
+  public FanOutHttpActionOptions setLogLevel(String logLevel) {
+    this.logLevel = logLevel;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "FanOutHttpActionOptions{" +
+        "webClientOptions=" + webClientOptions +
+        ", eventLoopAffinity=" + eventLoopAffinity +
+        ", responseOptions=" + responseOptions +
+        ", endpoints=" + endpoints +
+        ", logLevel='" + logLevel + '\'' +
+        '}';
+  }
+}
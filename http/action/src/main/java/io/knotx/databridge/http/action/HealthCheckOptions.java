@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the active health checking of the endpoint hosts. Every host is periodically sent a
+ * {@code GET} request to the health path; hosts failing the check are removed from the load
+ * balancing until they pass it again. Hosts get no traffic until their first check passes.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class HealthCheckOptions {
+
+  private static final String DEFAULT_PATH = "/health";
+  private static final long DEFAULT_INTERVAL = 5000L;
+  private static final long DEFAULT_TIMEOUT = 1000L;
+  private static final int DEFAULT_HEALTHY_THRESHOLD = 2;
+  private static final int DEFAULT_UNHEALTHY_THRESHOLD = 2;
+
+  private boolean enabled;
+  private String path = DEFAULT_PATH;
+  private long intervalMs = DEFAULT_INTERVAL;
+  private long timeoutMs = DEFAULT_TIMEOUT;
+  private int healthyThreshold = DEFAULT_HEALTHY_THRESHOLD;
+  private int unhealthyThreshold = DEFAULT_UNHEALTHY_THRESHOLD;
+
+  public HealthCheckOptions() {
+    //empty default constructor
+  }
+
+  public HealthCheckOptions(HealthCheckOptions other) {
+    this.enabled = other.enabled;
+    this.path = other.path;
+    this.intervalMs = other.intervalMs;
+    this.timeoutMs = other.timeoutMs;
+    this.healthyThreshold = other.healthyThreshold;
+    this.unhealthyThreshold = other.unhealthyThreshold;
+  }
+
+  public HealthCheckOptions(JsonObject json) {
+    this();
+    HealthCheckOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    HealthCheckOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the active health checking. By default it is set to {@code false}.
+   *
+   * @param enabled - determines if hosts are health checked
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Sets the path of the health check request. Responses with the {@code 2xx} status codes pass
+   * the check. By default it is set to {@code /health}.
+   *
+   * @param path - health check request path
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setPath(String path) {
+    this.path = path;
+    return this;
+  }
+
+  public long getIntervalMs() {
+    return intervalMs;
+  }
+
+  /**
+   * Sets the time in milliseconds between health checks of a host. By default it is set to {@code
+   * 5000}.
+   *
+   * @param intervalMs - health check interval in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setIntervalMs(long intervalMs) {
+    this.intervalMs = intervalMs;
+    return this;
+  }
+
+  public long getTimeoutMs() {
+    return timeoutMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which a health check without response fails. By default
+   * it is set to {@code 1000}.
+   *
+   * @param timeoutMs - health check timeout in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setTimeoutMs(long timeoutMs) {
+    this.timeoutMs = timeoutMs;
+    return this;
+  }
+
+  public int getHealthyThreshold() {
+    return healthyThreshold;
+  }
+
+  /**
+   * Sets the number of checks in a row an unhealthy host must pass to get traffic again. The
+   * first check of a host decides its state on its own. By default it is set to {@code 2}.
+   *
+   * @param healthyThreshold - number of passed checks in a row
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setHealthyThreshold(int healthyThreshold) {
+    this.healthyThreshold = healthyThreshold;
+    return this;
+  }
+
+  public int getUnhealthyThreshold() {
+    return unhealthyThreshold;
+  }
+
+  /**
+   * Sets the number of checks in a row a healthy host must fail to be removed from the load
+   * balancing. The first check of a host decides its state on its own. By default it is set to
+   * {@code 2}.
+   *
+   * @param unhealthyThreshold - number of failed checks in a row
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HealthCheckOptions setUnhealthyThreshold(int unhealthyThreshold) {
+    this.unhealthyThreshold = unhealthyThreshold;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "HealthCheckOptions{" +
+        "enabled=" + enabled +
+        ", path='" + path + '\'' +
+        ", intervalMs=" + intervalMs +
+        ", timeoutMs=" + timeoutMs +
+        ", healthyThreshold=" + healthyThreshold +
+        ", unhealthyThreshold=" + unhealthyThreshold +
+        '}';
+  }
+}
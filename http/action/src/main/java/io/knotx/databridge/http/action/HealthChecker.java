@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static io.netty.handler.codec.http.HttpStatusClass.SUCCESS;
+
+import io.knotx.databridge.http.action.EndpointHosts.Host;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+
+/**
+ * Periodically sends a {@code GET} request to the health path of every endpoint host and records
+ * the results in {@link EndpointHosts}. The first check runs when the checker starts; hosts get no
+ * traffic until it passes. A host is not checked again until its previous check finishes. The
+ * checker must be started and stopped on the same context.
+ */
+class HealthChecker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HealthChecker.class);
+
+  private final Vertx vertx;
+  private final EndpointHosts endpointHosts;
+  private final HealthCheckOptions options;
+  private final WebClient webClient;
+  private long timerId = -1;
+  private volatile boolean stopped;
+
+  HealthChecker(Vertx vertx, EndpointHosts endpointHosts, HealthCheckOptions options,
+      WebClientOptions webClientOptions) {
+    this.vertx = vertx;
+    this.endpointHosts = endpointHosts;
+    this.options = options;
+    this.webClient = WebClient.create(vertx, webClientOptions);
+  }
+
+  void start() {
+    checkAll();
+    timerId = vertx.setPeriodic(options.getIntervalMs(), id -> checkAll());
+  }
+
+  /**
+   * Cancels the checks, results of the checks in progress are ignored.
+   */
+  void stop() {
+    stopped = true;
+    vertx.cancelTimer(timerId);
+    webClient.close();
+    endpointHosts.getHosts().forEach(Host::finishHealthCheck);
+  }
+
+  private void checkAll() {
+    endpointHosts.getHosts().stream()
+        .filter(Host::startHealthCheck)
+        .forEach(this::check);
+  }
+
+  private void check(Host host) {
+    webClient.get(host.getPort(), host.getName(), options.getPath())
+        .timeout(options.getTimeoutMs())
+        .send(ar -> {
+          boolean passed = ar.succeeded() && SUCCESS.contains(ar.result().statusCode());
+          if (!passed) {
+            LOGGER.debug("Health check of [{}] failed: {}", host,
+                ar.succeeded() ? ar.result().statusCode() : ar.cause().getMessage());
+          }
+          if (!stopped) {
+            endpointHosts.recordHealthCheck(host, passed);
+          }
+        });
+  }
+}
@@ -22,6 +22,16 @@ import static io.netty.handler.codec.http.HttpStatusClass.SUCCESS;
 
 import io.knotx.commons.http.request.AllowedHeadersFilter;
 import io.knotx.commons.http.request.MultiMapCollector;
+import io.knotx.databridge.http.action.EndpointHosts.Host;
+import io.knotx.databridge.http.action.PhaseTimings.Phase;
+import io.knotx.databridge.http.action.decoder.BodyDecoder;
+import io.knotx.databridge.http.action.decoder.BodyDecoderRegistry;
+import io.knotx.databridge.http.action.decoder.NdjsonBodyDecoder;
+import io.knotx.databridge.http.action.tracing.Sampler;
+import io.knotx.databridge.http.action.tracing.Span;
+import io.knotx.databridge.http.action.tracing.TraceContext;
+import io.knotx.databridge.http.action.tracing.Tracer;
+import io.knotx.databridge.http.action.tracing.TracerProvider;
 import io.knotx.fragments.api.Fragment;
 import io.knotx.fragments.handler.api.Action;
 import io.knotx.fragments.handler.api.actionlog.ActionLogLevel;
@@ -30,13 +40,16 @@ import io.knotx.fragments.handler.api.domain.FragmentContext;
 import io.knotx.fragments.handler.api.domain.FragmentResult;
 import io.knotx.fragments.handler.api.domain.payload.ActionPayload;
 import io.knotx.fragments.handler.api.domain.payload.ActionRequest;
+import io.knotx.fragments.handler.api.domain.payload.ActionResponse;
 import io.knotx.server.api.context.ClientRequest;
 import io.knotx.server.common.placeholders.PlaceholdersResolver;
 import io.knotx.server.common.placeholders.SourceDefinitions;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.reactivex.Completable;
 import io.reactivex.Single;
 import io.reactivex.exceptions.Exceptions;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -50,13 +63,21 @@ import io.vertx.core.logging.LoggerFactory;
 import io.vertx.ext.web.client.predicate.ResponsePredicate;
 import io.vertx.reactivex.core.MultiMap;
 import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.net.SocketAddress;
 import io.vertx.reactivex.ext.web.client.HttpRequest;
-import io.vertx.reactivex.ext.web.client.HttpResponse;
 import io.vertx.reactivex.ext.web.client.WebClient;
+import io.vertx.reactivex.ext.web.codec.BodyCodec;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 
@@ -72,18 +93,43 @@ public class HttpAction implements Action {
   private static final String JSON = "JSON";
   private static final String APPLICATION_JSON = "application/json";
   private static final String CONTENT_TYPE = "Content-Type";
+  private static final String ACCEPT = "Accept";
   private static final String RESPONSE = "response";
   private static final String REQUEST = "request";
   private static final String RESPONSE_BODY = "responseBody";
+  private static final String STREAM = "stream";
+  private static final String RETRY_AFTER = "Retry-After";
+  private static final String TIMINGS = "timings";
+  private static final String SPAN_NAME = "HTTP GET";
+  private static final Predicate<String> ALL_HEADERS = name -> true;
+  private static final long MIN_REMAINING_MS = 1L;
+  private static final BodyDecoderRegistry NDJSON_DECODERS = BodyDecoderRegistry
+      .of(new NdjsonBodyDecoder());
   private final boolean isJsonPredicate;
   private final boolean isForceJson;
+  private final boolean isRequestHeadersInMetadata;
+  private final Predicate<String> metadataHeadersFilter;
+  private final String acceptHeader;
+  private final BodyDecoderRegistry bodyDecoders;
 
+  private final Vertx vertx;
   private final EndpointOptions endpointOptions;
-  private final WebClient webClient;
+  private final SocketAddress serverAddress;
+  private final EndpointHosts endpointHosts;
+  private final AdaptiveTimeout adaptiveTimeout;
+  private final EventLoopWebClients webClients;
   private final String actionAlias;
   private final HttpActionOptions httpActionOptions;
   private final ResponsePredicatesProvider predicatesProvider;
   private final ActionLogLevel logLevel;
+  private final ResponseTransform responseTransform;
+  private final StreamingOptions streamingOptions;
+  private final LogSamplingOptions logSamplingOptions;
+  private final BodyParsingExecutor bodyParsingExecutor;
+  private final ResponseCache responseCache;
+  private final TokenBucketRateLimiter rateLimiter;
+  private final HttpActionMetrics metrics;
+  private final Tracer tracer;
   private static final ResponsePredicate IS_JSON_RESPONSE = ResponsePredicate
       .create(ResponsePredicate.JSON, result -> {
         throw new ReplyException(ReplyFailure.RECIPIENT_FAILURE, result.message());
@@ -91,28 +137,153 @@ public class HttpAction implements Action {
 
   HttpAction(Vertx vertx, HttpActionOptions httpActionOptions, String actionAlias,
       ActionLogLevel logLevel) {
+    this(vertx, httpActionOptions, actionAlias, logLevel,
+        new EventLoopWebClients(vertx, httpActionOptions.getWebClientOptions(),
+            httpActionOptions.isEventLoopAffinity()));
+  }
+
+  HttpAction(Vertx vertx, HttpActionOptions httpActionOptions, String actionAlias,
+      ActionLogLevel logLevel, EventLoopWebClients webClients) {
+    this.vertx = vertx;
     this.httpActionOptions = httpActionOptions;
-    this.webClient = WebClient.create(io.vertx.reactivex.core.Vertx.newInstance(vertx),
-        httpActionOptions.getWebClientOptions());
+    this.webClients = webClients;
     this.endpointOptions = httpActionOptions.getEndpointOptions();
+    this.serverAddress = createServerAddress(vertx, endpointOptions);
+    this.endpointHosts = createEndpointHosts(vertx, httpActionOptions);
+    this.adaptiveTimeout = httpActionOptions.getAdaptiveTimeoutOptions().isEnabled()
+        ? AdaptiveTimeout.getOrCreate(vertx,
+        endpointOptions.getDomain() + ":" + endpointOptions.getPort(),
+        httpActionOptions.getAdaptiveTimeoutOptions(), httpActionOptions.getRequestTimeoutMs())
+        : null;
     this.actionAlias = actionAlias;
     predicatesProvider = new ResponsePredicatesProvider();
     this.isJsonPredicate = this.httpActionOptions.getResponseOptions().getPredicates()
         .contains(JSON);
     this.isForceJson = httpActionOptions.getResponseOptions().isForceJson();
+    this.isRequestHeadersInMetadata = httpActionOptions.getResponseOptions()
+        .isRequestHeadersInMetadata();
+    this.metadataHeadersFilter = createMetadataHeadersFilter(
+        httpActionOptions.getResponseOptions().getMetadataHeaders());
+    List<String> acceptedContentTypes = httpActionOptions.getResponseOptions()
+        .getAcceptedContentTypes();
+    this.acceptHeader = acceptedContentTypes.isEmpty() ? null
+        : String.join(", ", acceptedContentTypes);
+    this.bodyDecoders = BodyDecoderRegistry.load();
+    this.responseTransform = ResponseTransform.compile(
+        httpActionOptions.getResponseOptions().getTransform());
     this.logLevel = logLevel;
+    this.logSamplingOptions = httpActionOptions.getLogSamplingOptions();
+    this.streamingOptions = httpActionOptions.getStreamingOptions();
+    this.bodyParsingExecutor = createBodyParsingExecutor(vertx,
+        httpActionOptions.getBodyParsingOptions());
+    this.responseCache = httpActionOptions.getCacheOptions().isEnabled()
+        ? new ResponseCache(vertx, actionAlias, httpActionOptions.getCacheOptions(),
+        endpointOptions, httpActionOptions.getDeadlineOptions(), this::refresh)
+        : null;
+    this.rateLimiter = createRateLimiter(vertx, httpActionOptions.getRateLimitOptions());
+    this.metrics = HttpActionMetrics.getOrCreate(vertx, actionAlias);
+    this.tracer = createTracer(vertx, httpActionOptions.getTracingOptions());
+  }
+
+  private static Tracer createTracer(Vertx vertx, TracingOptions tracingOptions) {
+    if (tracingOptions.isEnabled()) {
+      return TracerProvider.create(tracingOptions.getTracer(), tracingOptions.getTracerConfig(),
+          Sampler.ratio(tracingOptions.getSamplingRatio()), vertx);
+    }
+    return null;
+  }
+
+  private static SocketAddress createServerAddress(Vertx vertx, EndpointOptions endpointOptions) {
+    String unixSocketPath = endpointOptions.getUnixSocketPath();
+    if (StringUtils.isBlank(unixSocketPath)) {
+      return null;
+    }
+    if (!vertx.isNativeTransportEnabled()) {
+      LOGGER.warn("Native transport is not available, endpoint [{}] falls back to TCP {}:{}",
+          unixSocketPath, endpointOptions.getDomain(), endpointOptions.getPort());
+      return null;
+    }
+    return SocketAddress.domainSocketAddress(unixSocketPath);
+  }
+
+  /**
+   * An endpoint without {@code hosts} is health checked as a single host, {@code domain:port}.
+   */
+  private EndpointHosts createEndpointHosts(Vertx vertx, HttpActionOptions httpActionOptions) {
+    if (serverAddress != null) {
+      return null;
+    }
+    List<String> hosts = endpointOptions.getHosts();
+    if (hosts.isEmpty() && httpActionOptions.getHealthCheckOptions().isEnabled()) {
+      hosts = Collections.singletonList(
+          endpointOptions.getDomain() + ":" + endpointOptions.getPort());
+    }
+    if (hosts.isEmpty()) {
+      return null;
+    }
+    return EndpointHosts.getOrCreate(vertx, hosts,
+        httpActionOptions.getOutlierDetectionOptions(),
+        httpActionOptions.getHealthCheckOptions(), httpActionOptions.getWebClientOptions());
+  }
+
+  private TokenBucketRateLimiter createRateLimiter(Vertx vertx,
+      RateLimitOptions rateLimitOptions) {
+    if (rateLimitOptions.getPermitsPerSecond() > 0) {
+      return TokenBucketRateLimiter.getOrCreate(vertx,
+          endpointOptions.getDomain() + ":" + endpointOptions.getPort(), rateLimitOptions);
+    }
+    return null;
+  }
+
+  private static BodyParsingExecutor createBodyParsingExecutor(Vertx vertx,
+      BodyParsingOptions bodyParsingOptions) {
+    if (bodyParsingOptions.getOffloadThresholdBytes() > 0) {
+      return BodyParsingExecutor.getOrCreate(vertx, bodyParsingOptions);
+    }
+    return null;
+  }
+
+  private static Predicate<String> createMetadataHeadersFilter(Set<String> metadataHeaders) {
+    if (metadataHeaders == null) {
+      return ALL_HEADERS;
+    } else if (metadataHeaders.isEmpty()) {
+      return null;
+    }
+    return metadataHeaders::contains;
   }
 
   @Override
   public void apply(FragmentContext fragmentContext,
       Handler<AsyncResult<FragmentResult>> resultHandler) {
-    final ActionLogger actionLogger = ActionLogger.create(actionAlias, logLevel);
-    process(fragmentContext, actionLogger)
+    final ActionLogger actionLogger = ActionLogger.create(actionAlias,
+        getLogLevel(fragmentContext));
+    invoke(fragmentContext, actionLogger)
+        .map(result -> toFragmentResult(fragmentContext, result, actionLogger))
         .onErrorReturn(error -> logAndErrorTransition(error, fragmentContext, actionLogger))
         .map(Future::succeededFuture)
         .subscribe(future -> future.setHandler(resultHandler));
   }
 
+  /**
+   * Calls the endpoint without modifying the Fragment.
+   *
+   * @param fragmentContext - fragment context
+   * @param actionLogger - logger collecting the call details
+   * @return the payload and transition, or an error when the call failed with an exception
+   */
+  Single<InvocationResult> invoke(FragmentContext fragmentContext, ActionLogger actionLogger) {
+    final PhaseTimings timings = new PhaseTimings();
+    return process(fragmentContext, actionLogger, timings)
+        .doOnError(error -> logTimings(actionLogger, timings, false));
+  }
+
+  private FragmentResult toFragmentResult(FragmentContext fragmentContext,
+      InvocationResult result, ActionLogger actionLogger) {
+    Fragment fragment = fragmentContext.getFragment();
+    fragment.appendPayload(actionAlias, result.getPayload().toJson());
+    return new FragmentResult(fragment, result.getTransition(), actionLogger.toLog().toJson());
+  }
+
   private FragmentResult logAndErrorTransition(Throwable error, FragmentContext fragmentContext,
       ActionLogger actionLogger) {
     actionLogger.error(error);
@@ -120,27 +291,260 @@ public class HttpAction implements Action {
         actionLogger.toLog().toJson());
   }
 
-  private Single<FragmentResult> process(FragmentContext fragmentContext,
-      ActionLogger actionLogger) {
+  /**
+   * With log sampling enabled, only sampled requests and requests with the trigger header value are
+   * logged verbosely. Sampling never raises the configured level.
+   */
+  private ActionLogLevel getLogLevel(FragmentContext fragmentContext) {
+    if (!logSamplingOptions.isEnabled() || logLevel != ActionLogLevel.INFO) {
+      return logLevel;
+    }
+    String triggerHeader = logSamplingOptions.getTriggerHeader();
+    String triggerValue = logSamplingOptions.getTriggerValue();
+    if (triggerHeader != null && triggerValue != null && fragmentContext.getClientRequest()
+        .getHeaders().getAll(triggerHeader).contains(triggerValue)) {
+      return ActionLogLevel.INFO;
+    }
+    return ThreadLocalRandom.current().nextDouble() < logSamplingOptions.getSampleRate()
+        ? ActionLogLevel.INFO
+        : ActionLogLevel.ERROR;
+  }
+
+  private boolean isSlowCall(PhaseTimings timings) {
+    long thresholdMs = logSamplingOptions.getSlowCallThresholdMs();
+    return logSamplingOptions.isEnabled() && logLevel == ActionLogLevel.INFO && thresholdMs > 0
+        && timings.offsetNanos(Phase.COMPLETED) >= TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+  }
+
+  private void logTimings(ActionLogger actionLogger, PhaseTimings timings, boolean success) {
+    timings.mark(Phase.COMPLETED);
+    metrics.record(timings);
+    if (success && !isSlowCall(timings)) {
+      actionLogger.info(TIMINGS, timings.toJson());
+    } else {
+      actionLogger.error(TIMINGS, timings.toJson());
+    }
+  }
+
+  private Single<InvocationResult> process(FragmentContext fragmentContext,
+      ActionLogger actionLogger, PhaseTimings timings) {
     return Single.just(fragmentContext)
         .map(this::createEndpointRequest)
-        .doOnSuccess(request -> logRequest(actionLogger, request))
-        .flatMap(
-            request -> invokeEndpoint(request)
-                .doOnSuccess(
-                    response -> logResponse(request, HttpResponseData.from(response), actionLogger))
-                .doOnError(throwable -> logErrorAndRequest(actionLogger, throwable, request))
-                .map(EndpointResponse::fromHttpResponse)
-                .onErrorReturn(this::handleTimeout)
-                .map(response -> createFragmentResult(fragmentContext, request, response,
-                    actionLogger)));
+        .flatMap(request -> {
+          Span span = startSpan(fragmentContext, request);
+          timings.mark(Phase.REQUEST_PREPARED);
+          logRequest(actionLogger, request);
+          return fetchResponse(request, actionLogger, timings)
+              .doOnSuccess(response -> setResponseAttributes(span, response))
+              .flatMap(response -> createInvocationResult(request, response, actionLogger,
+                  timings).doFinally(response::release))
+              .doOnSuccess(result -> endSpan(span, result.getTransition(), null))
+              .doOnError(error -> endSpan(span, null, error));
+        });
+  }
+
+  private Span startSpan(FragmentContext fragmentContext, EndpointRequest request) {
+    if (tracer == null) {
+      return null;
+    }
+    MultiMap clientHeaders = fragmentContext.getClientRequest().getHeaders();
+    TraceContext parent = TraceContext.fromHeaders(clientHeaders.get(TraceContext.TRACEPARENT),
+        clientHeaders.get(TraceContext.TRACESTATE));
+    Span span = tracer.startSpan(SPAN_NAME, parent);
+    request.setTraceContext(span.getContext());
+    if (span.isRecording()) {
+      span.setAttribute("knotx.action.alias", actionAlias)
+          .setAttribute("http.method", HttpMethod.GET.name())
+          .setAttribute("http.url", toUrl(request))
+          .setAttribute("net.peer.name", endpointOptions.getDomain())
+          .setAttribute("net.peer.port", endpointOptions.getPort());
+      if (serverAddress != null) {
+        span.setAttribute("net.transport", "unix")
+            .setAttribute("net.sock.peer.addr", serverAddress.path());
+      }
+    }
+    return span;
+  }
+
+  private void setResponseAttributes(Span span, EndpointResponse response) {
+    if (span != null && span.isRecording()) {
+      Buffer body = response.getBody();
+      span.setAttribute("http.status_code", response.getStatusCode().code())
+          .setAttribute("http.response_content_length", body == null ? 0 : body.length());
+    }
+  }
+
+  private void endSpan(Span span, String transition, Throwable error) {
+    if (span != null) {
+      if (error != null) {
+        span.setError(error);
+      } else {
+        span.setAttribute("knotx.transition", transition);
+      }
+      span.end();
+    }
+  }
+
+  private Single<EndpointResponse> fetchResponse(EndpointRequest request,
+      ActionLogger actionLogger, PhaseTimings timings) {
+    if (responseCache == null) {
+      return callEndpoint(request, actionLogger, timings);
+    }
+    String cacheKey = responseCache.key(request);
+    return responseCache.get(cacheKey)
+        .doOnSuccess(
+            response -> logResponse(request, HttpResponseData.from(response), actionLogger))
+        .switchIfEmpty(callEndpoint(request, actionLogger, timings)
+            .doOnSuccess(response -> responseCache.put(cacheKey, request, response)));
+  }
+
+  private Single<EndpointResponse> refresh(EndpointRequest request) {
+    return callEndpoint(request, ActionLogger.create(actionAlias, ActionLogLevel.ERROR),
+        new PhaseTimings());
+  }
+
+  private Single<EndpointResponse> callEndpoint(EndpointRequest request,
+      ActionLogger actionLogger, PhaseTimings timings) {
+    if (rateLimiter == null) {
+      return sendRequest(request, actionLogger, timings);
+    }
+    return Single.defer(() -> {
+      long waitNanos = rateLimiter.tryAcquire(TimeUnit.MILLISECONDS
+          .toNanos(httpActionOptions.getRateLimitOptions().getMaxWaitMs()));
+      if (waitNanos == TokenBucketRateLimiter.REJECTED) {
+        LOGGER.warn("GET {} -> Rate limit exceeded", toUrl(request));
+        return Single.just(new EndpointResponse(HttpResponseStatus.TOO_MANY_REQUESTS));
+      }
+      return delay(waitNanos).andThen(sendRequest(request, actionLogger, timings))
+          .doOnSuccess(this::applyRetryAfter);
+    });
+  }
+
+  private Completable delay(long waitNanos) {
+    if (waitNanos <= 0) {
+      return Completable.complete();
+    }
+    long waitMs = Math.max(TimeUnit.NANOSECONDS.toMillis(waitNanos), 1L);
+    return Completable.create(emitter -> vertx.setTimer(waitMs, timerId -> emitter.onComplete()));
+  }
+
+  private void applyRetryAfter(EndpointResponse response) {
+    RateLimitOptions rateLimitOptions = httpActionOptions.getRateLimitOptions();
+    HttpResponseStatus status = response.getStatusCode();
+    if (rateLimitOptions.isRetryAfterBackoff() && (HttpResponseStatus.TOO_MANY_REQUESTS == status
+        || HttpResponseStatus.SERVICE_UNAVAILABLE == status)) {
+      String retryAfter = response.getHeaders().get(RETRY_AFTER);
+      if (retryAfter != null) {
+        long backoffMs = Math.min(TokenBucketRateLimiter.parseRetryAfterMs(retryAfter),
+            rateLimitOptions.getMaxRetryAfterMs());
+        if (backoffMs > 0) {
+          LOGGER.warn("{}:{} -> Endpoint asked to back off for {}ms", endpointOptions.getDomain(),
+              endpointOptions.getPort(), backoffMs);
+          rateLimiter.pause(TimeUnit.MILLISECONDS.toNanos(backoffMs));
+        }
+      }
+    }
+  }
+
+  private Single<EndpointResponse> sendRequest(EndpointRequest request,
+      ActionLogger actionLogger, PhaseTimings timings) {
+    return Single.defer(() -> {
+      if (request.getRemainingMs() <= 0) {
+        LOGGER.warn("GET {} -> Deadline exceeded before sending the request", toUrl(request));
+        return Single.just(new EndpointResponse(HttpResponseStatus.REQUEST_TIMEOUT));
+      }
+      if (endpointHosts != null && !endpointHosts.hasHealthyHost()) {
+        LOGGER.warn("GET {} -> No healthy endpoint host", toUrl(request));
+        return Single.just(new EndpointResponse(HttpResponseStatus.SERVICE_UNAVAILABLE));
+      }
+      return invokeEndpoint(request, timings)
+          .doOnSuccess(
+              response -> logResponse(request, HttpResponseData.from(response), actionLogger))
+          .doOnError(throwable -> logErrorAndRequest(actionLogger, throwable, request))
+          .onErrorReturn(this::handleTimeout);
+    });
+  }
+
+  private Single<EndpointResponse> invokeEndpoint(EndpointRequest request,
+      PhaseTimings timings) {
+    if (endpointHosts == null && adaptiveTimeout == null) {
+      return Single.just(request)
+          .map(endpointRequest -> createHttpRequest(endpointRequest, null))
+          .doOnSuccess(this::addPredicates)
+          .flatMap(httpRequest -> send(httpRequest, timings));
+    }
+    return Single.defer(() -> {
+      Host host = endpointHosts == null ? null : endpointHosts.select();
+      long startNanos = System.nanoTime();
+      return Single.just(request)
+          .map(endpointRequest -> createHttpRequest(endpointRequest, host))
+          .doOnSuccess(this::addPredicates)
+          .flatMap(httpRequest -> send(httpRequest, timings))
+          .doOnEvent((response, error) -> recordOutcome(host, timings.getResponseStatus(), error,
+              System.nanoTime() - startNanos));
+    });
+  }
+
+  /**
+   * Latencies of requests without any response are not observed by the adaptive timeout, except
+   * timeouts, so it grows when the endpoint slows down.
+   */
+  private void recordOutcome(Host host, int status, Throwable error, long latencyNanos) {
+    if (host != null) {
+      endpointHosts.record(host, status, error, latencyNanos);
+    }
+    if (adaptiveTimeout != null
+        && (status != PhaseTimings.NO_RESPONSE || error instanceof TimeoutException)) {
+      adaptiveTimeout.record(latencyNanos);
+    }
+  }
+
+  private Single<EndpointResponse> send(HttpRequest<Buffer> request, PhaseTimings timings) {
+    if (streamingOptions.isEnabled()) {
+      return sendStreaming(request, timings);
+    }
+    return Single.create(emitter -> {
+      Thread sender = Context.isOnVertxThread() ? Thread.currentThread() : null;
+      PhaseTimingInterceptor.send(timings, () -> request.send(ar -> {
+        recordThreadHop(sender);
+        if (ar.succeeded()) {
+          emitter.onSuccess(EndpointResponse.fromHttpResponse(ar.result()));
+        } else {
+          emitter.onError(ar.cause());
+        }
+      }));
+    });
+  }
+
+  /**
+   * A request reset by the codec at a streaming limit fails in the Web Client, but its response is
+   * complete for the action.
+   */
+  private Single<EndpointResponse> sendStreaming(HttpRequest<Buffer> request,
+      PhaseTimings timings) {
+    return Single.create(emitter -> {
+      Thread sender = Context.isOnVertxThread() ? Thread.currentThread() : null;
+      NdjsonBodyCodec codec = new NdjsonBodyCodec(streamingOptions,
+          contentType -> NDJSON_DECODERS.find(contentType) != null);
+      PhaseTimingInterceptor.send(timings, () -> request.as(BodyCodec.newInstance(codec))
+          .send(ar -> {
+            recordThreadHop(sender);
+            if (ar.succeeded() || codec.isTruncated()) {
+              if (!timings.isMarked(Phase.BODY_RECEIVED)) {
+                timings.mark(Phase.BODY_RECEIVED);
+              }
+              emitter.onSuccess(codec.toEndpointResponse(ar.succeeded() ? ar.result() : null));
+            } else {
+              emitter.onError(ar.cause());
+            }
+          }));
+    });
   }
 
-  private Single<HttpResponse<Buffer>> invokeEndpoint(EndpointRequest request) {
-    return Single.just(request)
-        .map(this::createHttpRequest)
-        .doOnSuccess(this::addPredicates)
-        .flatMap(HttpRequest::rxSend);
+  private void recordThreadHop(Thread sender) {
+    if (sender != null && sender != Thread.currentThread()) {
+      metrics.recordThreadHop();
+    }
   }
 
   private void addPredicates(HttpRequest<Buffer> request) {
@@ -172,6 +576,17 @@ public class HttpAction implements Action {
     return headers;
   }
 
+  /**
+   * Slow calls are logged at the error level, so their details are kept also when the request was
+   * not sampled.
+   */
+  private void logSlowCall(ActionLogger actionLogger, EndpointRequest request,
+      HttpResponseData httpResponseData) {
+    actionLogger.error(REQUEST, new JsonObject().put("path", request.getPath())
+        .put("requestHeaders", getHeadersFromRequest(request)));
+    actionLogger.error(RESPONSE, getResponseData(request, httpResponseData));
+  }
+
   private void logResponseOnError(ActionLogger actionLogger, EndpointRequest request,
       HttpResponseData httpResponseData) {
     JsonObject responseData = getResponseData(request, httpResponseData);
@@ -186,16 +601,55 @@ public class HttpAction implements Action {
     throw Exceptions.propagate(throwable);
   }
 
-  private HttpRequest<Buffer> createHttpRequest(EndpointRequest endpointRequest) {
-    HttpRequest<Buffer> request = webClient
-        .request(HttpMethod.GET, endpointOptions.getPort(), endpointOptions.getDomain(),
-            endpointRequest.getPath())
-        .timeout(httpActionOptions.getRequestTimeoutMs());
+  private HttpRequest<Buffer> createHttpRequest(EndpointRequest endpointRequest, Host host) {
+    // the deadline may pass while waiting for the rate limiter, a 0 timeout would disable it
+    long remainingMs = Math.max(endpointRequest.getRemainingMs(), MIN_REMAINING_MS);
+    HttpRequest<Buffer> request = newRequest(endpointRequest.getPath(), host)
+        .timeout(getEffectiveTimeout(remainingMs));
     endpointRequest.getHeaders().entries()
         .forEach(entry -> request.putHeader(entry.getKey(), entry.getValue()));
+    String propagationHeader = httpActionOptions.getDeadlineOptions().getPropagationHeader();
+    if (propagationHeader != null && remainingMs != EndpointRequest.NO_DEADLINE) {
+      request.putHeader(propagationHeader, String.valueOf(remainingMs));
+    }
+    TraceContext traceContext = endpointRequest.getTraceContext();
+    if (traceContext != null) {
+      request.putHeader(TraceContext.TRACEPARENT, traceContext.toTraceparent());
+      if (traceContext.getTraceState() != null) {
+        request.putHeader(TraceContext.TRACESTATE, traceContext.getTraceState());
+      }
+    }
     return request;
   }
 
+  /**
+   * Requests sent to a replica or a Unix domain socket keep the endpoint domain as the {@code
+   * Host} header and the TLS server name.
+   */
+  private HttpRequest<Buffer> newRequest(String path, Host host) {
+    WebClient webClient = webClients.get();
+    if (serverAddress != null) {
+      return webClient.request(HttpMethod.GET, serverAddress, endpointOptions.getPort(),
+          endpointOptions.getDomain(), path);
+    }
+    if (host != null) {
+      return webClient.request(HttpMethod.GET,
+          SocketAddress.inetSocketAddress(host.getPort(), host.getName()),
+          endpointOptions.getPort(), endpointOptions.getDomain(), path);
+    }
+    return webClient.request(HttpMethod.GET, endpointOptions.getPort(),
+        endpointOptions.getDomain(), path);
+  }
+
+  private long getEffectiveTimeout(long remainingMs) {
+    long requestTimeoutMs = adaptiveTimeout != null ? adaptiveTimeout.getTimeoutMs()
+        : httpActionOptions.getRequestTimeoutMs();
+    if (requestTimeoutMs > 0) {
+      return Math.min(requestTimeoutMs, remainingMs);
+    }
+    return remainingMs == EndpointRequest.NO_DEADLINE ? requestTimeoutMs : remainingMs;
+  }
+
   private void attachResponsePredicatesToRequest(HttpRequest<Buffer> request,
       Set<String> predicates) {
     predicates.stream()
@@ -208,7 +662,32 @@ public class HttpAction implements Action {
     SourceDefinitions sourceDefinitions = buildSourceDefinitions(context, clientRequest);
     String path = PlaceholdersResolver.resolve(endpointOptions.getPath(), sourceDefinitions);
     MultiMap requestHeaders = getRequestHeaders(clientRequest);
-    return new EndpointRequest(path, requestHeaders);
+    if (acceptHeader != null) {
+      requestHeaders.set(ACCEPT, acceptHeader);
+    }
+    return new EndpointRequest(path, requestHeaders, getDeadline(context));
+  }
+
+  private long getDeadline(FragmentContext context) {
+    DeadlineOptions deadlineOptions = httpActionOptions.getDeadlineOptions();
+    String deadline = null;
+    if (deadlineOptions.getClientRequestHeader() != null) {
+      deadline = context.getClientRequest().getHeaders()
+          .get(deadlineOptions.getClientRequestHeader());
+    }
+    if (deadline == null && deadlineOptions.getPayloadKey() != null) {
+      Object value = context.getFragment().getPayload().getValue(deadlineOptions.getPayloadKey());
+      deadline = value == null ? null : value.toString();
+    }
+    if (deadline == null) {
+      return EndpointRequest.NO_DEADLINE;
+    }
+    try {
+      return Long.parseLong(deadline.trim());
+    } catch (NumberFormatException e) {
+      LOGGER.warn("Invalid deadline value [{}], expected milliseconds since the epoch", deadline);
+      return EndpointRequest.NO_DEADLINE;
+    }
   }
 
   private SourceDefinitions buildSourceDefinitions(FragmentContext context,
@@ -245,9 +724,12 @@ public class HttpAction implements Action {
     };
   }
 
+  /**
+   * The status code of the response data is either the code alone or followed by the reason phrase.
+   */
   private boolean isHttpErrorResponse(HttpResponseData resp) {
-    return CLIENT_ERROR.contains(Integer.parseInt(resp.getStatusCode())) || SERVER_ERROR
-        .contains(Integer.parseInt(resp.getStatusCode()));
+    int statusCode = HttpResponseStatus.parseLine(resp.getStatusCode()).code();
+    return CLIENT_ERROR.contains(statusCode) || SERVER_ERROR.contains(statusCode);
   }
 
   private JsonObject getResponseData(EndpointRequest request, HttpResponseData responseData) {
@@ -276,30 +758,47 @@ public class HttpAction implements Action {
         .collect(MultiMapCollector.toMultiMap(o -> o, headers::getAll));
   }
 
-  private FragmentResult createFragmentResult(FragmentContext fragmentContext,
-      EndpointRequest endpointRequest, EndpointResponse endpointResponse,
-      ActionLogger actionLogger) {
+  private Single<InvocationResult> createInvocationResult(EndpointRequest endpointRequest,
+      EndpointResponse endpointResponse, ActionLogger actionLogger, PhaseTimings timings) {
     ActionRequest request = createActionRequest(endpointRequest);
-    final ActionPayload payload;
+    final Single<ActionPayload> payload;
     final String transition;
     if (SUCCESS.contains(endpointResponse.getStatusCode().code())) {
-      actionLogger.info(RESPONSE_BODY, endpointResponse.getBody().toString());
+      logResponseBody(actionLogger, endpointResponse);
       payload = getActionPayload(endpointRequest, endpointResponse, actionLogger,
-          request);
+          request).doOnSuccess(actionPayload -> timings.mark(Phase.PARSED));
       transition = FragmentResult.SUCCESS_TRANSITION;
     } else {
-      payload = handleErrorResponse(request, endpointResponse.getStatusCode().toString(),
-          endpointResponse.getStatusMessage());
+      payload = Single.just(handleErrorResponse(request,
+          endpointResponse.getStatusCode().toString(), endpointResponse.getStatusMessage()));
       transition = getErrorTransition(endpointResponse);
       logErrorAndRequest(actionLogger, new IOException(
           "The service responded with unsuccessful status code: " + endpointResponse.getStatusCode()
               .code()), endpointRequest);
       logResponseOnError(actionLogger, endpointRequest, HttpResponseData.from(endpointResponse));
     }
-    updateResponseMetadata(endpointResponse, payload);
-    Fragment fragment = fragmentContext.getFragment();
-    fragment.appendPayload(actionAlias, payload.toJson());
-    return new FragmentResult(fragment, transition, actionLogger.toLog().toJson());
+    return payload.map(actionPayload -> {
+      updateResponseMetadata(endpointResponse, actionPayload);
+      boolean success = FragmentResult.SUCCESS_TRANSITION.equals(transition);
+      logTimings(actionLogger, timings, success);
+      if (success && isSlowCall(timings)) {
+        logSlowCall(actionLogger, endpointRequest, HttpResponseData.from(endpointResponse));
+      }
+      return new InvocationResult(actionPayload, transition);
+    });
+  }
+
+  /**
+   * Streamed bodies are not encoded back only to be logged, their records are counted instead.
+   */
+  private void logResponseBody(ActionLogger actionLogger, EndpointResponse endpointResponse) {
+    if (endpointResponse.getRecords() == null) {
+      actionLogger.info(RESPONSE_BODY, endpointResponse.getBody().toString());
+    } else {
+      actionLogger.info(STREAM, new JsonObject()
+          .put("records", endpointResponse.getRecords().size())
+          .put("truncated", endpointResponse.isTruncated()));
+    }
   }
 
   private String getErrorTransition(EndpointResponse endpointResponse) {
@@ -312,30 +811,43 @@ public class HttpAction implements Action {
     return transition;
   }
 
-  private ActionPayload getActionPayload(EndpointRequest endpointRequest,
+  private Single<ActionPayload> getActionPayload(EndpointRequest endpointRequest,
       EndpointResponse endpointResponse, ActionLogger actionLogger, ActionRequest request) {
-    ActionPayload payload;
-    try {
-      payload = handleSuccessResponse(endpointResponse, request);
-    } catch (Exception e) {
-      logErrorAndRequest(actionLogger, e, endpointRequest);
-      logResponseOnError(actionLogger, endpointRequest,
-          HttpResponseData.from(endpointResponse));
-      throw e;
+    return parseSuccessResponse(endpointResponse, request)
+        .doOnError(e -> {
+          logErrorAndRequest(actionLogger, e, endpointRequest);
+          logResponseOnError(actionLogger, endpointRequest,
+              HttpResponseData.from(endpointResponse));
+        });
+  }
+
+  private Single<ActionPayload> parseSuccessResponse(EndpointResponse response,
+      ActionRequest request) {
+    if (response.getRecords() == null && bodyParsingExecutor != null
+        && response.getBody().length() >= httpActionOptions
+        .getBodyParsingOptions().getOffloadThresholdBytes()) {
+      return bodyParsingExecutor.execute(() -> handleSuccessResponse(response, request),
+          httpActionOptions.getBodyParsingOptions().getRejectionPolicy());
     }
-    return payload;
+    return Single.fromCallable(() -> handleSuccessResponse(response, request));
   }
 
   private ActionRequest createActionRequest(EndpointRequest endpointRequest) {
     ActionRequest request = new ActionRequest(HTTP_ACTION_TYPE, endpointRequest.getPath());
-    request.appendMetadata(METADATA_HEADERS_KEY, headersToJsonObject(endpointRequest.getHeaders()));
+    if (isRequestHeadersInMetadata) {
+      request.appendMetadata(METADATA_HEADERS_KEY,
+          headersToJsonObject(endpointRequest.getHeaders(), ALL_HEADERS));
+    }
     return request;
   }
 
   private void updateResponseMetadata(EndpointResponse response, ActionPayload payload) {
-    payload.getResponse()
-        .appendMetadata(METADATA_STATUS_CODE_KEY, String.valueOf(response.getStatusCode().code()))
-        .appendMetadata(METADATA_HEADERS_KEY, headersToJsonObject(response.getHeaders()));
+    ActionResponse actionResponse = payload.getResponse()
+        .appendMetadata(METADATA_STATUS_CODE_KEY, String.valueOf(response.getStatusCode().code()));
+    if (metadataHeadersFilter != null) {
+      actionResponse.appendMetadata(METADATA_HEADERS_KEY,
+          headersToJsonObject(response.getHeaders(), metadataHeadersFilter));
+    }
   }
 
   private ActionPayload handleErrorResponse(ActionRequest request, String statusCode,
@@ -344,8 +856,15 @@ public class HttpAction implements Action {
   }
 
   private ActionPayload handleSuccessResponse(EndpointResponse response, ActionRequest request) {
-    if (isForceJson || isJsonPredicate || isContentTypeHeaderJson(response)) {
-      return ActionPayload.success(request, bodyToJson(response.getBody().toString()));
+    if (response.getRecords() != null) {
+      return ActionPayload.success(request, transform(response.getRecords()));
+    }
+    BodyDecoder bodyDecoder = bodyDecoders.find(response.getHeaders().get(CONTENT_TYPE));
+    if (bodyDecoder != null) {
+      return ActionPayload.success(request,
+          transform(bodyDecoder.decode(response.getBody().getDelegate())));
+    } else if (isForceJson || isJsonPredicate || isContentTypeHeaderJson(response)) {
+      return ActionPayload.success(request, transform(bodyToJson(response.getBody().toString())));
     } else {
       return ActionPayload.success(request, response.getBody().toString());
     }
@@ -356,6 +875,13 @@ public class HttpAction implements Action {
     return contentType != null && contentType.contains(APPLICATION_JSON);
   }
 
+  /**
+   * The body is transformed right after it is parsed, within the same (possibly offloaded) task.
+   */
+  private Object transform(Object body) {
+    return responseTransform == null ? body : responseTransform.apply(body);
+  }
+
   private Object bodyToJson(String responseBody) {
     Object responseData;
     if (StringUtils.isBlank(responseBody)) {
@@ -372,18 +898,14 @@ public class HttpAction implements Action {
     return HttpResponseStatus.REQUEST_TIMEOUT == response.getStatusCode();
   }
 
-  private JsonObject headersToJsonObject(MultiMap headers) {
-    JsonObject responseHeaders = new JsonObject();
-    headers.entries().forEach(entry -> {
-      final JsonArray values;
-      if (responseHeaders.containsKey(entry.getKey())) {
-        values = responseHeaders.getJsonArray(entry.getKey());
-      } else {
-        values = new JsonArray();
+  private JsonObject headersToJsonObject(MultiMap headers, Predicate<String> filter) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (Entry<String, String> entry : headers.getDelegate()) {
+      if (filter.test(entry.getKey())) {
+        ((JsonArray) values.computeIfAbsent(entry.getKey(), name -> new JsonArray()))
+            .add(entry.getValue());
       }
-      responseHeaders.put(entry.getKey(), values.add(entry.getValue())
-      );
-    });
-    return responseHeaders;
+    }
+    return new JsonObject(values);
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.knotx.databridge.http.action.PhaseTimings.Phase;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated phase durations and thread hops of an action. The duration of a phase is the time
+ * elapsed since the previous marked phase. Instances are registered per action alias in the Vert.x
+ * local shared data and are read through {@link HttpActionStats}.
+ */
+class HttpActionMetrics implements Shareable {
+
+  static final String METRICS_MAP = "knotx.http.action.metrics";
+
+  private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+  private final PhaseStats[] phases = new PhaseStats[Phase.values().length];
+  private final LongAdder invocations = new LongAdder();
+  private final LongAdder threadHops = new LongAdder();
+
+  private HttpActionMetrics() {
+    for (int i = 0; i < phases.length; i++) {
+      phases[i] = new PhaseStats();
+    }
+  }
+
+  static HttpActionMetrics getOrCreate(Vertx vertx, String actionAlias) {
+    LocalMap<String, HttpActionMetrics> metrics = vertx.sharedData().getLocalMap(METRICS_MAP);
+    HttpActionMetrics actionMetrics = metrics.get(actionAlias);
+    if (actionMetrics == null) {
+      HttpActionMetrics created = new HttpActionMetrics();
+      actionMetrics = metrics.putIfAbsent(actionAlias, created);
+      if (actionMetrics == null) {
+        actionMetrics = created;
+      }
+    }
+    return actionMetrics;
+  }
+
+  void record(PhaseTimings timings) {
+    invocations.increment();
+    long previous = 0L;
+    for (Phase phase : Phase.values()) {
+      long offset = timings.offsetNanos(phase);
+      if (offset >= 0) {
+        phases[phase.ordinal()].record(offset - previous);
+        previous = offset;
+      }
+    }
+  }
+
+  /**
+   * Records an endpoint response handled on a different thread than the Vert.x thread that sent
+   * the request.
+   */
+  void recordThreadHop() {
+    threadHops.increment();
+  }
+
+  JsonObject toJson() {
+    JsonObject json = new JsonObject()
+        .put("invocations", invocations.sum())
+        .put("threadHops", threadHops.sum());
+    for (Phase phase : Phase.values()) {
+      json.put(phase.getKey(), phases[phase.ordinal()].toJson());
+    }
+    return json;
+  }
+
+  private static final class PhaseStats {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    private void record(long nanos) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+    }
+
+    private JsonObject toJson() {
+      long samples = count.sum();
+      return new JsonObject()
+          .put("count", samples)
+          .put("meanMs", samples == 0 ? 0.0 : totalNanos.sum() / NANOS_IN_MILLI / samples)
+          .put("maxMs", maxNanos.get() / NANOS_IN_MILLI);
+    }
+  }
+}
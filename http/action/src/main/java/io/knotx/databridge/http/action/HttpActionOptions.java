@@ -28,10 +28,21 @@ public class HttpActionOptions {
   private static final long DEFAULT_REQUEST_TIMEOUT = 0L;
 
   private WebClientOptions webClientOptions = new WebClientOptions();
+  private boolean eventLoopAffinity;
   private EndpointOptions endpointOptions = new EndpointOptions();
   private ResponseOptions responseOptions = new ResponseOptions();
+  private BodyParsingOptions bodyParsingOptions = new BodyParsingOptions();
+  private StreamingOptions streamingOptions = new StreamingOptions();
+  private CacheOptions cacheOptions = new CacheOptions();
+  private RateLimitOptions rateLimitOptions = new RateLimitOptions();
+  private OutlierDetectionOptions outlierDetectionOptions = new OutlierDetectionOptions();
+  private HealthCheckOptions healthCheckOptions = new HealthCheckOptions();
+  private DeadlineOptions deadlineOptions = new DeadlineOptions();
+  private TracingOptions tracingOptions = new TracingOptions();
   private long requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT;
+  private AdaptiveTimeoutOptions adaptiveTimeoutOptions = new AdaptiveTimeoutOptions();
   private String logLevel;
+  private LogSamplingOptions logSamplingOptions = new LogSamplingOptions();
 
   public HttpActionOptions() {
   }
@@ -57,6 +68,27 @@ public class HttpActionOptions {
     return this;
   }
 
+  public boolean isEventLoopAffinity() {
+    return eventLoopAffinity;
+  }
+
+  /**
+   * Binds HTTP clients to event loops. Requests sent from an event loop use a client (and its
+   * connection pool) created for the calling context, so the request is sent, the response is
+   * received and parsed on the same thread. Each event loop keeps its own pool of {@code
+   * webClientOptions.maxPoolSize} connections, so the endpoint gets up to the number of event
+   * loops times {@code maxPoolSize} connections; lower {@code maxPoolSize} accordingly when
+   * enabling it. Requests sent from other threads use a client shared by the action. By default it
+   * is set to {@code false}.
+   *
+   * @param eventLoopAffinity - determines if HTTP clients are bound to the calling event loop
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setEventLoopAffinity(boolean eventLoopAffinity) {
+    this.eventLoopAffinity = eventLoopAffinity;
+    return this;
+  }
+
   public EndpointOptions getEndpointOptions() {
     return endpointOptions;
   }
@@ -81,6 +113,101 @@ public class HttpActionOptions {
     return this;
   }
 
+  public BodyParsingOptions getBodyParsingOptions() {
+    return bodyParsingOptions;
+  }
+
+  /**
+   * Set the details how response bodies are parsed, e.g. the body size from which parsing is moved
+   * from the event loop to a worker pool.
+   *
+   * @param bodyParsingOptions a {@link BodyParsingOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setBodyParsingOptions(BodyParsingOptions bodyParsingOptions) {
+    this.bodyParsingOptions = bodyParsingOptions;
+    return this;
+  }
+
+  public StreamingOptions getStreamingOptions() {
+    return streamingOptions;
+  }
+
+  /**
+   * Set the streaming of newline delimited JSON responses. Records are parsed as the body arrives
+   * and reading can stop early at the configured limits.
+   *
+   * @param streamingOptions a {@link StreamingOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setStreamingOptions(StreamingOptions streamingOptions) {
+    this.streamingOptions = streamingOptions;
+    return this;
+  }
+
+  public CacheOptions getCacheOptions() {
+    return cacheOptions;
+  }
+
+  /**
+   * Set the endpoint responses cache configuration.
+   *
+   * @param cacheOptions a {@link CacheOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setCacheOptions(CacheOptions cacheOptions) {
+    this.cacheOptions = cacheOptions;
+    return this;
+  }
+
+  public RateLimitOptions getRateLimitOptions() {
+    return rateLimitOptions;
+  }
+
+  /**
+   * Set the token bucket limiting the rate of requests sent to the endpoint.
+   *
+   * @param rateLimitOptions a {@link RateLimitOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setRateLimitOptions(RateLimitOptions rateLimitOptions) {
+    this.rateLimitOptions = rateLimitOptions;
+    return this;
+  }
+
+  public OutlierDetectionOptions getOutlierDetectionOptions() {
+    return outlierDetectionOptions;
+  }
+
+  /**
+   * Set the passive outlier detection of the endpoint hosts. Hosts failing in a row or responding
+   * much slower than the others are ejected from the load balancing for a while.
+   *
+   * @param outlierDetectionOptions a {@link OutlierDetectionOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setOutlierDetectionOptions(
+      OutlierDetectionOptions outlierDetectionOptions) {
+    this.outlierDetectionOptions = outlierDetectionOptions;
+    return this;
+  }
+
+  public HealthCheckOptions getHealthCheckOptions() {
+    return healthCheckOptions;
+  }
+
+  /**
+   * Set the active health checking of the endpoint hosts. Hosts get no traffic until they pass the
+   * first health check, and hosts failing it later until they pass it again.
+   *
+   * @param healthCheckOptions a {@link HealthCheckOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setHealthCheckOptions(HealthCheckOptions healthCheckOptions) {
+    this.healthCheckOptions = healthCheckOptions;
+    return this;
+  }
+
   public long getRequestTimeoutMs() {
     return requestTimeoutMs;
   }
@@ -98,6 +225,56 @@ public class HttpActionOptions {
     return this;
   }
 
+  public AdaptiveTimeoutOptions getAdaptiveTimeoutOptions() {
+    return adaptiveTimeoutOptions;
+  }
+
+  /**
+   * Set the adaptive request timeout derived from the observed endpoint latency. When enabled,
+   * {@code requestTimeoutMs} is used only until enough latencies are observed.
+   *
+   * @param adaptiveTimeoutOptions a {@link AdaptiveTimeoutOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setAdaptiveTimeoutOptions(
+      AdaptiveTimeoutOptions adaptiveTimeoutOptions) {
+    this.adaptiveTimeoutOptions = adaptiveTimeoutOptions;
+    return this;
+  }
+
+  public DeadlineOptions getDeadlineOptions() {
+    return deadlineOptions;
+  }
+
+  /**
+   * Set where the processing deadline is read from. The effective request timeout is the minimum
+   * of {@code requestTimeoutMs} and the time left until the deadline. When the deadline has
+   * already passed, the endpoint is not called and _timeout transition is returned.
+   *
+   * @param deadlineOptions a {@link DeadlineOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setDeadlineOptions(DeadlineOptions deadlineOptions) {
+    this.deadlineOptions = deadlineOptions;
+    return this;
+  }
+
+  public TracingOptions getTracingOptions() {
+    return tracingOptions;
+  }
+
+  /**
+   * Set the endpoint calls tracing. When enabled, each invocation creates a client span and the
+   * W3C trace context is propagated to the endpoint.
+   *
+   * @param tracingOptions a {@link TracingOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setTracingOptions(TracingOptions tracingOptions) {
+    this.tracingOptions = tracingOptions;
+    return this;
+  }
+
   public String getLogLevel() {
     return logLevel;
   }
@@ -113,14 +290,41 @@ public class HttpActionOptions {
     return this;
   }
 
+  public LogSamplingOptions getLogSamplingOptions() {
+    return logSamplingOptions;
+  }
+
+  /**
+   * Set the sampling of verbose action logs. When enabled, a fraction of requests, requests with
+   * the trigger header and slow calls are logged verbosely, all others at the error level.
+   *
+   * @param logSamplingOptions a {@link LogSamplingOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setLogSamplingOptions(LogSamplingOptions logSamplingOptions) {
+    this.logSamplingOptions = logSamplingOptions;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "HttpActionOptions{" +
         "webClientOptions=" + webClientOptions +
+        ", eventLoopAffinity=" + eventLoopAffinity +
         ", endpointOptions=" + endpointOptions +
         ", responseOptions=" + responseOptions +
+        ", bodyParsingOptions=" + bodyParsingOptions +
+        ", streamingOptions=" + streamingOptions +
+        ", cacheOptions=" + cacheOptions +
+        ", rateLimitOptions=" + rateLimitOptions +
+        ", outlierDetectionOptions=" + outlierDetectionOptions +
+        ", healthCheckOptions=" + healthCheckOptions +
         ", requestTimeoutMs=" + requestTimeoutMs +
+        ", adaptiveTimeoutOptions=" + adaptiveTimeoutOptions +
+        ", deadlineOptions=" + deadlineOptions +
+        ", tracingOptions=" + tracingOptions +
         ", logLevel=" + logLevel +
+        ", logSamplingOptions=" + logSamplingOptions +
         '}';
   }
 }
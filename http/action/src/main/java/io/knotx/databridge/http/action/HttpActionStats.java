@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.SharedData;
+import java.util.function.Function;
+
+/**
+ * Reads the metrics the HTTP actions of a Vert.x instance keep in the local shared data: the
+ * phase timings per action alias, the rate limiters and adaptive timeouts per endpoint, the hosts
+ * state and the body parsing worker pools. The response caches are reported by the {@code stats}
+ * message of their invalidation address.
+ */
+public final class HttpActionStats {
+
+  private HttpActionStats() {
+    //util class
+  }
+
+  /**
+   * Takes a snapshot of the metrics of all HTTP actions of the Vert.x instance, e.g. to be
+   * published by a monitoring endpoint or a metrics reporter.
+   *
+   * @param vertx - Vert.x instance
+   * @return JSON object with the {@code actions}, {@code rateLimiters}, {@code adaptiveTimeouts},
+   * {@code hosts} and {@code bodyParsing} entries
+   */
+  public static JsonObject snapshot(Vertx vertx) {
+    SharedData sharedData = vertx.sharedData();
+    LocalMap<String, HttpActionMetrics> actions = sharedData
+        .getLocalMap(HttpActionMetrics.METRICS_MAP);
+    LocalMap<String, TokenBucketRateLimiter> rateLimiters = sharedData
+        .getLocalMap(TokenBucketRateLimiter.LIMITERS_MAP);
+    LocalMap<String, AdaptiveTimeout> adaptiveTimeouts = sharedData
+        .getLocalMap(AdaptiveTimeout.TIMEOUTS_MAP);
+    LocalMap<String, EndpointHosts> hosts = sharedData.getLocalMap(EndpointHosts.HOSTS_MAP);
+    LocalMap<String, BodyParsingExecutor> bodyParsing = sharedData
+        .getLocalMap(BodyParsingExecutor.EXECUTORS_MAP);
+    return new JsonObject()
+        .put("actions", byKey(actions, HttpActionMetrics::toJson))
+        .put("rateLimiters", byKey(rateLimiters, TokenBucketRateLimiter::getMetrics))
+        .put("adaptiveTimeouts", all(adaptiveTimeouts, AdaptiveTimeout::getMetrics))
+        .put("hosts", all(hosts, EndpointHosts::getMetrics))
+        .put("bodyParsing", byKey(bodyParsing, BodyParsingExecutor::getMetrics));
+  }
+
+  private static <T> JsonObject byKey(LocalMap<String, T> map,
+      Function<T, JsonObject> metrics) {
+    JsonObject json = new JsonObject();
+    for (String key : map.keySet()) {
+      T value = map.get(key);
+      if (value != null) {
+        json.put(key, metrics.apply(value));
+      }
+    }
+    return json;
+  }
+
+  private static <T> JsonArray all(LocalMap<String, T> map, Function<T, JsonObject> metrics) {
+    JsonArray json = new JsonArray();
+    for (T value : map.values()) {
+      json.add(metrics.apply(value));
+    }
+    return json;
+  }
+}
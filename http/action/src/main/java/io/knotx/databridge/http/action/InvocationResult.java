@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.knotx.fragments.handler.api.domain.payload.ActionPayload;
+
+/**
+ * Payload and transition of a single endpoint call.
+ */
+class InvocationResult {
+
+  private final ActionPayload payload;
+  private final String transition;
+
+  InvocationResult(ActionPayload payload, String transition) {
+    this.payload = payload;
+    this.transition = transition;
+  }
+
+  ActionPayload getPayload() {
+    return payload;
+  }
+
+  String getTransition() {
+    return transition;
+  }
+
+  @Override
+  public String toString() {
+    return "InvocationResult{" +
+        "payload=" + payload +
+        ", transition='" + transition + '\'' +
+        '}';
+  }
+}
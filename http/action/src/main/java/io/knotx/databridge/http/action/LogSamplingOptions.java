@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the sampling of verbose action logs. When enabled, only sampled requests, requests
+ * with the trigger header value and slow calls log the request, response and timings details; all
+ * others log errors only. Sampling never logs more than the action {@code logLevel}.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class LogSamplingOptions {
+
+  private static final double DEFAULT_SAMPLE_RATE = 0.01;
+  private static final long DEFAULT_SLOW_CALL_THRESHOLD = 0L;
+
+  private boolean enabled;
+  private double sampleRate = DEFAULT_SAMPLE_RATE;
+  private String triggerHeader;
+  private String triggerValue;
+  private long slowCallThresholdMs = DEFAULT_SLOW_CALL_THRESHOLD;
+
+  public LogSamplingOptions() {
+    //empty default constructor
+  }
+
+  public LogSamplingOptions(LogSamplingOptions other) {
+    this.enabled = other.enabled;
+    this.sampleRate = other.sampleRate;
+    this.triggerHeader = other.triggerHeader;
+    this.triggerValue = other.triggerValue;
+    this.slowCallThresholdMs = other.slowCallThresholdMs;
+  }
+
+  public LogSamplingOptions(JsonObject json) {
+    this();
+    LogSamplingOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    LogSamplingOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the sampling of verbose logs. It applies only to actions with the {@code INFO} {@code
+   * logLevel}, actions with the {@code ERROR} level log errors only. By default it is set to {@code
+   * false}.
+   *
+   * @param enabled - determines if verbose logs are sampled
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LogSamplingOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public double getSampleRate() {
+    return sampleRate;
+  }
+
+  /**
+   * Sets the fraction of requests, from {@code 0.0} to {@code 1.0}, logged verbosely. By default
+   * it is set to {@code 0.01}.
+   *
+   * @param sampleRate - fraction of verbosely logged requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LogSamplingOptions setSampleRate(double sampleRate) {
+    this.sampleRate = sampleRate;
+    return this;
+  }
+
+  public String getTriggerHeader() {
+    return triggerHeader;
+  }
+
+  /**
+   * Sets the name of the client request header forcing verbose logs of the request when it has the
+   * {@code triggerValue}. By default it is not set.
+   *
+   * @param triggerHeader - client request header name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LogSamplingOptions setTriggerHeader(String triggerHeader) {
+    this.triggerHeader = triggerHeader;
+    return this;
+  }
+
+  public String getTriggerValue() {
+    return triggerValue;
+  }
+
+  /**
+   * Sets the value of the {@code triggerHeader} forcing verbose logs of the request. Use a secret
+   * value, so clients cannot make every request logged verbosely. The trigger header is ignored
+   * when it is not set. By default it is not set.
+   *
+   * @param triggerValue - trigger header value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LogSamplingOptions setTriggerValue(String triggerValue) {
+    this.triggerValue = triggerValue;
+    return this;
+  }
+
+  public long getSlowCallThresholdMs() {
+    return slowCallThresholdMs;
+  }
+
+  /**
+   * Sets the endpoint call duration in milliseconds from which the request, response and timings
+   * of a not sampled request are logged. Setting zero or a negative value disables it. By default
+   * it is set to {@code 0}.
+   *
+   * @param slowCallThresholdMs - slow call threshold in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LogSamplingOptions setSlowCallThresholdMs(long slowCallThresholdMs) {
+    this.slowCallThresholdMs = slowCallThresholdMs;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "LogSamplingOptions{" +
+        "enabled=" + enabled +
+        ", sampleRate=" + sampleRate +
+        ", triggerHeader='" + triggerHeader + '\'' +
+        ", triggerValue='" + triggerValue + '\'' +
+        ", slowCallThresholdMs=" + slowCallThresholdMs +
+        '}';
+  }
+}
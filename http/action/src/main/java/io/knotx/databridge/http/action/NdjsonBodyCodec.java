@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.knotx.databridge.http.action.decoder.NdjsonBodyDecoder;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.client.impl.ClientPhase;
+import io.vertx.ext.web.client.impl.HttpContext;
+import io.vertx.ext.web.client.impl.WebClientInternal;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.codec.spi.BodyStream;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.util.function.Predicate;
+
+/**
+ * Body codec of a single request parsing newline delimited JSON records as the body arrives. When
+ * {@link StreamingOptions} limits are reached, the remaining body is not read: the request is
+ * reset, which closes an HTTP/1.x connection, and the records read so far are kept. Bodies of other
+ * content types are buffered as usual. The Web Client does not expose the response to body codecs,
+ * so it is bound to the thread receiving it by an interceptor installed with
+ * {@link #install(WebClient)}; the codec is created synchronously within the receive response
+ * phase.
+ */
+class NdjsonBodyCodec implements BodyCodec<Void> {
+
+  private static final ThreadLocal<HttpClientResponse> RECEIVING = new ThreadLocal<>();
+  private static final String CONTENT_TYPE = "Content-Type";
+  private static final byte NEW_LINE = '\n';
+
+  private final StreamingOptions options;
+  private final Predicate<String> isNdjson;
+  private HttpClientResponse response;
+  private Buffer body;
+  private JsonArray records;
+  private long receivedBytes;
+  private boolean truncated;
+
+  /**
+   * @param options - streaming limits
+   * @param isNdjson - tests if a {@code Content-Type} header value is a NDJSON content type
+   */
+  NdjsonBodyCodec(StreamingOptions options, Predicate<String> isNdjson) {
+    this.options = options;
+    this.isNdjson = isNdjson;
+  }
+
+  static void install(WebClient webClient) {
+    io.vertx.ext.web.client.WebClient delegate = webClient.getDelegate();
+    if (delegate instanceof WebClientInternal) {
+      ((WebClientInternal) delegate).addInterceptor(NdjsonBodyCodec::bindResponse);
+    }
+  }
+
+  private static void bindResponse(HttpContext<?> context) {
+    if (context.phase() != ClientPhase.RECEIVE_RESPONSE) {
+      context.next();
+      return;
+    }
+    RECEIVING.set(context.clientResponse());
+    try {
+      context.next();
+    } finally {
+      RECEIVING.remove();
+    }
+  }
+
+  @Override
+  public void create(Handler<AsyncResult<BodyStream<Void>>> handler) {
+    response = RECEIVING.get();
+    body = Buffer.buffer();
+    if (response != null && isNdjson.test(response.getHeader(CONTENT_TYPE))) {
+      records = new JsonArray();
+      handler.handle(Future.succeededFuture(new RecordStream()));
+    } else {
+      handler.handle(Future.succeededFuture(new BufferStream()));
+    }
+  }
+
+  /**
+   * @return {@code true} when reading stopped at a limit
+   */
+  boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * @param received - response returned by the Web Client, {@code null} when the request was reset
+   * at a limit
+   * @return the received response, with the parsed records of a NDJSON body
+   */
+  EndpointResponse toEndpointResponse(HttpResponse<Void> received) {
+    if (response == null) {
+      // the codec was not bound to the response, e.g. no body stream was created
+      return new EndpointResponse(HttpResponseStatus.valueOf(received.statusCode()),
+          received.statusMessage(), received.version(), received.headers(), received.trailers(),
+          io.vertx.reactivex.core.buffer.Buffer.newInstance(body == null ? Buffer.buffer() : body));
+    }
+    EndpointResponse endpointResponse = new EndpointResponse(
+        HttpResponseStatus.valueOf(response.statusCode()), response.statusMessage(),
+        response.version(), MultiMap.newInstance(response.headers()),
+        truncated ? MultiMap.caseInsensitiveMultiMap() : MultiMap.newInstance(response.trailers()),
+        records == null ? io.vertx.reactivex.core.buffer.Buffer.newInstance(body) : null);
+    return records == null ? endpointResponse : endpointResponse.withRecords(records, truncated);
+  }
+
+  private abstract class AbstractBodyStream implements BodyStream<Void> {
+
+    final Promise<Void> promise = Promise.promise();
+    Handler<Throwable> exceptionHandler;
+
+    @Override
+    public Future<Void> result() {
+      return promise.future();
+    }
+
+    @Override
+    public void handle(Throwable cause) {
+      promise.tryFail(cause);
+    }
+
+    @Override
+    public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      this.exceptionHandler = handler;
+      return this;
+    }
+
+    @Override
+    public WriteStream<Buffer> write(Buffer data, Handler<AsyncResult<Void>> handler) {
+      write(data);
+      if (handler != null) {
+        handler.handle(Future.succeededFuture());
+      }
+      return this;
+    }
+
+    @Override
+    public void end() {
+      end((Handler<AsyncResult<Void>>) null);
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+      promise.tryComplete();
+      if (handler != null) {
+        handler.handle(promise.future());
+      }
+    }
+
+    @Override
+    public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return false;
+    }
+
+    @Override
+    public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+      return this;
+    }
+  }
+
+  private class BufferStream extends AbstractBodyStream {
+
+    @Override
+    public WriteStream<Buffer> write(Buffer data) {
+      body.appendBuffer(data);
+      return this;
+    }
+  }
+
+  /**
+   * Keeps only the last incomplete line of the body.
+   */
+  private class RecordStream extends AbstractBodyStream {
+
+    private int scanned;
+
+    @Override
+    public WriteStream<Buffer> write(Buffer data) {
+      if (truncated || promise.future().isComplete()) {
+        return this;
+      }
+      long maxBytes = options.getMaxBytes();
+      boolean bytesLimitReached = maxBytes > 0 && receivedBytes + data.length() > maxBytes;
+      Buffer accepted = bytesLimitReached
+          ? data.slice(0, (int) (maxBytes - receivedBytes))
+          : data;
+      receivedBytes += accepted.length();
+      body.appendBuffer(accepted);
+      try {
+        parseLines();
+      } catch (RuntimeException e) {
+        fail(e);
+        return this;
+      }
+      if (bytesLimitReached && !truncated) {
+        truncate();
+      }
+      return this;
+    }
+
+    @Override
+    public void end(Handler<AsyncResult<Void>> handler) {
+      if (!truncated && !promise.future().isComplete()) {
+        try {
+          addRecord(body);
+        } catch (RuntimeException e) {
+          promise.tryFail(e);
+        }
+      }
+      super.end(handler);
+    }
+
+    private void parseLines() {
+      int lineStart = 0;
+      for (int i = scanned; i < body.length() && !truncated; i++) {
+        if (body.getByte(i) == NEW_LINE) {
+          addRecord(body.slice(lineStart, i));
+          lineStart = i + 1;
+        }
+      }
+      if (truncated) {
+        return;
+      }
+      body = lineStart == 0 ? body : body.getBuffer(lineStart, body.length());
+      scanned = body.length();
+    }
+
+    private void addRecord(Buffer line) {
+      Object record = NdjsonBodyDecoder.decodeRecord(line);
+      if (record != null) {
+        records.add(record);
+        int maxRecords = options.getMaxRecords();
+        if (maxRecords > 0 && records.size() >= maxRecords) {
+          truncate();
+        }
+      }
+    }
+
+    private void truncate() {
+      truncated = true;
+      body = Buffer.buffer();
+      response.request().reset();
+    }
+
+    private void fail(Throwable cause) {
+      promise.tryFail(cause);
+      if (exceptionHandler != null) {
+        exceptionHandler.handle(cause);
+      }
+      response.request().reset();
+    }
+  }
+}
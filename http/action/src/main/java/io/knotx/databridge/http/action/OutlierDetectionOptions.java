@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the passive outlier detection of the endpoint {@code hosts}. Hosts failing in a row or
+ * responding much slower than the other hosts are ejected from the load balancing for a growing
+ * interval.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class OutlierDetectionOptions {
+
+  private static final int DEFAULT_CONSECUTIVE_FAILURES = 5;
+  private static final double DEFAULT_LATENCY_FACTOR = 3.0;
+  private static final int DEFAULT_MIN_REQUESTS = 20;
+  private static final long DEFAULT_INTERVAL = 10000L;
+  private static final long DEFAULT_BASE_EJECTION_TIME = 30000L;
+  private static final long DEFAULT_MAX_EJECTION_TIME = 300000L;
+  private static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+  private static final long DEFAULT_SLOW_START = 30000L;
+
+  private boolean enabled;
+  private int consecutiveFailures = DEFAULT_CONSECUTIVE_FAILURES;
+  private double latencyFactor = DEFAULT_LATENCY_FACTOR;
+  private int minRequests = DEFAULT_MIN_REQUESTS;
+  private long intervalMs = DEFAULT_INTERVAL;
+  private long baseEjectionTimeMs = DEFAULT_BASE_EJECTION_TIME;
+  private long maxEjectionTimeMs = DEFAULT_MAX_EJECTION_TIME;
+  private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+  private long slowStartMs = DEFAULT_SLOW_START;
+
+  public OutlierDetectionOptions() {
+    //empty default constructor
+  }
+
+  public OutlierDetectionOptions(OutlierDetectionOptions other) {
+    this.enabled = other.enabled;
+    this.consecutiveFailures = other.consecutiveFailures;
+    this.latencyFactor = other.latencyFactor;
+    this.minRequests = other.minRequests;
+    this.intervalMs = other.intervalMs;
+    this.baseEjectionTimeMs = other.baseEjectionTimeMs;
+    this.maxEjectionTimeMs = other.maxEjectionTimeMs;
+    this.maxEjectionPercent = other.maxEjectionPercent;
+    this.slowStartMs = other.slowStartMs;
+  }
+
+  public OutlierDetectionOptions(JsonObject json) {
+    this();
+    OutlierDetectionOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    OutlierDetectionOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the outlier detection. By default it is set to {@code false}.
+   *
+   * @param enabled - determines if outlier hosts are ejected
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  /**
+   * Sets the number of failures in a row after which a host is ejected. Responses with the
+   * {@code 5xx} status codes, timeouts and connection errors are failures. Setting zero or a
+   * negative value disables this check. By default it is set to {@code 5}.
+   *
+   * @param consecutiveFailures - number of failures in a row
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setConsecutiveFailures(int consecutiveFailures) {
+    this.consecutiveFailures = consecutiveFailures;
+    return this;
+  }
+
+  public double getLatencyFactor() {
+    return latencyFactor;
+  }
+
+  /**
+   * Sets how many times the mean latency of a host may exceed the median of the mean latencies of
+   * all hosts in an interval before the host is ejected. Setting zero or a negative value disables
+   * this check. By default it is set to {@code 3.0}.
+   *
+   * @param latencyFactor - multiple of the median latency
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setLatencyFactor(double latencyFactor) {
+    this.latencyFactor = latencyFactor;
+    return this;
+  }
+
+  public int getMinRequests() {
+    return minRequests;
+  }
+
+  /**
+   * Sets the minimum number of requests a host must handle in an interval to take part in the
+   * latency check. By default it is set to {@code 20}.
+   *
+   * @param minRequests - minimum number of requests in an interval
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setMinRequests(int minRequests) {
+    this.minRequests = minRequests;
+    return this;
+  }
+
+  public long getIntervalMs() {
+    return intervalMs;
+  }
+
+  /**
+   * Sets the interval in milliseconds of the latency check. By default it is set to {@code
+   * 10000}.
+   *
+   * @param intervalMs - latency check interval in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setIntervalMs(long intervalMs) {
+    this.intervalMs = intervalMs;
+    return this;
+  }
+
+  public long getBaseEjectionTimeMs() {
+    return baseEjectionTimeMs;
+  }
+
+  /**
+   * Sets the time in milliseconds a host is ejected for the first time. Every next ejection lasts
+   * one {@code baseEjectionTimeMs} longer. By default it is set to {@code 30000}.
+   *
+   * @param baseEjectionTimeMs - first ejection time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setBaseEjectionTimeMs(long baseEjectionTimeMs) {
+    this.baseEjectionTimeMs = baseEjectionTimeMs;
+    return this;
+  }
+
+  public long getMaxEjectionTimeMs() {
+    return maxEjectionTimeMs;
+  }
+
+  /**
+   * Sets the upper limit in milliseconds of the ejection time. A host not ejected again for this
+   * time after its return starts from {@code baseEjectionTimeMs} again. By default it is set to
+   * {@code 300000}.
+   *
+   * @param maxEjectionTimeMs - maximum ejection time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setMaxEjectionTimeMs(long maxEjectionTimeMs) {
+    this.maxEjectionTimeMs = maxEjectionTimeMs;
+    return this;
+  }
+
+  public int getMaxEjectionPercent() {
+    return maxEjectionPercent;
+  }
+
+  /**
+   * Sets the maximum percentage of hosts ejected at the same time. Outliers found when the limit
+   * is reached stay in the load balancing. By default it is set to {@code 50}.
+   *
+   * @param maxEjectionPercent - maximum percentage of ejected hosts
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setMaxEjectionPercent(int maxEjectionPercent) {
+    this.maxEjectionPercent = maxEjectionPercent;
+    return this;
+  }
+
+  public long getSlowStartMs() {
+    return slowStartMs;
+  }
+
+  /**
+   * Sets the time in milliseconds in which the share of traffic sent to a returning host grows
+   * linearly to the full share. Setting zero disables the slow start. By default it is set to
+   * {@code 30000}.
+   *
+   * @param slowStartMs - slow start time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutlierDetectionOptions setSlowStartMs(long slowStartMs) {
+    this.slowStartMs = slowStartMs;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "OutlierDetectionOptions{" +
+        "enabled=" + enabled +
+        ", consecutiveFailures=" + consecutiveFailures +
+        ", latencyFactor=" + latencyFactor +
+        ", minRequests=" + minRequests +
+        ", intervalMs=" + intervalMs +
+        ", baseEjectionTimeMs=" + baseEjectionTimeMs +
+        ", maxEjectionTimeMs=" + maxEjectionTimeMs +
+        ", maxEjectionPercent=" + maxEjectionPercent +
+        ", slowStartMs=" + slowStartMs +
+        '}';
+  }
+}
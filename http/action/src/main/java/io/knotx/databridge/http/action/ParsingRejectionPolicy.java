@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+/**
+ * Behaviour of the body parsing worker pool when its queue is full.
+ */
+public enum ParsingRejectionPolicy {
+  /**
+   * The body is parsed inline on the calling event loop.
+   */
+  CALLER_RUNS,
+  /**
+   * The action ends with the _error transition.
+   */
+  FAIL
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.knotx.databridge.http.action.PhaseTimings.Phase;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.ext.web.client.impl.HttpContext;
+import io.vertx.ext.web.client.impl.WebClientInternal;
+import io.vertx.reactivex.ext.web.client.WebClient;
+
+/**
+ * Web client interceptor marking the connection phases and the response status of {@link
+ * PhaseTimings}. The timings of the request being sent are bound to the calling thread, because
+ * the prepare phase runs synchronously within {@code HttpRequest.send}, and are then kept in the
+ * {@link HttpContext}. Requests sent without bound timings are not measured.
+ */
+class PhaseTimingInterceptor implements Handler<HttpContext<?>> {
+
+  private static final String TIMINGS_KEY = "knotx.phaseTimings";
+  private static final ThreadLocal<PhaseTimings> SENDING = new ThreadLocal<>();
+
+  static void install(WebClient webClient) {
+    io.vertx.ext.web.client.WebClient delegate = webClient.getDelegate();
+    if (delegate instanceof WebClientInternal) {
+      ((WebClientInternal) delegate).addInterceptor(new PhaseTimingInterceptor());
+    }
+  }
+
+  static void send(PhaseTimings timings, Runnable sender) {
+    SENDING.set(timings);
+    try {
+      sender.run();
+    } finally {
+      SENDING.remove();
+    }
+  }
+
+  @Override
+  public void handle(HttpContext<?> context) {
+    switch (context.phase()) {
+      case PREPARE_REQUEST:
+        PhaseTimings sending = SENDING.get();
+        if (sending != null) {
+          context.set(TIMINGS_KEY, sending);
+        }
+        break;
+      case SEND_REQUEST:
+        markSendRequest(context);
+        break;
+      case RECEIVE_RESPONSE:
+        mark(context, Phase.FIRST_BYTE);
+        recordStatus(context);
+        break;
+      case DISPATCH_RESPONSE:
+        mark(context, Phase.BODY_RECEIVED);
+        break;
+      default:
+        break;
+    }
+    context.next();
+  }
+
+  private void markSendRequest(HttpContext<?> context) {
+    PhaseTimings timings = (PhaseTimings) context.get(TIMINGS_KEY);
+    HttpClientRequest clientRequest = context.clientRequest();
+    if (timings != null) {
+      timings.mark(Phase.REQUEST_SENT);
+      if (clientRequest != null) {
+        clientRequest.connectionHandler(connection -> timings.mark(Phase.CONNECTION_ACQUIRED));
+      }
+    }
+  }
+
+  private void recordStatus(HttpContext<?> context) {
+    PhaseTimings timings = (PhaseTimings) context.get(TIMINGS_KEY);
+    if (timings != null && context.clientResponse() != null) {
+      timings.setResponseStatus(context.clientResponse().statusCode());
+    }
+  }
+
+  private void mark(HttpContext<?> context, Phase phase) {
+    PhaseTimings timings = (PhaseTimings) context.get(TIMINGS_KEY);
+    if (timings != null) {
+      timings.mark(phase);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Monotonic timestamps of the action invocation phases. Each phase is marked at most once, the
+ * first mark wins. Phases that did not happen (e.g. the connection phases when the response is
+ * served from cache) are not reported.
+ */
+final class PhaseTimings {
+
+  private static final double NANOS_IN_MILLI = 1_000_000.0;
+  private static final long NOT_MARKED = 0L;
+
+  static final int NO_RESPONSE = -1;
+
+  enum Phase {
+    REQUEST_PREPARED("requestPrepared"),
+    REQUEST_SENT("requestSent"),
+    CONNECTION_ACQUIRED("connectionAcquired"),
+    FIRST_BYTE("firstByte"),
+    BODY_RECEIVED("bodyReceived"),
+    PARSED("parsed"),
+    COMPLETED("completed");
+
+    private final String key;
+
+    Phase(String key) {
+      this.key = key;
+    }
+
+    String getKey() {
+      return key;
+    }
+  }
+
+  private final long start;
+  private final AtomicLongArray marks = new AtomicLongArray(Phase.values().length);
+  private volatile int responseStatus = NO_RESPONSE;
+
+  PhaseTimings() {
+    this.start = System.nanoTime();
+  }
+
+  void mark(Phase phase) {
+    marks.compareAndSet(phase.ordinal(), NOT_MARKED, System.nanoTime());
+  }
+
+  /**
+   * Records the status code of the endpoint response as soon as its headers are received, before
+   * response predicates are applied.
+   */
+  void setResponseStatus(int responseStatus) {
+    this.responseStatus = responseStatus;
+  }
+
+  /**
+   * @return status code of the endpoint response, or {@link #NO_RESPONSE} when no response was
+   * received
+   */
+  int getResponseStatus() {
+    return responseStatus;
+  }
+
+  boolean isMarked(Phase phase) {
+    return marks.get(phase.ordinal()) != NOT_MARKED;
+  }
+
+  /**
+   * @return nanoseconds from the start of the invocation to the phase, or {@code -1} when the
+   * phase was not marked
+   */
+  long offsetNanos(Phase phase) {
+    long mark = marks.get(phase.ordinal());
+    return mark == NOT_MARKED ? -1L : mark - start;
+  }
+
+  /**
+   * @return milliseconds from the start of the invocation to each marked phase
+   */
+  JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    for (Phase phase : Phase.values()) {
+      long offset = offsetNanos(phase);
+      if (offset >= 0) {
+        json.put(phase.getKey(), offset / NANOS_IN_MILLI);
+      }
+    }
+    return json;
+  }
+}
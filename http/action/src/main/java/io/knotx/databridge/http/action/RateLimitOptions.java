@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the token bucket limiting the rate of requests sent to the endpoint. The bucket is
+ * shared by all actions calling the same endpoint {@code domain} and {@code port}, the
+ * configuration of the first one wins.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class RateLimitOptions {
+
+  private static final long DEFAULT_MAX_RETRY_AFTER = 60000L;
+
+  private int permitsPerSecond;
+  private int burst;
+  private long maxWaitMs;
+  private boolean retryAfterBackoff = true;
+  private long maxRetryAfterMs = DEFAULT_MAX_RETRY_AFTER;
+
+  public RateLimitOptions() {
+    //empty default constructor
+  }
+
+  public RateLimitOptions(RateLimitOptions other) {
+    this.permitsPerSecond = other.permitsPerSecond;
+    this.burst = other.burst;
+    this.maxWaitMs = other.maxWaitMs;
+    this.retryAfterBackoff = other.retryAfterBackoff;
+    this.maxRetryAfterMs = other.maxRetryAfterMs;
+  }
+
+  public RateLimitOptions(JsonObject json) {
+    this();
+    RateLimitOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    RateLimitOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public int getPermitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /**
+   * Sets the number of requests per second allowed to be sent to the endpoint. Setting zero or a
+   * negative value disables rate limiting. By default it is set to {@code 0}.
+   *
+   * @param permitsPerSecond - requests per second
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setPermitsPerSecond(int permitsPerSecond) {
+    this.permitsPerSecond = permitsPerSecond;
+    return this;
+  }
+
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * Sets the bucket capacity - the number of requests that can be sent at once after a quiet
+   * period. Setting zero or a negative value makes the capacity equal to {@code permitsPerSecond}.
+   *
+   * @param burst - bucket capacity
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setBurst(int burst) {
+    this.burst = burst;
+    return this;
+  }
+
+  public long getMaxWaitMs() {
+    return maxWaitMs;
+  }
+
+  /**
+   * Sets the maximum time in milliseconds a request waits for a free token. Requests that would
+   * wait longer are not sent and end with the _error transition immediately. By default it is set
+   * to {@code 0}, so requests never wait.
+   *
+   * @param maxWaitMs - maximum wait time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setMaxWaitMs(long maxWaitMs) {
+    this.maxWaitMs = maxWaitMs;
+    return this;
+  }
+
+  public boolean isRetryAfterBackoff() {
+    return retryAfterBackoff;
+  }
+
+  /**
+   * Sets retryAfterBackoff - it determines if the bucket stops issuing tokens for the time the
+   * endpoint asks for in the {@code Retry-After} header of {@code 429} and {@code 503} responses.
+   * By default it is set to {@code true}.
+   *
+   * @param retryAfterBackoff - determines if {@code Retry-After} header is respected
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setRetryAfterBackoff(boolean retryAfterBackoff) {
+    this.retryAfterBackoff = retryAfterBackoff;
+    return this;
+  }
+
+  public long getMaxRetryAfterMs() {
+    return maxRetryAfterMs;
+  }
+
+  /**
+   * Sets the upper limit in milliseconds of the back-off requested with the {@code Retry-After}
+   * header. By default it is set to {@code 60000}.
+   *
+   * @param maxRetryAfterMs - maximum back-off in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RateLimitOptions setMaxRetryAfterMs(long maxRetryAfterMs) {
+    this.maxRetryAfterMs = maxRetryAfterMs;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimitOptions{" +
+        "permitsPerSecond=" + permitsPerSecond +
+        ", burst=" + burst +
+        ", maxWaitMs=" + maxWaitMs +
+        ", retryAfterBackoff=" + retryAfterBackoff +
+        ", maxRetryAfterMs=" + maxRetryAfterMs +
+        '}';
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the refresh-ahead of hot cache entries. Entries read at least {@code minHits} times
+ * since they were stored are fetched again in the background shortly before they expire, so hot
+ * keys do not expire at all. Cold entries simply expire.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class RefreshAheadOptions {
+
+  private static final long DEFAULT_REFRESH_BEFORE_EXPIRY = 5000L;
+  private static final long DEFAULT_JITTER = 1000L;
+  private static final int DEFAULT_MIN_HITS = 5;
+  private static final int DEFAULT_MAX_CONCURRENCY = 4;
+  private static final int DEFAULT_MAX_REFRESHES_PER_SECOND = 10;
+  private static final long DEFAULT_CHECK_INTERVAL = 500L;
+  private static final int DEFAULT_MAX_TRACKED_KEYS = 10000;
+
+  private boolean enabled;
+  private long refreshBeforeExpiryMs = DEFAULT_REFRESH_BEFORE_EXPIRY;
+  private long jitterMs = DEFAULT_JITTER;
+  private int minHits = DEFAULT_MIN_HITS;
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+  private int maxRefreshesPerSecond = DEFAULT_MAX_REFRESHES_PER_SECOND;
+  private long checkIntervalMs = DEFAULT_CHECK_INTERVAL;
+  private int maxTrackedKeys = DEFAULT_MAX_TRACKED_KEYS;
+
+  public RefreshAheadOptions() {
+    //empty default constructor
+  }
+
+  public RefreshAheadOptions(RefreshAheadOptions other) {
+    this.enabled = other.enabled;
+    this.refreshBeforeExpiryMs = other.refreshBeforeExpiryMs;
+    this.jitterMs = other.jitterMs;
+    this.minHits = other.minHits;
+    this.maxConcurrency = other.maxConcurrency;
+    this.maxRefreshesPerSecond = other.maxRefreshesPerSecond;
+    this.checkIntervalMs = other.checkIntervalMs;
+    this.maxTrackedKeys = other.maxTrackedKeys;
+  }
+
+  public RefreshAheadOptions(JsonObject json) {
+    this();
+    RefreshAheadOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    RefreshAheadOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the refresh-ahead of hot cache entries. By default it is set to {@code false}.
+   *
+   * @param enabled - determines if hot entries are refreshed before they expire
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public long getRefreshBeforeExpiryMs() {
+    return refreshBeforeExpiryMs;
+  }
+
+  /**
+   * Sets how many milliseconds before the expiry a hot entry is refreshed. By default it is set to
+   * {@code 5000}.
+   *
+   * @param refreshBeforeExpiryMs - refresh lead time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setRefreshBeforeExpiryMs(long refreshBeforeExpiryMs) {
+    this.refreshBeforeExpiryMs = refreshBeforeExpiryMs;
+    return this;
+  }
+
+  public long getJitterMs() {
+    return jitterMs;
+  }
+
+  /**
+   * Sets the maximum random time in milliseconds added to the refresh lead time of each entry, so
+   * entries stored together are not refreshed together. By default it is set to {@code 1000}.
+   *
+   * @param jitterMs - maximum jitter in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setJitterMs(long jitterMs) {
+    this.jitterMs = jitterMs;
+    return this;
+  }
+
+  public int getMinHits() {
+    return minHits;
+  }
+
+  /**
+   * Sets how many times an entry must be read since it was stored to be refreshed. By default it is
+   * set to {@code 5}.
+   *
+   * @param minHits - number of reads making the entry hot
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setMinHits(int minHits) {
+    this.minHits = minHits;
+    return this;
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Sets the maximum number of refresh requests in progress at the same time. By default it is set
+   * to {@code 4}.
+   *
+   * @param maxConcurrency - maximum number of concurrent refreshes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+    return this;
+  }
+
+  public int getMaxRefreshesPerSecond() {
+    return maxRefreshesPerSecond;
+  }
+
+  /**
+   * Sets the refresh budget: the maximum number of refresh requests started per second. Entries
+   * that do not fit into the budget wait for the next check and expire when the budget is not
+   * available before their expiry. By default it is set to {@code 10}.
+   *
+   * @param maxRefreshesPerSecond - maximum number of refreshes per second
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setMaxRefreshesPerSecond(int maxRefreshesPerSecond) {
+    this.maxRefreshesPerSecond = maxRefreshesPerSecond;
+    return this;
+  }
+
+  public long getCheckIntervalMs() {
+    return checkIntervalMs;
+  }
+
+  /**
+   * Sets the interval in milliseconds in which the tracked entries are checked. By default it is
+   * set to {@code 500}.
+   *
+   * @param checkIntervalMs - check interval in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setCheckIntervalMs(long checkIntervalMs) {
+    this.checkIntervalMs = checkIntervalMs;
+    return this;
+  }
+
+  public int getMaxTrackedKeys() {
+    return maxTrackedKeys;
+  }
+
+  /**
+   * Sets the maximum number of entries whose reads are tracked. Entries stored when the limit is
+   * reached are never refreshed. By default it is set to {@code 10000}.
+   *
+   * @param maxTrackedKeys - maximum number of tracked entries
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RefreshAheadOptions setMaxTrackedKeys(int maxTrackedKeys) {
+    this.maxTrackedKeys = maxTrackedKeys;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "RefreshAheadOptions{" +
+        "enabled=" + enabled +
+        ", refreshBeforeExpiryMs=" + refreshBeforeExpiryMs +
+        ", jitterMs=" + jitterMs +
+        ", minHits=" + minHits +
+        ", maxConcurrency=" + maxConcurrency +
+        ", maxRefreshesPerSecond=" + maxRefreshesPerSecond +
+        ", checkIntervalMs=" + checkIntervalMs +
+        ", maxTrackedKeys=" + maxTrackedKeys +
+        '}';
+  }
+}
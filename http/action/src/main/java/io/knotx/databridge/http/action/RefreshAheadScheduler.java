@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.reactivex.Completable;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Tracks reads of cached entries and refreshes hot entries before they expire. Entries are checked
+ * periodically on a Vert.x timer. Each stored entry gets at most one refresh attempt; a successful
+ * refresh stores the entry again, which starts its tracking from scratch.
+ */
+class RefreshAheadScheduler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RefreshAheadScheduler.class);
+
+  private final RefreshAheadOptions options;
+  private final BiFunction<String, EndpointRequest, Completable> refresher;
+  private final ConcurrentHashMap<String, TrackedEntry> entries = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final TokenBucketRateLimiter budget;
+  private final LongAdder refreshed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder overBudget = new LongAdder();
+  private final LongAdder expired = new LongAdder();
+
+  RefreshAheadScheduler(Vertx vertx, RefreshAheadOptions options,
+      BiFunction<String, EndpointRequest, Completable> refresher) {
+    this.options = options;
+    this.refresher = refresher;
+    this.budget = new TokenBucketRateLimiter(Math.max(options.getMaxRefreshesPerSecond(), 1),
+        0);
+    vertx.setPeriodic(options.getCheckIntervalMs(), timerId -> check());
+  }
+
+  /**
+   * Tracks the stored entry. Entries living no longer than {@code refreshBeforeExpiryMs} are not
+   * tracked, as they would be refreshed right after being stored.
+   */
+  void onStored(String key, EndpointRequest request, long ttlMs) {
+    if (ttlMs <= options.getRefreshBeforeExpiryMs()) {
+      entries.remove(key);
+    } else if (entries.size() < options.getMaxTrackedKeys() || entries.containsKey(key)) {
+      long now = System.currentTimeMillis();
+      long jitter = options.getJitterMs() > 0
+          ? ThreadLocalRandom.current().nextLong(options.getJitterMs() + 1) : 0L;
+      entries.put(key, new TrackedEntry(request, now + ttlMs,
+          now + ttlMs - options.getRefreshBeforeExpiryMs() - jitter));
+    }
+  }
+
+  void onInvalidated(String key) {
+    entries.remove(key);
+  }
+
+  void onHit(String key) {
+    TrackedEntry entry = entries.get(key);
+    if (entry != null) {
+      entry.hits.incrementAndGet();
+    }
+  }
+
+  JsonObject getMetrics() {
+    return new JsonObject()
+        .put("tracked", entries.size())
+        .put("inFlight", inFlight.get())
+        .put("refreshed", refreshed.sum())
+        .put("failed", failed.sum())
+        .put("overBudget", overBudget.sum())
+        .put("expired", expired.sum());
+  }
+
+  private void check() {
+    long now = System.currentTimeMillis();
+    Iterator<Entry<String, TrackedEntry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<String, TrackedEntry> tracked = iterator.next();
+      TrackedEntry entry = tracked.getValue();
+      if (now >= entry.expiresAt) {
+        iterator.remove();
+        expired.increment();
+      } else if (now >= entry.refreshAt && entry.hits.get() >= options.getMinHits()
+          && !entry.attempted.get() && !refresh(tracked.getKey(), entry)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return {@code false} when no more refreshes can be started in this check
+   */
+  private boolean refresh(String key, TrackedEntry entry) {
+    if (inFlight.get() >= options.getMaxConcurrency()) {
+      return false;
+    }
+    if (budget.tryAcquire(0L) == TokenBucketRateLimiter.REJECTED) {
+      overBudget.increment();
+      return false;
+    }
+    if (entry.attempted.compareAndSet(false, true)) {
+      inFlight.incrementAndGet();
+      refresher.apply(key, entry.request)
+          .doFinally(inFlight::decrementAndGet)
+          .subscribe(refreshed::increment, error -> {
+            failed.increment();
+            LOGGER.warn("Could not refresh cached response [{}]", key, error);
+          });
+    }
+    return true;
+  }
+
+  private static final class TrackedEntry {
+
+    private final EndpointRequest request;
+    private final long expiresAt;
+    private final long refreshAt;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicBoolean attempted = new AtomicBoolean();
+
+    private TrackedEntry(EndpointRequest request, long expiresAt, long refreshAt) {
+      this.request = request;
+      this.expiresAt = expiresAt;
+      this.refreshAt = refreshAt;
+    }
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static io.netty.handler.codec.http.HttpStatusClass.SUCCESS;
+
+import io.knotx.databridge.http.action.cache.CacheStore;
+import io.knotx.databridge.http.action.cache.CacheStoreProvider;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.buffer.Buffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serves endpoint responses from a {@link CacheStore}. Cache store failures are logged and
+ * treated as cache misses, so they never fail the action. Successful responses are cached with
+ * {@link CacheOptions#getTtlMs()}, error responses with the negative status codes with {@link
+ * CacheOptions#getNegativeTtlMs()}. When refresh-ahead is enabled, hot entries are fetched again
+ * with the refresh function before they expire. When {@link CacheOptions#getInvalidationAddress()}
+ * is set, the keys of stored entries are indexed and the cache is registered in the {@link
+ * CacheAdmin} listening on the address.
+ */
+class ResponseCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+  private static final long NOT_CACHEABLE = -1L;
+  private static final long INDEX_SWEEP_INTERVAL_MS = 30000L;
+  private static final Pattern TAGS_SEPARATOR = Pattern.compile("[,\\s]+");
+
+  private final CacheStore store;
+  private final CacheOptions cacheOptions;
+  private final CacheKeyNormalizer keyNormalizer;
+  private final RefreshAheadScheduler refreshAhead;
+  private final String actionAlias;
+  private final Context context;
+  private final CacheKeyIndex index;
+
+  ResponseCache(Vertx vertx, String actionAlias, CacheOptions cacheOptions,
+      EndpointOptions endpointOptions, DeadlineOptions deadlineOptions,
+      Function<EndpointRequest, Single<EndpointResponse>> refreshFunction) {
+    this.store = createStore(vertx, cacheOptions);
+    this.actionAlias = actionAlias;
+    this.context = vertx.getOrCreateContext();
+    // a shared store is only released, its delegate is closed when the last user closes it
+    context.addCloseHook(completion -> {
+      store.close();
+      completion.handle(Future.succeededFuture());
+    });
+    this.cacheOptions = cacheOptions;
+    this.keyNormalizer = new CacheKeyNormalizer(
+        endpointOptions.getDomain() + ":" + endpointOptions.getPort(),
+        cacheOptions.getKeyOptions(), getDeadlineHeaders(deadlineOptions));
+    this.refreshAhead = cacheOptions.getRefreshAheadOptions().isEnabled()
+        ? new RefreshAheadScheduler(vertx, cacheOptions.getRefreshAheadOptions(),
+        (key, request) -> refresh(key, request, refreshFunction))
+        : null;
+    this.index = cacheOptions.getInvalidationAddress() != null ? new CacheKeyIndex() : null;
+    if (index != null) {
+      vertx.setPeriodic(INDEX_SWEEP_INTERVAL_MS,
+          timerId -> index.removeExpired(System.currentTimeMillis()));
+      CacheAdmin.register(vertx, cacheOptions.getInvalidationAddress(), this);
+    }
+  }
+
+  private static CacheStore createStore(Vertx vertx, CacheOptions cacheOptions) {
+    if (cacheOptions.isShared()) {
+      return CacheStoreProvider
+          .getOrCreateShared(cacheOptions.getStore(), cacheOptions.getStoreConfig(), vertx);
+    }
+    return CacheStoreProvider
+        .create(cacheOptions.getStore(), cacheOptions.getStoreConfig(), vertx);
+  }
+
+  private Completable refresh(String key, EndpointRequest request,
+      Function<EndpointRequest, Single<EndpointResponse>> refreshFunction) {
+    return refreshFunction.apply(request)
+        .doOnSuccess(response -> put(key, request, response))
+        .ignoreElement();
+  }
+
+  String key(EndpointRequest request) {
+    return keyNormalizer.key(request);
+  }
+
+  /**
+   * The body of the returned response may be read from memory kept by the store, the response is
+   * released with {@link EndpointResponse#release()} when it is no longer used.
+   */
+  Maybe<EndpointResponse> get(String key) {
+    return Maybe.<io.vertx.core.buffer.Buffer>create(emitter -> store.get(key, ar -> {
+      if (ar.failed()) {
+        LOGGER.warn("Could not read cached response [{}]", key, ar.cause());
+        emitter.onComplete();
+      } else if (ar.result() == null) {
+        emitter.onComplete();
+      } else {
+        emitter.onSuccess(ar.result());
+      }
+    })).map(this::decode)
+        .doOnSuccess(response -> onHit(key))
+        .doOnError(e -> LOGGER.warn("Could not decode cached response [{}]", key, e))
+        .onErrorComplete();
+  }
+
+  private EndpointResponse decode(io.vertx.core.buffer.Buffer value) {
+    try {
+      return EndpointResponseCodec.decode(Buffer.newInstance(value))
+          .withReleaseHook(() -> store.release(value));
+    } catch (RuntimeException e) {
+      store.release(value);
+      throw e;
+    }
+  }
+
+  private void onHit(String key) {
+    if (refreshAhead != null) {
+      refreshAhead.onHit(key);
+    }
+  }
+
+  void put(String key, EndpointRequest request, EndpointResponse response) {
+    long ttlMs = getTtlMs(response);
+    if (ttlMs > 0) {
+      if (refreshAhead != null) {
+        // negative entries are not refreshed, they expire and are fetched again on demand
+        if (SUCCESS.contains(response.getStatusCode().code())) {
+          refreshAhead.onStored(key, toRefreshRequest(request), ttlMs);
+        } else {
+          refreshAhead.onInvalidated(key);
+        }
+      }
+      if (index != null) {
+        index.add(key, keyNormalizer.sourceKey(request), getTags(response),
+            System.currentTimeMillis() + ttlMs);
+      }
+      store.put(key, EndpointResponseCodec.encode(response).getDelegate(), ttlMs, ar -> {
+        if (ar.failed()) {
+          LOGGER.warn("Could not cache response [{}]", key, ar.cause());
+        }
+      });
+    }
+  }
+
+  private Set<String> getTags(EndpointResponse response) {
+    if (cacheOptions.getTagHeader() == null) {
+      return Collections.emptySet();
+    }
+    return response.getHeaders().getAll(cacheOptions.getTagHeader()).stream()
+        .flatMap(TAGS_SEPARATOR::splitAsStream)
+        .filter(tag -> !tag.isEmpty())
+        .collect(Collectors.toSet());
+  }
+
+  String getActionAlias() {
+    return actionAlias;
+  }
+
+  /**
+   * Invalidates the entry stored under the key. The key can be given before or after hashing.
+   *
+   * @return number of indexed entries invalidated
+   */
+  Single<Integer> invalidateKey(String key) {
+    String storedKey = index.contains(key) ? key : keyNormalizer.toKey(key);
+    int indexed = index.contains(storedKey) ? 1 : 0;
+    return invalidate(Collections.singletonList(storedKey)).map(invalidated -> indexed);
+  }
+
+  /**
+   * Invalidates the entries which key before hashing starts with the prefix, e.g. {@code
+   * example.com:80/products/}.
+   *
+   * @return number of indexed entries invalidated
+   */
+  Single<Integer> invalidatePrefix(String prefix) {
+    return invalidate(index.keysWithPrefix(prefix));
+  }
+
+  /**
+   * @return number of indexed entries invalidated
+   */
+  Single<Integer> invalidateTag(String tag) {
+    return invalidate(index.keysWithTag(tag));
+  }
+
+  /**
+   * @return number of indexed entries invalidated
+   */
+  Single<Integer> invalidateAll() {
+    return invalidate(index.allKeys());
+  }
+
+  /**
+   * Keys are removed from the index immediately. The store is called on the context of the cache,
+   * as stores are not required to be thread safe, and the result is emitted when all entries are
+   * removed from the store.
+   */
+  private Single<Integer> invalidate(List<String> keys) {
+    keys.forEach(index::remove);
+    return Observable.fromIterable(keys)
+        .flatMapCompletable(this::invalidateStored)
+        .toSingleDefault(keys.size());
+  }
+
+  private Completable invalidateStored(String key) {
+    return Completable.create(emitter -> context.runOnContext(v -> {
+      if (refreshAhead != null) {
+        refreshAhead.onInvalidated(key);
+      }
+      store.invalidate(key, ar -> {
+        if (ar.failed()) {
+          LOGGER.warn("Could not invalidate cached response [{}]", key, ar.cause());
+        }
+        emitter.onComplete();
+      });
+    }));
+  }
+
+  private static List<String> getDeadlineHeaders(DeadlineOptions deadlineOptions) {
+    return Stream.of(deadlineOptions.getClientRequestHeader(),
+        deadlineOptions.getPropagationHeader())
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Refresh requests are not bound to the page that stored the entry, so they have no deadline and
+   * no trace context.
+   */
+  private static EndpointRequest toRefreshRequest(EndpointRequest request) {
+    return new EndpointRequest(request.getPath(), request.getHeaders());
+  }
+
+  /**
+   * @return snapshot of the cache store metrics
+   */
+  JsonObject getMetrics() {
+    return store.getMetrics();
+  }
+
+  /**
+   * @return cache statistics returned by the {@link CacheAdmin} stats query
+   */
+  JsonObject getStats() {
+    JsonObject stats = new JsonObject()
+        .put("alias", actionAlias)
+        .put("store", store.getMetrics());
+    if (index != null) {
+      stats.put("indexedKeys", index.size())
+          .put("tags", index.tagsCount());
+    }
+    if (refreshAhead != null) {
+      stats.put("refreshAhead", refreshAhead.getMetrics());
+    }
+    return stats;
+  }
+
+  private long getTtlMs(EndpointResponse response) {
+    int statusCode = response.getStatusCode().code();
+    if (response.isTruncated()) {
+      // the codec does not keep the flag, a cached part would be served as the whole response
+      return NOT_CACHEABLE;
+    } else if (SUCCESS.contains(statusCode)) {
+      return cacheOptions.getTtlMs();
+    } else if (response.isFromEndpoint()
+        && cacheOptions.getNegativeStatusCodes().contains(statusCode)) {
+      return cacheOptions.getNegativeTtlMs();
+    }
+    return NOT_CACHEABLE;
+  }
+}
@@ -18,15 +18,22 @@ package io.knotx.databridge.http.action;
 import io.vertx.codegen.annotations.DataObject;
 import io.vertx.core.json.JsonObject;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 
 @DataObject(generateConverter = true, publicConverter = false)
 public class ResponseOptions {
 
   private Set<String> predicates;
   private boolean forceJson;
+  private Set<String> metadataHeaders;
+  private boolean requestHeadersInMetadata = true;
+  private List<String> acceptedContentTypes = new ArrayList<>();
+  private JsonObject transform;
 
   public ResponseOptions() {
     this.predicates = new HashSet<>();
@@ -35,6 +42,12 @@ public class ResponseOptions {
   public ResponseOptions(ResponseOptions other) {
     this.predicates = new HashSet<>(other.predicates);
     this.forceJson = other.forceJson;
+    if (other.metadataHeaders != null) {
+      setMetadataHeaders(other.metadataHeaders);
+    }
+    this.requestHeadersInMetadata = other.requestHeadersInMetadata;
+    this.acceptedContentTypes = new ArrayList<>(other.acceptedContentTypes);
+    this.transform = other.transform == null ? null : other.transform.copy();
   }
 
   public ResponseOptions(JsonObject json) {
@@ -78,11 +91,97 @@ public class ResponseOptions {
     return this;
   }
 
+  public Set<String> getMetadataHeaders() {
+    return metadataHeaders;
+  }
+
+  /**
+   * Sets the allow-list of response headers copied into the {@code _response.metadata.headers}
+   * entry of the action payload. Header names are matched case-insensitively. When not set, all
+   * response headers are copied. An empty list means that no response headers are copied and the
+   * {@code headers} metadata entry is skipped.
+   *
+   * @param metadataHeaders - names of response headers kept in the payload metadata
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseOptions setMetadataHeaders(Set<String> metadataHeaders) {
+    if (metadataHeaders == null) {
+      this.metadataHeaders = null;
+    } else {
+      this.metadataHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+      this.metadataHeaders.addAll(metadataHeaders);
+    }
+    return this;
+  }
+
+  public boolean isRequestHeadersInMetadata() {
+    return requestHeadersInMetadata;
+  }
+
+  /**
+   * Sets requestHeadersInMetadata - it determines if headers sent to the endpoint are copied into
+   * the {@code _request.metadata.headers} entry of the action payload. By default it is set to
+   * {@code true}.
+   *
+   * @param requestHeadersInMetadata - determines if request headers are kept in the payload
+   * metadata
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseOptions setRequestHeadersInMetadata(boolean requestHeadersInMetadata) {
+    this.requestHeadersInMetadata = requestHeadersInMetadata;
+    return this;
+  }
+
+  public List<String> getAcceptedContentTypes() {
+    return acceptedContentTypes;
+  }
+
+  /**
+   * Sets the content types sent to the endpoint in the {@code Accept} header, in the order of
+   * preference, e.g. {@code application/cbor} before {@code application/json}. Response bodies
+   * with a content type handled by a registered
+   * {@link io.knotx.databridge.http.action.decoder.BodyDecoder} (CBOR, MessagePack and Smile are
+   * built in) are decoded into the same payload structure as JSON bodies. When empty, the
+   * {@code Accept} header is not set. By default it is empty.
+   *
+   * @param acceptedContentTypes - content types accepted from the endpoint
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseOptions setAcceptedContentTypes(List<String> acceptedContentTypes) {
+    this.acceptedContentTypes = acceptedContentTypes;
+    return this;
+  }
+
+  public JsonObject getTransform() {
+    return transform;
+  }
+
+  /**
+   * Sets the spec reshaping the parsed response body before it is added to the action payload.
+   * Each entry defines a field of the result: a string is a dot separated path in the body
+   * (numeric segments index arrays), an object is a nested result object (with the {@code $path}
+   * entry it is built from the value at that path, for each element when it is an array), an
+   * array is a string concatenated from paths and single-quoted literals, and a number, boolean or
+   * {@code null} is a constant. Fields whose path is missing in the body are skipped. The spec is
+   * compiled when the action is created. When not set, the body is not transformed.
+   *
+   * @param transform - response body transform spec
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseOptions setTransform(JsonObject transform) {
+    this.transform = transform;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "ResponseOptions{" +
         "predicates=" + predicates +
         ", forceJson=" + forceJson +
+        ", metadataHeaders=" + metadataHeaders +
+        ", requestHeadersInMetadata=" + requestHeadersInMetadata +
+        ", acceptedContentTypes=" + acceptedContentTypes +
+        ", transform=" + transform +
         '}';
   }
 }
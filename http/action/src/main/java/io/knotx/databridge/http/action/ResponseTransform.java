@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+/**
+ * Declarative reshaping of a parsed response body, compiled once from the {@link
+ * ResponseOptions#getTransform()} spec. Each spec entry defines a field of the result:
+ * <ul>
+ * <li>a string is a dot separated path in the body, numeric segments index arrays, e.g. {@code
+ * data.items.0.name},</li>
+ * <li>an object is a nested result object; with the {@code $path} entry its fields are read
+ * relative to the value at that path, and when the value is an array the object is built for each
+ * element,</li>
+ * <li>an array is a string concatenated from paths and single-quoted literals, e.g. {@code
+ * ["firstName", "' '", "lastName"]},</li>
+ * <li>a number, boolean or {@code null} is a constant.</li>
+ * </ul>
+ * Fields whose path is missing in the body are skipped. Values are not copied, so the body must
+ * not be used after it is transformed.
+ */
+class ResponseTransform {
+
+  static final String PATH_KEY = "$path";
+
+  private static final Pattern PATH_SEPARATOR = Pattern.compile("\\.");
+  private static final Object MISSING = new Object();
+
+  private final ObjectNode root;
+
+  private ResponseTransform(ObjectNode root) {
+    this.root = root;
+  }
+
+  /**
+   * @param spec - transform spec, may be {@code null}
+   * @return the compiled transform, or {@code null} when there is no spec
+   * @throws IllegalArgumentException when the spec is not valid
+   */
+  static ResponseTransform compile(JsonObject spec) {
+    if (spec == null) {
+      return null;
+    }
+    return new ResponseTransform(compileObject(spec, ""));
+  }
+
+  /**
+   * @param body - parsed response body
+   * @return a new JSON object built from the body (empty when the root {@code $path} is missing),
+   * or the body itself when it is not JSON
+   */
+  Object apply(Object body) {
+    if (body instanceof JsonObject || body instanceof JsonArray) {
+      Object result = root.evaluate(body);
+      return result == MISSING ? new JsonObject() : result;
+    }
+    return body;
+  }
+
+  private static Node compileNode(Object value, String field) {
+    if (value instanceof String) {
+      return PathNode.parse((String) value, field);
+    } else if (value instanceof JsonObject) {
+      return compileObject((JsonObject) value, field);
+    } else if (value instanceof JsonArray) {
+      return compileConcat((JsonArray) value, field);
+    } else if (value == null || value instanceof Number || value instanceof Boolean) {
+      return source -> value;
+    }
+    throw new IllegalArgumentException(
+        "Unsupported transform of field [" + field + "]: " + value);
+  }
+
+  private static ObjectNode compileObject(JsonObject spec, String field) {
+    PathNode scope = null;
+    List<String> names = new ArrayList<>();
+    List<Node> nodes = new ArrayList<>();
+    for (Entry<String, Object> entry : spec) {
+      String name = field.isEmpty() ? entry.getKey() : field + "." + entry.getKey();
+      if (PATH_KEY.equals(entry.getKey())) {
+        if (!(entry.getValue() instanceof String)) {
+          throw new IllegalArgumentException(
+              "Transform " + PATH_KEY + " of field [" + field + "] must be a string");
+        }
+        scope = PathNode.parse((String) entry.getValue(), name);
+      } else {
+        names.add(entry.getKey());
+        nodes.add(compileNode(entry.getValue(), name));
+      }
+    }
+    return new ObjectNode(scope, names.toArray(new String[0]), nodes.toArray(new Node[0]));
+  }
+
+  private static Node compileConcat(JsonArray parts, String field) {
+    List<Node> nodes = new ArrayList<>();
+    for (Object part : parts) {
+      if (!(part instanceof String)) {
+        throw new IllegalArgumentException(
+            "Transform of field [" + field + "] can concatenate only paths and literals");
+      }
+      String value = (String) part;
+      if (value.length() >= 2 && value.startsWith("'") && value.endsWith("'")) {
+        String literal = value.substring(1, value.length() - 1);
+        nodes.add(source -> literal);
+      } else {
+        nodes.add(PathNode.parse(value, field));
+      }
+    }
+    Node[] compiled = nodes.toArray(new Node[0]);
+    return source -> {
+      StringBuilder result = new StringBuilder();
+      for (Node node : compiled) {
+        Object value = node.evaluate(source);
+        if (value == MISSING) {
+          return MISSING;
+        }
+        result.append(value);
+      }
+      return result.toString();
+    };
+  }
+
+  @FunctionalInterface
+  private interface Node {
+
+    /**
+     * @return the field value, or {@link #MISSING} when the field is skipped
+     */
+    Object evaluate(Object source);
+  }
+
+  private static final class PathNode implements Node {
+
+    private final String[] names;
+    private final int[] indexes;
+
+    private PathNode(String[] names, int[] indexes) {
+      this.names = names;
+      this.indexes = indexes;
+    }
+
+    static PathNode parse(String path, String field) {
+      String[] names = PATH_SEPARATOR.split(path, -1);
+      int[] indexes = new int[names.length];
+      for (int i = 0; i < names.length; i++) {
+        if (names[i].isEmpty()) {
+          throw new IllegalArgumentException(
+              "Invalid transform path [" + path + "] of field [" + field + "]");
+        }
+        indexes[i] = toIndex(names[i]);
+      }
+      return new PathNode(names, indexes);
+    }
+
+    private static int toIndex(String name) {
+      for (int i = 0; i < name.length(); i++) {
+        if (!Character.isDigit(name.charAt(i))) {
+          return -1;
+        }
+      }
+      return name.length() < 10 ? Integer.parseInt(name) : -1;
+    }
+
+    @Override
+    public Object evaluate(Object source) {
+      Object current = source;
+      for (int i = 0; i < names.length; i++) {
+        if (current instanceof JsonObject) {
+          JsonObject object = (JsonObject) current;
+          if (!object.containsKey(names[i])) {
+            return MISSING;
+          }
+          current = object.getValue(names[i]);
+        } else if (current instanceof JsonArray && indexes[i] >= 0
+            && indexes[i] < ((JsonArray) current).size()) {
+          current = ((JsonArray) current).getValue(indexes[i]);
+        } else {
+          return MISSING;
+        }
+      }
+      return current;
+    }
+  }
+
+  private static final class ObjectNode implements Node {
+
+    private final PathNode scope;
+    private final String[] names;
+    private final Node[] nodes;
+
+    ObjectNode(PathNode scope, String[] names, Node[] nodes) {
+      this.scope = scope;
+      this.names = names;
+      this.nodes = nodes;
+    }
+
+    @Override
+    public Object evaluate(Object source) {
+      Object scoped = scope == null ? source : scope.evaluate(source);
+      if (scoped == MISSING) {
+        return MISSING;
+      } else if (scope != null && scoped instanceof JsonArray) {
+        JsonArray elements = (JsonArray) scoped;
+        List<Object> result = new ArrayList<>(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+          result.add(build(elements.getValue(i)));
+        }
+        return new JsonArray(result);
+      }
+      return build(scoped);
+    }
+
+    private JsonObject build(Object source) {
+      Map<String, Object> fields = new LinkedHashMap<>(names.length * 2);
+      for (int i = 0; i < names.length; i++) {
+        Object value = nodes[i].evaluate(source);
+        if (value != MISSING) {
+          fields.put(names[i], value);
+        }
+      }
+      return new JsonObject(fields);
+    }
+  }
+}
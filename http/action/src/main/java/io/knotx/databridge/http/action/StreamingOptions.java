@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the streaming of newline delimited JSON responses. Records are parsed as the body
+ * arrives, and reading stops, closing the connection, when a limit is reached.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class StreamingOptions {
+
+  private static final int DEFAULT_MAX_RECORDS = 0;
+  private static final long DEFAULT_MAX_BYTES = 0L;
+
+  private boolean enabled;
+  private int maxRecords = DEFAULT_MAX_RECORDS;
+  private long maxBytes = DEFAULT_MAX_BYTES;
+
+  public StreamingOptions() {
+    //empty default constructor
+  }
+
+  public StreamingOptions(StreamingOptions other) {
+    this.enabled = other.enabled;
+    this.maxRecords = other.maxRecords;
+    this.maxBytes = other.maxBytes;
+  }
+
+  public StreamingOptions(JsonObject json) {
+    this();
+    StreamingOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    StreamingOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the streaming of responses with a newline delimited JSON content type ({@code
+   * application/x-ndjson}, {@code application/ndjson} or {@code application/jsonl}) into a JSON
+   * array of records. Other responses are read as usual. When disabled, NDJSON bodies are not
+   * decoded. By default it is set to {@code false}.
+   *
+   * @param enabled - determines if NDJSON responses are streamed
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StreamingOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public int getMaxRecords() {
+    return maxRecords;
+  }
+
+  /**
+   * Sets the number of records after which reading stops. Setting zero or a negative value
+   * disables the limit. By default it is set to {@code 0}.
+   *
+   * @param maxRecords - maximum number of records
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StreamingOptions setMaxRecords(int maxRecords) {
+    this.maxRecords = maxRecords;
+    return this;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Sets the number of body bytes after which reading stops. Only records completely received
+   * within the limit are kept. Setting zero or a negative value disables the limit. By default it
+   * is set to {@code 0}.
+   *
+   * @param maxBytes - maximum number of body bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StreamingOptions setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "StreamingOptions{" +
+        "enabled=" + enabled +
+        ", maxRecords=" + maxRecords +
+        ", maxBytes=" + maxBytes +
+        '}';
+  }
+}
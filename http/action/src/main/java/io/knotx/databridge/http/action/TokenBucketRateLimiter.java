@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket implemented as the Generic Cell Rate Algorithm. The whole bucket state is
+ * a single theoretical arrival time updated with compare-and-set, so it can be shared by actions
+ * running on different event loops. One instance is shared by all actions calling the same
+ * endpoint within a Vert.x instance, so they share its quota; the rate of the first action wins and
+ * a different rate configured by another action is reported as a warning.
+ */
+class TokenBucketRateLimiter implements Shareable {
+
+  static final long REJECTED = -1L;
+  static final String LIMITERS_MAP = "knotx.http.action.rate-limiters";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+
+  private final int permitsPerSecond;
+  private final int burst;
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final AtomicLong theoreticalArrivalTime;
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder delayed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  TokenBucketRateLimiter(int permitsPerSecond, int burst) {
+    this.permitsPerSecond = permitsPerSecond;
+    this.burst = burst;
+    this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    this.toleranceNanos = intervalNanos * ((burst > 0 ? burst : permitsPerSecond) - 1);
+    this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+  }
+
+  static TokenBucketRateLimiter getOrCreate(Vertx vertx, String endpoint,
+      RateLimitOptions options) {
+    LocalMap<String, TokenBucketRateLimiter> limiters = vertx.sharedData()
+        .getLocalMap(LIMITERS_MAP);
+    TokenBucketRateLimiter limiter = limiters.get(endpoint);
+    if (limiter == null) {
+      TokenBucketRateLimiter created = new TokenBucketRateLimiter(options.getPermitsPerSecond(),
+          options.getBurst());
+      limiter = limiters.putIfAbsent(endpoint, created);
+      if (limiter == null) {
+        limiter = created;
+      }
+    }
+    if (limiter.permitsPerSecond != options.getPermitsPerSecond()
+        || limiter.burst != options.getBurst()) {
+      LOGGER.warn("Rate limiter of endpoint [{}] is shared with permitsPerSecond [{}] and burst "
+              + "[{}], configured permitsPerSecond [{}] and burst [{}] are ignored", endpoint,
+          limiter.permitsPerSecond, limiter.burst, options.getPermitsPerSecond(),
+          options.getBurst());
+    }
+    return limiter;
+  }
+
+  /**
+   * Takes a token.
+   *
+   * @param maxWaitNanos - maximum time the caller accepts to wait for the token
+   * @return the time in nanoseconds the caller must wait before sending the request, or {@link
+   * #REJECTED} when the token would not be available within {@code maxWaitNanos}
+   */
+  long tryAcquire(long maxWaitNanos) {
+    long now = System.nanoTime();
+    while (true) {
+      long current = theoreticalArrivalTime.get();
+      long arrival = Math.max(current, now);
+      long waitNanos = arrival - toleranceNanos - now;
+      if (waitNanos > maxWaitNanos) {
+        rejected.increment();
+        return REJECTED;
+      }
+      if (theoreticalArrivalTime.compareAndSet(current, arrival + intervalNanos)) {
+        if (waitNanos > 0) {
+          delayed.increment();
+          return waitNanos;
+        }
+        acquired.increment();
+        return 0L;
+      }
+    }
+  }
+
+  /**
+   * Stops issuing tokens for the given time, e.g. when the endpoint responds with {@code
+   * Retry-After} header.
+   *
+   * @param pauseNanos - pause duration in nanoseconds
+   */
+  void pause(long pauseNanos) {
+    long resumeAt = System.nanoTime() + pauseNanos + toleranceNanos;
+    while (true) {
+      long current = theoreticalArrivalTime.get();
+      if (current >= resumeAt || theoreticalArrivalTime.compareAndSet(current, resumeAt)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return snapshot of the limiter counters
+   */
+  JsonObject getMetrics() {
+    return new JsonObject()
+        .put("acquired", acquired.sum())
+        .put("delayed", delayed.sum())
+        .put("rejected", rejected.sum());
+  }
+
+  /**
+   * Parses the {@code Retry-After} header value given in seconds or as an HTTP date.
+   *
+   * @param retryAfter - header value
+   * @return requested back-off in milliseconds, {@code 0} when the value can not be parsed
+   */
+  static long parseRetryAfterMs(String retryAfter) {
+    String value = retryAfter.trim();
+    try {
+      return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+    } catch (NumberFormatException e) {
+      try {
+        long retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+            .toInstant().toEpochMilli();
+        return Math.max(retryAt - System.currentTimeMillis(), 0L);
+      } catch (DateTimeParseException dateException) {
+        return 0L;
+      }
+    }
+  }
+}
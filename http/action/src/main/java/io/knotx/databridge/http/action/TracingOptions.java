@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the endpoint calls tracing. Every invocation creates a client span with a {@link
+ * io.knotx.databridge.http.action.tracing.Tracer} selected by its factory name, and the W3C {@code
+ * traceparent} header is sent to the endpoint.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class TracingOptions {
+
+  private static final String DEFAULT_TRACER = "logging";
+  private static final double DEFAULT_SAMPLING_RATIO = 1.0;
+
+  private boolean enabled;
+  private String tracer = DEFAULT_TRACER;
+  private JsonObject tracerConfig = new JsonObject();
+  private double samplingRatio = DEFAULT_SAMPLING_RATIO;
+
+  public TracingOptions() {
+    //empty default constructor
+  }
+
+  public TracingOptions(TracingOptions other) {
+    this.enabled = other.enabled;
+    this.tracer = other.tracer;
+    this.tracerConfig = other.tracerConfig.copy();
+    this.samplingRatio = other.samplingRatio;
+  }
+
+  public TracingOptions(JsonObject json) {
+    this();
+    TracingOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    TracingOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the endpoint calls tracing. By default it is set to {@code false}.
+   *
+   * @param enabled - determines if endpoint calls are traced
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TracingOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public String getTracer() {
+    return tracer;
+  }
+
+  /**
+   * Sets the name of the {@link io.knotx.databridge.http.action.tracing.TracerFactory} creating
+   * the tracer. Available tracers are {@code logging} (spans written to the application log) and
+   * {@code in-memory} (spans kept in memory for tests). By default it is set to {@code logging}.
+   *
+   * @param tracer - tracer factory name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TracingOptions setTracer(String tracer) {
+    this.tracer = tracer;
+    return this;
+  }
+
+  public JsonObject getTracerConfig() {
+    return tracerConfig;
+  }
+
+  /**
+   * Sets the tracer configuration passed to the tracer factory.
+   *
+   * @param tracerConfig - JSON Object with the tracer configuration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TracingOptions setTracerConfig(JsonObject tracerConfig) {
+    this.tracerConfig = tracerConfig;
+    return this;
+  }
+
+  public double getSamplingRatio() {
+    return samplingRatio;
+  }
+
+  /**
+   * Sets the fraction of new traces that are sampled, between {@code 0} and {@code 1}. When the
+   * client request carries the {@code traceparent} header, its sampling decision is followed
+   * instead. Spans that are not sampled are not recorded, only their trace context is propagated.
+   * By default it is set to {@code 1}.
+   *
+   * @param samplingRatio - fraction of sampled traces
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TracingOptions setSamplingRatio(double samplingRatio) {
+    this.samplingRatio = samplingRatio;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "TracingOptions{" +
+        "enabled=" + enabled +
+        ", tracer='" + tracer + '\'' +
+        ", tracerConfig=" + tracerConfig +
+        ", samplingRatio=" + samplingRatio +
+        '}';
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Key-value store keeping serialized endpoint responses. Implementations may keep entries in the
+ * process memory or delegate to a remote store shared by many nodes. All operations are
+ * asynchronous and must not block the calling event loop.
+ */
+public interface CacheStore {
+
+  /**
+   * Reads the value stored under the key.
+   *
+   * @param key - cache key
+   * @param handler - handler called with the stored value or {@code null} when there is no valid
+   * entry for the key
+   */
+  void get(String key, Handler<AsyncResult<Buffer>> handler);
+
+  /**
+   * Stores the value under the key.
+   *
+   * @param key - cache key
+   * @param value - serialized value
+   * @param ttlMs - time to live in milliseconds
+   * @param handler - handler called when the value is stored
+   */
+  void put(String key, Buffer value, long ttlMs, Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Removes the value stored under the key.
+   *
+   * @param key - cache key
+   * @param handler - handler called when the value is removed
+   */
+  void invalidate(String key, Handler<AsyncResult<Void>> handler);
+
+  /**
+   * Called when a value returned by {@link #get(String, Handler)} is no longer used. Stores
+   * serving values backed by pooled memory keep the memory until the value is released.
+   *
+   * @param value - value returned by {@link #get(String, Handler)}, not used afterwards
+   */
+  default void release(Buffer value) {
+    //nothing to release by default
+  }
+
+  /**
+   * @return snapshot of the store metrics, e.g. hits, misses and evictions; empty when the store
+   * does not collect metrics
+   */
+  default JsonObject getMetrics() {
+    return new JsonObject();
+  }
+
+  /**
+   * Releases resources kept by the store.
+   */
+  default void close() {
+    //nothing to release by default
+  }
+}
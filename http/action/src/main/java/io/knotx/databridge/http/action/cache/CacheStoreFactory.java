@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates {@link CacheStore} instances. Factories are registered with the Java {@link
+ * java.util.ServiceLoader} mechanism and selected by their name in the action cache
+ * configuration.
+ */
+public interface CacheStoreFactory {
+
+  /**
+   * @return the name of the store referenced in the cache configuration
+   */
+  String getName();
+
+  /**
+   * Creates the store.
+   *
+   * @param config - store configuration
+   * @param vertx - Vert.x instance
+   * @return new store instance
+   */
+  CacheStore create(JsonObject config, Vertx vertx);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import java.util.ServiceLoader;
+
+/**
+ * Looks up {@link CacheStoreFactory} implementations registered with the {@link ServiceLoader}.
+ */
+public final class CacheStoreProvider {
+
+  private static final String SHARED_STORES_MAP = "knotx.http.action.cache.stores";
+
+  private CacheStoreProvider() {
+    //util class
+  }
+
+  /**
+   * Creates the store with the factory registered under the name.
+   *
+   * @param name - cache store factory name
+   * @param config - store configuration
+   * @param vertx - Vert.x instance
+   * @return new store instance
+   * @throws IllegalArgumentException when there is no factory with the name
+   */
+  public static CacheStore create(String name, JsonObject config, Vertx vertx) {
+    for (CacheStoreFactory factory : ServiceLoader.load(CacheStoreFactory.class)) {
+      if (factory.getName().equals(name)) {
+        return factory.create(config, vertx);
+      }
+    }
+    throw new IllegalArgumentException("Cache store factory [" + name + "] is not registered");
+  }
+
+  /**
+   * Returns the store shared by all users of the Vert.x instance with the same factory name and
+   * configuration, creating it on the first call. Every user closes the returned store when it is
+   * no longer needed; the store is released when the last user closes it.
+   *
+   * @param name - cache store factory name
+   * @param config - store configuration
+   * @param vertx - Vert.x instance
+   * @return store shared within the Vert.x instance
+   * @throws IllegalArgumentException when there is no factory with the name
+   */
+  public static CacheStore getOrCreateShared(String name, JsonObject config, Vertx vertx) {
+    LocalMap<String, SharedCacheStore> stores = vertx.sharedData().getLocalMap(SHARED_STORES_MAP);
+    String id = name + config.encode();
+    while (true) {
+      SharedCacheStore store = stores.get(id);
+      if (store == null) {
+        SharedCacheStore created = new SharedCacheStore(vertx, create(name, config, vertx), stores,
+            id);
+        store = stores.putIfAbsent(id, created);
+        if (store == null) {
+          store = created;
+        } else {
+          created.discard();
+        }
+      }
+      if (store.retain()) {
+        return store;
+      }
+      stores.removeIfPresent(id, store);
+    }
+  }
+}
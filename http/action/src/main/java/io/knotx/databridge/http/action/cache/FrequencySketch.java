@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch estimating how often keys were accessed recently. Every key maps to four 4-bit
+ * counters and its frequency is the minimum of them, so the estimate is never lower than the real
+ * count (up to {@code 15}). When the number of recorded accesses reaches ten times the table size,
+ * all counters are halved, so old popularity fades out. All operations are lock-free.
+ */
+final class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MIN_TABLE_SIZE = 64;
+  private static final int SAMPLE_FACTOR = 10;
+  private static final long MAX_COUNTER = 15L;
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private final AtomicLongArray table;
+  private final int tableMask;
+  private final int sampleSize;
+  private final AtomicInteger additions = new AtomicInteger();
+
+  FrequencySketch(long expectedEntries) {
+    int tableSize = tableSize(expectedEntries);
+    this.table = new AtomicLongArray(tableSize);
+    this.tableMask = tableSize - 1;
+    this.sampleSize = tableSize * SAMPLE_FACTOR;
+  }
+
+  /**
+   * Records an access to the key.
+   *
+   * @param key - accessed key
+   */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+    for (int i = 0; i < DEPTH; i++) {
+      added |= incrementAt(indexOf(hash, i), offsetOf(hash, i));
+    }
+    if (added && additions.incrementAndGet() >= sampleSize) {
+      reset();
+    }
+  }
+
+  /**
+   * @param key - key to estimate
+   * @return estimated number of recent accesses to the key, between {@code 0} and {@code 15}
+   */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    long frequency = MAX_COUNTER;
+    for (int i = 0; i < DEPTH; i++) {
+      long counter = (table.get(indexOf(hash, i)) >>> offsetOf(hash, i)) & MAX_COUNTER;
+      frequency = Math.min(frequency, counter);
+    }
+    return (int) frequency;
+  }
+
+  private boolean incrementAt(int index, int offset) {
+    long mask = MAX_COUNTER << offset;
+    while (true) {
+      long current = table.get(index);
+      if ((current & mask) == mask) {
+        return false;
+      }
+      if (table.compareAndSet(index, current, current + (1L << offset))) {
+        return true;
+      }
+    }
+  }
+
+  private void reset() {
+    int current = additions.get();
+    if (current < sampleSize || !additions.compareAndSet(current, current / 2)) {
+      return;
+    }
+    for (int i = 0; i < table.length(); i++) {
+      long value;
+      do {
+        value = table.get(i);
+      } while (!table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+    }
+  }
+
+  private int indexOf(int hash, int depth) {
+    long h = (hash + SEEDS[depth]) * SEEDS[depth];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  private static int offsetOf(int hash, int depth) {
+    // each long holds 16 counters of 4 bits
+    return (((hash >>> (depth << 3)) & 0xF) << 2);
+  }
+
+  private static int spread(int hash) {
+    int h = hash * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int tableSize(long expectedEntries) {
+    long size = Math.max(MIN_TABLE_SIZE, Math.min(expectedEntries, 1 << 30));
+    return Integer.highestOneBit((int) (size - 1)) << 1;
+  }
+}
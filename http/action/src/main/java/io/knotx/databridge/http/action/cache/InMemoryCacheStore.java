@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Embedded store keeping entries in the process memory. When the number of entries exceeds {@code
+ * maxEntries} the least recently stored entries are removed first. Handlers are called on the
+ * calling thread.
+ */
+public class InMemoryCacheStore implements CacheStore {
+
+  private final Map<String, Entry> entries;
+  private final Object lock = new Object();
+
+  public InMemoryCacheStore(long maxEntries) {
+    this.entries = new LinkedHashMap<String, Entry>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  @Override
+  public void get(String key, Handler<AsyncResult<Buffer>> handler) {
+    Entry entry;
+    synchronized (lock) {
+      entry = entries.get(key);
+      if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+        entries.remove(key);
+        entry = null;
+      }
+    }
+    handler.handle(Future.succeededFuture(entry == null ? null : entry.value));
+  }
+
+  @Override
+  public void put(String key, Buffer value, long ttlMs, Handler<AsyncResult<Void>> handler) {
+    Entry entry = new Entry(value, System.currentTimeMillis() + ttlMs);
+    synchronized (lock) {
+      // re-inserted so an overwritten key becomes the most recently stored one
+      entries.remove(key);
+      entries.put(key, entry);
+    }
+    handler.handle(Future.succeededFuture());
+  }
+
+  @Override
+  public void invalidate(String key, Handler<AsyncResult<Void>> handler) {
+    synchronized (lock) {
+      entries.remove(key);
+    }
+    handler.handle(Future.succeededFuture());
+  }
+
+  @Override
+  public void close() {
+    synchronized (lock) {
+      entries.clear();
+    }
+  }
+
+  int size() {
+    synchronized (lock) {
+      return entries.size();
+    }
+  }
+
+  private static final class Entry {
+
+    private final Buffer value;
+    private final long expiresAt;
+
+    private Entry(Buffer value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired(long now) {
+      return expiresAt <= now;
+    }
+  }
+}
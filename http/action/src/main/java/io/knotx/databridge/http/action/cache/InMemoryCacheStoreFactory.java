@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates {@link InMemoryCacheStore}. Supported configuration entries:
+ * <ul>
+ * <li>{@code maxEntries} - maximum number of cached entries, {@code 10000} by default</li>
+ * </ul>
+ */
+public class InMemoryCacheStoreFactory implements CacheStoreFactory {
+
+  private static final long DEFAULT_MAX_ENTRIES = 10000L;
+
+  @Override
+  public String getName() {
+    return "local";
+  }
+
+  @Override
+  public CacheStore create(JsonObject config, Vertx vertx) {
+    return new InMemoryCacheStore(config.getLong("maxEntries", DEFAULT_MAX_ENTRIES));
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps cached values in direct memory allocated from the Netty pooled allocator, whose arenas
+ * serve small values from shared slabs (pages) and large values from dedicated chunks.
+ *
+ * <p>Readers get retained slices of the direct memory, so the memory of a removed value is returned
+ * to the pool only when its last reader releases the slice.
+ */
+class OffHeapStorage {
+
+  private final ByteBufAllocator allocator;
+  private final AtomicLong allocatedBytes = new AtomicLong();
+
+  OffHeapStorage() {
+    this(PooledByteBufAllocator.DEFAULT);
+  }
+
+  OffHeapStorage(ByteBufAllocator allocator) {
+    this.allocator = allocator;
+  }
+
+  /**
+   * Copies the value to direct memory.
+   *
+   * @param value - heap value
+   * @return direct memory holding the value, released with {@link #release(ByteBuf)}
+   */
+  ByteBuf allocate(Buffer value) {
+    int length = value.length();
+    ByteBuf direct = allocator.directBuffer(length, length);
+    direct.writeBytes(value.getByteBuf());
+    allocatedBytes.addAndGet(length);
+    return direct;
+  }
+
+  /**
+   * Must not run concurrently with {@link #release(ByteBuf)} of the same memory.
+   *
+   * @param direct - direct memory returned by {@link #allocate(Buffer)}
+   * @return slice of the value keeping the memory until the slice is released
+   */
+  static ByteBuf read(ByteBuf direct) {
+    return direct.retainedSlice();
+  }
+
+  /**
+   * Releases the direct memory of a value, it returns to the pool when no slice is left.
+   *
+   * @param direct - direct memory returned by {@link #allocate(Buffer)}
+   */
+  void release(ByteBuf direct) {
+    allocatedBytes.addAndGet(-direct.capacity());
+    direct.release();
+  }
+
+  JsonObject getMetrics() {
+    return new JsonObject()
+        .put("offHeapBytes", allocatedBytes.get());
+  }
+}
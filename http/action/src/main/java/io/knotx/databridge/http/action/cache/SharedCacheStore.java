@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Store instance shared by all actions (and verticle instances) of a Vert.x instance configured
+ * with the same store. Handlers are always called on the context of the caller, even when the
+ * delegate completes on the context that created it (e.g. a network client). The delegate is closed
+ * when the last user closes the store.
+ */
+final class SharedCacheStore implements CacheStore, Shareable {
+
+  private static final int CLOSED = -1;
+
+  private final Vertx vertx;
+  private final CacheStore delegate;
+  private final LocalMap<String, SharedCacheStore> stores;
+  private final String id;
+  private final AtomicInteger references = new AtomicInteger();
+
+  SharedCacheStore(Vertx vertx, CacheStore delegate, LocalMap<String, SharedCacheStore> stores,
+      String id) {
+    this.vertx = vertx;
+    this.delegate = delegate;
+    this.stores = stores;
+    this.id = id;
+  }
+
+  @Override
+  public void get(String key, Handler<AsyncResult<Buffer>> handler) {
+    delegate.get(key, onCallerContext(handler));
+  }
+
+  @Override
+  public void put(String key, Buffer value, long ttlMs, Handler<AsyncResult<Void>> handler) {
+    delegate.put(key, value, ttlMs, onCallerContext(handler));
+  }
+
+  @Override
+  public void invalidate(String key, Handler<AsyncResult<Void>> handler) {
+    delegate.invalidate(key, onCallerContext(handler));
+  }
+
+  @Override
+  public void release(Buffer value) {
+    delegate.release(value);
+  }
+
+  @Override
+  public JsonObject getMetrics() {
+    return delegate.getMetrics();
+  }
+
+  @Override
+  public void close() {
+    if (references.decrementAndGet() == 0 && references.compareAndSet(0, CLOSED)) {
+      stores.removeIfPresent(id, this);
+      delegate.close();
+    }
+  }
+
+  /**
+   * Registers a new user of the store.
+   *
+   * @return {@code false} when the store has already been closed by its last user
+   */
+  boolean retain() {
+    while (true) {
+      int current = references.get();
+      if (current == CLOSED) {
+        return false;
+      }
+      if (references.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Closes the delegate of a store that lost the race to be registered.
+   */
+  void discard() {
+    delegate.close();
+  }
+
+  private <T> Handler<AsyncResult<T>> onCallerContext(Handler<AsyncResult<T>> handler) {
+    Context caller = vertx.getOrCreateContext();
+    return result -> {
+      if (Vertx.currentContext() == caller) {
+        handler.handle(result);
+      } else {
+        caller.runOnContext(v -> handler.handle(result));
+      }
+    };
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.parsetools.RecordParser;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary protocol shared by {@link TcpCacheStore} and {@link TcpCacheServer}. Every frame starts
+ * with an int length of the remaining frame bytes.
+ *
+ * <pre>
+ * request:  byte operation | int id | int key length | key | [long ttl | value]
+ * response: int id | byte status | [value or error message]
+ * </pre>
+ */
+final class TcpCacheProtocol {
+
+  static final byte GET = 1;
+  static final byte PUT = 2;
+  static final byte INVALIDATE = 3;
+
+  static final byte OK = 0;
+  static final byte MISS = 1;
+  static final byte ERROR = 2;
+
+  static final int REQUEST_HEADER_SIZE = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+  static final int RESPONSE_HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+  private TcpCacheProtocol() {
+    //util class
+  }
+
+  static Buffer request(byte operation, int id, String key) {
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    return Buffer.buffer(Integer.BYTES + REQUEST_HEADER_SIZE + keyBytes.length)
+        .appendInt(REQUEST_HEADER_SIZE + keyBytes.length)
+        .appendByte(operation)
+        .appendInt(id)
+        .appendInt(keyBytes.length)
+        .appendBytes(keyBytes);
+  }
+
+  static Buffer putRequest(int id, String key, long ttlMs, Buffer value) {
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    int length = REQUEST_HEADER_SIZE + keyBytes.length + Long.BYTES + value.length();
+    return Buffer.buffer(Integer.BYTES + length)
+        .appendInt(length)
+        .appendByte(PUT)
+        .appendInt(id)
+        .appendInt(keyBytes.length)
+        .appendBytes(keyBytes)
+        .appendLong(ttlMs)
+        .appendBuffer(value);
+  }
+
+  static Buffer response(int id, byte status, Buffer payload) {
+    int payloadLength = payload == null ? 0 : payload.length();
+    Buffer frame = Buffer.buffer(Integer.BYTES + RESPONSE_HEADER_SIZE + payloadLength)
+        .appendInt(RESPONSE_HEADER_SIZE + payloadLength)
+        .appendInt(id)
+        .appendByte(status);
+    return payload == null ? frame : frame.appendBuffer(payload);
+  }
+
+  static Buffer errorResponse(int id, Throwable error) {
+    return response(id, ERROR, Buffer.buffer(String.valueOf(error.getMessage())));
+  }
+
+  /**
+   * Creates the parser splitting incoming bytes into frames without the length prefix.
+   *
+   * @param frameHandler - handler of complete frames
+   * @return the parser that should be set as the socket handler
+   */
+  static RecordParser frameParser(Handler<Buffer> frameHandler) {
+    RecordParser parser = RecordParser.newFixed(Integer.BYTES);
+    parser.handler(new Handler<Buffer>() {
+      private boolean readingLength = true;
+
+      @Override
+      public void handle(Buffer buffer) {
+        if (readingLength) {
+          readingLength = false;
+          parser.fixedSizeMode(buffer.getInt(0));
+        } else {
+          readingLength = true;
+          parser.fixedSizeMode(Integer.BYTES);
+          frameHandler.handle(buffer);
+        }
+      }
+    });
+    return parser;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.GET;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.INVALIDATE;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.MISS;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.OK;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.PUT;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.REQUEST_HEADER_SIZE;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetSocket;
+
+/**
+ * Local cache server speaking {@link TcpCacheProtocol} and keeping entries in a backing {@link
+ * CacheStore}. It is a stand-in for a shared remote store in tests and local environments.
+ */
+public class TcpCacheServer {
+
+  private final NetServer netServer;
+  private final CacheStore store;
+
+  public TcpCacheServer(Vertx vertx, CacheStore store) {
+    this.netServer = vertx.createNetServer();
+    this.store = store;
+  }
+
+  /**
+   * Starts listening on the port.
+   *
+   * @param port - port to listen on, {@code 0} picks a random free port
+   * @param handler - handler called with the actual port
+   */
+  public void listen(int port, Handler<AsyncResult<Integer>> handler) {
+    netServer.connectHandler(this::handleConnection)
+        .listen(port, ar -> handler.handle(ar.map(NetServer::actualPort)));
+  }
+
+  public void close(Handler<AsyncResult<Void>> handler) {
+    netServer.close(handler);
+  }
+
+  private void handleConnection(NetSocket socket) {
+    socket.handler(TcpCacheProtocol.frameParser(frame -> handleRequest(socket, frame)));
+  }
+
+  private void handleRequest(NetSocket socket, Buffer frame) {
+    byte operation = frame.getByte(0);
+    int id = frame.getInt(Byte.BYTES);
+    int keyLength = frame.getInt(Byte.BYTES + Integer.BYTES);
+    String key = frame.getString(REQUEST_HEADER_SIZE, REQUEST_HEADER_SIZE + keyLength, "UTF-8");
+    int position = REQUEST_HEADER_SIZE + keyLength;
+    if (operation == GET) {
+      store.get(key, ar -> {
+        if (ar.failed()) {
+          socket.write(TcpCacheProtocol.errorResponse(id, ar.cause()));
+        } else if (ar.result() == null) {
+          socket.write(TcpCacheProtocol.response(id, MISS, null));
+        } else {
+          // the value is copied to the response frame
+          Buffer response = TcpCacheProtocol.response(id, OK, ar.result());
+          store.release(ar.result());
+          socket.write(response);
+        }
+      });
+    } else if (operation == PUT) {
+      long ttlMs = frame.getLong(position);
+      Buffer value = frame.getBuffer(position + Long.BYTES, frame.length());
+      store.put(key, value, ttlMs, ar -> socket.write(reply(id, ar)));
+    } else if (operation == INVALIDATE) {
+      store.invalidate(key, ar -> socket.write(reply(id, ar)));
+    } else {
+      socket.write(TcpCacheProtocol.errorResponse(id,
+          new IllegalArgumentException("Unsupported operation " + operation)));
+    }
+  }
+
+  private Buffer reply(int id, AsyncResult<Void> result) {
+    return result.failed()
+        ? TcpCacheProtocol.errorResponse(id, result.cause())
+        : TcpCacheProtocol.response(id, OK, null);
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.ERROR;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.GET;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.INVALIDATE;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.MISS;
+import static io.knotx.databridge.http.action.cache.TcpCacheProtocol.OK;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Store delegating to a remote cache server over a single multiplexed TCP connection, see {@link
+ * TcpCacheProtocol}. The connection is opened lazily and re-opened after it is closed. Each
+ * connection has its own client bound to the context of the request opening it, so the connection
+ * closed with that context (e.g. an undeployed verticle) is re-opened by the next request. Requests
+ * not answered within {@code requestTimeoutMs} fail with {@link TimeoutException}.
+ */
+public class TcpCacheStore implements CacheStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TcpCacheStore.class);
+  private static final NetClientOptions CLIENT_OPTIONS = new NetClientOptions()
+      .setTcpNoDelay(true);
+
+  private final Vertx vertx;
+  private final String host;
+  private final int port;
+  private final long requestTimeoutMs;
+  private final AtomicInteger requestIds = new AtomicInteger();
+  private final Map<Integer, PendingRequest> pending = new ConcurrentHashMap<>();
+  private final List<Handler<AsyncResult<NetSocket>>> waiting = new ArrayList<>();
+  private NetClient netClient;
+  private NetSocket socket;
+  private boolean connecting;
+  private boolean closed;
+
+  public TcpCacheStore(Vertx vertx, String host, int port, long requestTimeoutMs) {
+    this.vertx = vertx;
+    this.host = host;
+    this.port = port;
+    this.requestTimeoutMs = requestTimeoutMs;
+  }
+
+  @Override
+  public void get(String key, Handler<AsyncResult<Buffer>> handler) {
+    int id = requestIds.incrementAndGet();
+    send(id, TcpCacheProtocol.request(GET, id, key), handler);
+  }
+
+  @Override
+  public void put(String key, Buffer value, long ttlMs, Handler<AsyncResult<Void>> handler) {
+    int id = requestIds.incrementAndGet();
+    send(id, TcpCacheProtocol.putRequest(id, key, ttlMs, value),
+        ar -> handler.handle(ar.mapEmpty()));
+  }
+
+  @Override
+  public void invalidate(String key, Handler<AsyncResult<Void>> handler) {
+    int id = requestIds.incrementAndGet();
+    send(id, TcpCacheProtocol.request(INVALIDATE, id, key), ar -> handler.handle(ar.mapEmpty()));
+  }
+
+  @Override
+  public void close() {
+    NetClient client;
+    synchronized (this) {
+      closed = true;
+      client = netClient;
+      netClient = null;
+      socket = null;
+    }
+    if (client != null) {
+      client.close();
+    }
+    failPending(new IllegalStateException("Cache store closed"));
+  }
+
+  private void send(int id, Buffer frame, Handler<AsyncResult<Buffer>> handler) {
+    withConnection(ar -> {
+      if (ar.failed()) {
+        handler.handle(Future.failedFuture(ar.cause()));
+        return;
+      }
+      PendingRequest request = new PendingRequest(handler);
+      pending.put(id, request);
+      if (requestTimeoutMs > 0) {
+        request.timerId = vertx.setTimer(requestTimeoutMs, timerId -> complete(id,
+            Future.failedFuture(new TimeoutException(
+                "Cache server did not respond in " + requestTimeoutMs + "ms"))));
+        if (!pending.containsKey(id)) {
+          // completed before the timer was set
+          vertx.cancelTimer(request.timerId);
+        }
+      }
+      ar.result().write(frame);
+    });
+  }
+
+  private void withConnection(Handler<AsyncResult<NetSocket>> handler) {
+    NetSocket current;
+    NetClient client = null;
+    synchronized (this) {
+      if (closed) {
+        current = null;
+      } else {
+        current = socket;
+        if (current == null) {
+          waiting.add(handler);
+          if (connecting) {
+            return;
+          }
+          connecting = true;
+          client = vertx.createNetClient(CLIENT_OPTIONS);
+          netClient = client;
+        }
+      }
+    }
+    if (client != null) {
+      NetClient connectingClient = client;
+      client.connect(port, host, ar -> onConnected(connectingClient, ar));
+    } else if (current == null) {
+      handler.handle(Future.failedFuture(new IllegalStateException("Cache store closed")));
+    } else {
+      handler.handle(Future.succeededFuture(current));
+    }
+  }
+
+  private void onConnected(NetClient client, AsyncResult<NetSocket> result) {
+    List<Handler<AsyncResult<NetSocket>>> toNotify;
+    boolean clientClosed = false;
+    synchronized (this) {
+      connecting = false;
+      if (result.succeeded() && !closed) {
+        NetSocket connected = result.result();
+        connected.handler(TcpCacheProtocol.frameParser(this::handleResponse));
+        connected.closeHandler(v -> onConnectionClosed(client, connected));
+        connected.exceptionHandler(e -> LOGGER.warn("Cache server connection error", e));
+        socket = connected;
+      } else {
+        if (result.failed()) {
+          LOGGER.warn("Could not connect to cache server {}:{}", host, port, result.cause());
+        }
+        clientClosed = true;
+        if (netClient == client) {
+          netClient = null;
+        }
+      }
+      toNotify = new ArrayList<>(waiting);
+      waiting.clear();
+    }
+    if (clientClosed) {
+      client.close();
+    }
+    AsyncResult<NetSocket> notified = result.succeeded() && clientClosed
+        ? Future.failedFuture(new IllegalStateException("Cache store closed")) : result;
+    toNotify.forEach(handler -> handler.handle(notified));
+  }
+
+  private void onConnectionClosed(NetClient client, NetSocket closedSocket) {
+    boolean current;
+    synchronized (this) {
+      current = netClient == client;
+      if (socket == closedSocket) {
+        socket = null;
+      }
+      if (current) {
+        netClient = null;
+      }
+    }
+    if (current) {
+      client.close();
+    }
+    failPending(new IllegalStateException("Cache server connection closed"));
+  }
+
+  private void handleResponse(Buffer frame) {
+    int id = frame.getInt(0);
+    byte status = frame.getByte(Integer.BYTES);
+    Buffer payload = frame.slice(TcpCacheProtocol.RESPONSE_HEADER_SIZE, frame.length());
+    if (status == OK) {
+      complete(id, Future.succeededFuture(payload));
+    } else if (status == MISS) {
+      complete(id, Future.succeededFuture());
+    } else if (status == ERROR) {
+      complete(id, Future.failedFuture(payload.toString()));
+    }
+  }
+
+  private void complete(int id, AsyncResult<Buffer> result) {
+    PendingRequest request = pending.remove(id);
+    if (request != null) {
+      if (request.timerId >= 0) {
+        vertx.cancelTimer(request.timerId);
+      }
+      request.handler.handle(result);
+    }
+  }
+
+  private void failPending(Throwable cause) {
+    pending.keySet().forEach(id -> complete(id, Future.failedFuture(cause)));
+  }
+
+  private static final class PendingRequest {
+
+    private final Handler<AsyncResult<Buffer>> handler;
+    private volatile long timerId = -1;
+
+    private PendingRequest(Handler<AsyncResult<Buffer>> handler) {
+      this.handler = handler;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates {@link TcpCacheStore}. Supported configuration entries:
+ * <ul>
+ * <li>{@code host} - cache server host, {@code localhost} by default</li>
+ * <li>{@code port} - cache server port</li>
+ * <li>{@code requestTimeoutMs} - request timeout in milliseconds, {@code 1000} by default</li>
+ * </ul>
+ */
+public class TcpCacheStoreFactory implements CacheStoreFactory {
+
+  private static final String DEFAULT_HOST = "localhost";
+  private static final long DEFAULT_REQUEST_TIMEOUT = 1000L;
+
+  @Override
+  public String getName() {
+    return "tcp";
+  }
+
+  @Override
+  public CacheStore create(JsonObject config, Vertx vertx) {
+    Integer port = config.getInteger("port");
+    if (port == null) {
+      throw new IllegalArgumentException("Cache server port is not configured");
+    }
+    return new TcpCacheStore(vertx, config.getString("host", DEFAULT_HOST), port,
+        config.getLong("requestTimeoutMs", DEFAULT_REQUEST_TIMEOUT));
+  }
+}
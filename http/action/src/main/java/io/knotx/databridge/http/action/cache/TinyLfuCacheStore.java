@@ -0,0 +1,432 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded store bounded by the total size of stored values in bytes, with the W-TinyLFU admission
+ * policy. New entries enter a small admission window. Entries leaving the window are admitted to
+ * the main region only when a {@link FrequencySketch} estimates they are accessed more often than
+ * the entries they would evict, so a scan of one-hit wonders (e.g. crawler traffic) does not flush
+ * popular entries. The main region evicts with the CLOCK (second chance) policy.
+ *
+ * <p>Reads of heap values are lock-free: a hit only marks the entry as referenced and records the
+ * access in the sketch. Keys are spread over {@code stripes} segments, each with its own lock,
+ * share of {@code maxWeightBytes} and eviction queues, so writes of different keys from many event
+ * loops rarely contend. Handlers are called on the calling thread.
+ *
+ * <p>With {@link OffHeapStorage} the values are kept in direct memory and only small index
+ * entries stay on the heap, so large caches do not inflate the old generation. A hit is a retained
+ * slice of the direct memory, taken under the segment lock, and is not copied; the memory of a
+ * removed value is reused only after all its hits are passed to {@link #release(Buffer)}.
+ */
+public class TinyLfuCacheStore implements CacheStore {
+
+  private static final int PERCENT = 100;
+
+  private final Map<String, Node> data = new ConcurrentHashMap<>();
+  // buffers compare by content, slices are looked up by the identity of the returned hit
+  private final Map<Buffer, ByteBuf> slices = Collections
+      .synchronizedMap(new IdentityHashMap<>());
+  private final FrequencySketch sketch;
+  private final OffHeapStorage offHeap;
+  private final Segment[] segments;
+  private final long maxWeight;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder admissionRejections = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public TinyLfuCacheStore(long maxWeightBytes, int windowPercent, long expectedEntries) {
+    this(maxWeightBytes, windowPercent, expectedEntries, 1, null);
+  }
+
+  public TinyLfuCacheStore(long maxWeightBytes, int windowPercent, long expectedEntries,
+      int stripes) {
+    this(maxWeightBytes, windowPercent, expectedEntries, stripes, null);
+  }
+
+  TinyLfuCacheStore(long maxWeightBytes, int windowPercent, long expectedEntries, int stripes,
+      OffHeapStorage offHeap) {
+    this.maxWeight = maxWeightBytes;
+    this.sketch = new FrequencySketch(expectedEntries);
+    this.offHeap = offHeap;
+    int segmentCount = Integer.highestOneBit(Math.max(1, stripes));
+    long segmentWeight = maxWeightBytes / segmentCount;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentWeight, windowPercent);
+    }
+  }
+
+  @Override
+  public void get(String key, Handler<AsyncResult<Buffer>> handler) {
+    sketch.increment(key);
+    Node node = data.get(key);
+    if (node != null && node.isExpired(System.currentTimeMillis())) {
+      segmentFor(key).remove(node);
+      node = null;
+    }
+    Buffer value = node == null ? null : read(key, node);
+    if (value == null) {
+      misses.increment();
+      handler.handle(Future.succeededFuture());
+    } else {
+      node.referenced = true;
+      hits.increment();
+      handler.handle(Future.succeededFuture(value));
+    }
+  }
+
+  private Buffer read(String key, Node node) {
+    if (node.direct == null) {
+      return node.value;
+    }
+    ByteBuf slice = segmentFor(key).read(node);
+    if (slice == null) {
+      return null;
+    }
+    Buffer value = Buffer.buffer(slice);
+    slices.put(value, slice);
+    return value;
+  }
+
+  @Override
+  public void put(String key, Buffer value, long ttlMs, Handler<AsyncResult<Void>> handler) {
+    sketch.increment(key);
+    segmentFor(key).put(key, value, System.currentTimeMillis() + ttlMs);
+    handler.handle(Future.succeededFuture());
+  }
+
+  @Override
+  public void invalidate(String key, Handler<AsyncResult<Void>> handler) {
+    segmentFor(key).invalidate(key);
+    handler.handle(Future.succeededFuture());
+  }
+
+  @Override
+  public void release(Buffer value) {
+    ByteBuf slice = slices.remove(value);
+    if (slice != null) {
+      slice.release();
+    }
+  }
+
+  @Override
+  public void close() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public JsonObject getMetrics() {
+    long hitCount = hits.sum();
+    long requestCount = hitCount + misses.sum();
+    long weight = 0;
+    for (Segment segment : segments) {
+      weight += segment.weight();
+    }
+    JsonObject metrics = offHeap == null ? new JsonObject() : offHeap.getMetrics();
+    return metrics
+        .put("entries", data.size())
+        .put("weightBytes", weight)
+        .put("maxWeightBytes", maxWeight)
+        .put("stripes", segments.length)
+        .put("hits", hitCount)
+        .put("misses", requestCount - hitCount)
+        .put("hitRatio", requestCount == 0 ? 0.0 : (double) hitCount / requestCount)
+        .put("admissionRejections", admissionRejections.sum())
+        .put("evictions", evictions.sum());
+  }
+
+  private Segment segmentFor(String key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return segments[hash & (segments.length - 1)];
+  }
+
+  private Node createNode(String key, Buffer value, long expiresAt) {
+    if (offHeap == null) {
+      return new Node(key, value, null, expiresAt);
+    }
+    ByteBuf direct = offHeap.allocate(value);
+    return new Node(key, null, direct, expiresAt);
+  }
+
+  private void free(Node node) {
+    if (node.direct != null) {
+      offHeap.release(node.direct);
+    }
+  }
+
+  /**
+   * Admission window and main region of the keys mapped to the segment. All fields are guarded by
+   * the segment lock.
+   */
+  private final class Segment {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Node> window = new ArrayDeque<>();
+    private final Deque<Node> main = new ArrayDeque<>();
+    private final long maxWindowWeight;
+    private final long maxMainWeight;
+
+    private long windowWeight;
+    private long mainWeight;
+    private int entries;
+    private int detachedNodes;
+
+    private Segment(long maxWeight, int windowPercent) {
+      this.maxWindowWeight = Math.max(1L, maxWeight * windowPercent / PERCENT);
+      this.maxMainWeight = Math.max(0L, maxWeight - maxWindowWeight);
+    }
+
+    private void put(String key, Buffer value, long expiresAt) {
+      Node node = value.length() > maxMainWeight ? null : createNode(key, value, expiresAt);
+      lock.lock();
+      try {
+        Node previous = data.remove(key);
+        if (previous != null) {
+          detach(previous);
+        }
+        if (node == null) {
+          admissionRejections.increment();
+        } else {
+          data.put(key, node);
+          entries++;
+          window.addLast(node);
+          windowWeight += node.weight;
+          evictFromWindow();
+        }
+        compactIfNeeded();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * @return retained slice of the direct value, or {@code null} when the node was removed
+     * meanwhile
+     */
+    private ByteBuf read(Node node) {
+      lock.lock();
+      try {
+        return node.detached || data.get(node.key) != node ? null
+            : OffHeapStorage.read(node.direct);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void invalidate(String key) {
+      lock.lock();
+      try {
+        Node node = data.remove(key);
+        if (node != null) {
+          detach(node);
+          compactIfNeeded();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void remove(Node node) {
+      lock.lock();
+      try {
+        if (data.remove(node.key, node)) {
+          detach(node);
+          compactIfNeeded();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private long weight() {
+      lock.lock();
+      try {
+        return windowWeight + mainWeight;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void clear() {
+      lock.lock();
+      try {
+        clear(window);
+        clear(main);
+        windowWeight = 0;
+        mainWeight = 0;
+        entries = 0;
+        detachedNodes = 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void clear(Deque<Node> queue) {
+      for (Node node : queue) {
+        if (!node.detached && data.remove(node.key, node)) {
+          free(node);
+        }
+      }
+      queue.clear();
+    }
+
+    private void evictFromWindow() {
+      while (windowWeight > maxWindowWeight) {
+        Node candidate = window.pollFirst();
+        if (candidate == null) {
+          return;
+        }
+        if (candidate.detached) {
+          detachedNodes--;
+          continue;
+        }
+        windowWeight -= candidate.weight;
+        admit(candidate);
+      }
+    }
+
+    /**
+     * Moves the candidate to the main region when it fits, otherwise evicts the main region
+     * victims only when the candidate is estimated to be accessed more often than each of them.
+     * Victims are selected by CLOCK: referenced entries get a second chance, expired entries are
+     * removed without comparing.
+     */
+    private void admit(Node candidate) {
+      List<Node> victims = new ArrayList<>();
+      long freed = 0;
+      int maxFrequency = 0;
+      int scanned = 0;
+      int scanLimit = 2 * main.size();
+      long now = System.currentTimeMillis();
+      while (mainWeight - freed + candidate.weight > maxMainWeight && scanned++ <= scanLimit) {
+        Node victim = main.pollFirst();
+        if (victim == null) {
+          break;
+        }
+        if (victim.detached) {
+          detachedNodes--;
+        } else if (victim.isExpired(now)) {
+          removeFromMain(victim);
+        } else if (victim.referenced) {
+          victim.referenced = false;
+          main.addLast(victim);
+        } else {
+          victims.add(victim);
+          freed += victim.weight;
+          maxFrequency = Math.max(maxFrequency, sketch.frequency(victim.key));
+        }
+      }
+      boolean fits = mainWeight - freed + candidate.weight <= maxMainWeight;
+      if (fits && (victims.isEmpty() || sketch.frequency(candidate.key) > maxFrequency)) {
+        for (Node victim : victims) {
+          removeFromMain(victim);
+          evictions.increment();
+        }
+        candidate.inMain = true;
+        main.addLast(candidate);
+        mainWeight += candidate.weight;
+      } else {
+        for (int i = victims.size() - 1; i >= 0; i--) {
+          main.addFirst(victims.get(i));
+        }
+        data.remove(candidate.key, candidate);
+        entries--;
+        free(candidate);
+        admissionRejections.increment();
+      }
+    }
+
+    private void removeFromMain(Node node) {
+      data.remove(node.key, node);
+      entries--;
+      mainWeight -= node.weight;
+      free(node);
+    }
+
+    private void detach(Node node) {
+      free(node);
+      node.detached = true;
+      entries--;
+      detachedNodes++;
+      if (node.inMain) {
+        mainWeight -= node.weight;
+      } else {
+        windowWeight -= node.weight;
+      }
+    }
+
+    /**
+     * Detached nodes are skipped when they reach the head of their queue. When they outnumber the
+     * live entries (e.g. the same keys are overwritten without any eviction), they are removed
+     * from the queues at once.
+     */
+    private void compactIfNeeded() {
+      if (detachedNodes > entries) {
+        window.removeIf(node -> node.detached);
+        main.removeIf(node -> node.detached);
+        detachedNodes = 0;
+      }
+    }
+  }
+
+  private static final class Node {
+
+    private final String key;
+    private final Buffer value;
+    private final ByteBuf direct;
+    private final long expiresAt;
+    private final long weight;
+    private volatile boolean referenced;
+    // guarded by the segment lock
+    private boolean inMain;
+    private boolean detached;
+
+    private Node(String key, Buffer value, ByteBuf direct, long expiresAt) {
+      this.key = key;
+      this.value = value;
+      this.direct = direct;
+      this.expiresAt = expiresAt;
+      this.weight = direct == null ? value.length() : direct.readableBytes();
+    }
+
+    private boolean isExpired(long now) {
+      return expiresAt <= now;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates {@link TinyLfuCacheStore}. Supported configuration entries:
+ * <ul>
+ * <li>{@code maxWeightBytes} - maximum total size of cached values in bytes, {@code 67108864}
+ * (64 MB) by default</li>
+ * <li>{@code windowPercent} - percent of {@code maxWeightBytes} used by the admission window,
+ * {@code 1} by default</li>
+ * <li>{@code expectedEntries} - expected number of cached entries, used to size the frequency
+ * sketch, {@code 10000} by default</li>
+ * <li>{@code stripes} - number of independently locked segments, each with an equal share of
+ * {@code maxWeightBytes}, rounded down to a power of two, {@code 16} by default</li>
+ * <li>{@code offHeap} - keeps cached values in direct memory instead of the heap, {@code false}
+ * by default</li>
+ * </ul>
+ */
+public class TinyLfuCacheStoreFactory implements CacheStoreFactory {
+
+  private static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+  private static final int DEFAULT_WINDOW_PERCENT = 1;
+  private static final long DEFAULT_EXPECTED_ENTRIES = 10000L;
+  private static final int DEFAULT_STRIPES = 16;
+
+  @Override
+  public String getName() {
+    return "tiny-lfu";
+  }
+
+  @Override
+  public CacheStore create(JsonObject config, Vertx vertx) {
+    OffHeapStorage offHeap = config.getBoolean("offHeap", false) ? new OffHeapStorage() : null;
+    return new TinyLfuCacheStore(config.getLong("maxWeightBytes", DEFAULT_MAX_WEIGHT),
+        config.getInteger("windowPercent", DEFAULT_WINDOW_PERCENT),
+        config.getLong("expectedEntries", DEFAULT_EXPECTED_ENTRIES),
+        config.getInteger("stripes", DEFAULT_STRIPES), offHeap);
+  }
+}
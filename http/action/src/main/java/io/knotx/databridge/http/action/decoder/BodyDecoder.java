@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.decoder;
+
+import io.vertx.core.buffer.Buffer;
+import java.util.List;
+
+/**
+ * Decodes response bodies of a binary content type into the same payload structure as JSON bodies:
+ * {@link io.vertx.core.json.JsonObject} or {@link io.vertx.core.json.JsonArray}. Decoders are
+ * registered with the Java {@link java.util.ServiceLoader} mechanism and selected by the response
+ * {@code Content-Type}. Implementations must be thread-safe.
+ */
+public interface BodyDecoder {
+
+  /**
+   * @return lowercase media types, without parameters, handled by the decoder
+   */
+  List<String> getMediaTypes();
+
+  /**
+   * Decodes the body.
+   *
+   * @param body - response body
+   * @return {@link io.vertx.core.json.JsonObject} or {@link io.vertx.core.json.JsonArray}
+   * @throws io.vertx.core.json.DecodeException when the body is not valid
+   */
+  Object decode(Buffer body);
+}
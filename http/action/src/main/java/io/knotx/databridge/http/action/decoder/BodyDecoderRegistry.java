@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.decoder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Body decoders registered with the {@link ServiceLoader}, keyed by media type.
+ */
+public final class BodyDecoderRegistry {
+
+  private final Map<String, BodyDecoder> decoders;
+
+  private BodyDecoderRegistry(Map<String, BodyDecoder> decoders) {
+    this.decoders = Collections.unmodifiableMap(decoders);
+  }
+
+  /**
+   * @return registry with all decoders found by the {@link ServiceLoader}
+   */
+  public static BodyDecoderRegistry load() {
+    return of(ServiceLoader.load(BodyDecoder.class));
+  }
+
+  /**
+   * @param decoders - decoders, the first one handling a media type wins
+   * @return registry with the given decoders
+   */
+  public static BodyDecoderRegistry of(BodyDecoder... decoders) {
+    return of(Arrays.asList(decoders));
+  }
+
+  private static BodyDecoderRegistry of(Iterable<BodyDecoder> decoders) {
+    Map<String, BodyDecoder> byMediaType = new HashMap<>();
+    for (BodyDecoder decoder : decoders) {
+      decoder.getMediaTypes().forEach(mediaType -> byMediaType.putIfAbsent(mediaType, decoder));
+    }
+    return new BodyDecoderRegistry(byMediaType);
+  }
+
+  /**
+   * @param contentType - {@code Content-Type} header value, may be {@code null}
+   * @return decoder handling the media type or {@code null} when there is none
+   */
+  public BodyDecoder find(String contentType) {
+    if (contentType == null || decoders.isEmpty()) {
+      return null;
+    }
+    return decoders.get(toMediaType(contentType));
+  }
+
+  private static String toMediaType(String contentType) {
+    int parametersStart = contentType.indexOf(';');
+    String mediaType = parametersStart < 0 ? contentType
+        : contentType.substring(0, parametersStart);
+    return mediaType.trim().toLowerCase(Locale.ROOT);
+  }
+}
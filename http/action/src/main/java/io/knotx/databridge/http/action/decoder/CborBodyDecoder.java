@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.decoder;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decodes <a href="https://tools.ietf.org/html/rfc7049">CBOR</a> bodies.
+ */
+public class CborBodyDecoder extends JacksonBodyDecoder {
+
+  private static final List<String> MEDIA_TYPES = Collections.singletonList("application/cbor");
+
+  public CborBodyDecoder() {
+    super(new CBORFactory());
+  }
+
+  @Override
+  public List<String> getMediaTypes() {
+    return MEDIA_TYPES;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.decoder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes bodies with a Jackson data format. Objects and arrays are read into maps and lists, which
+ * are wrapped, not copied, into {@link JsonObject} and {@link JsonArray}.
+ */
+abstract class JacksonBodyDecoder implements BodyDecoder {
+
+  private final ObjectMapper mapper;
+
+  JacksonBodyDecoder(JsonFactory factory) {
+    this.mapper = new ObjectMapper(factory);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Object decode(Buffer body) {
+    Object value;
+    try {
+      value = mapper.readValue(body.getBytes(), Object.class);
+    } catch (IOException e) {
+      throw new DecodeException("Failed to decode " + getMediaTypes().get(0) + " body: "
+          + e.getMessage());
+    }
+    if (value instanceof Map) {
+      return new JsonObject((Map<String, Object>) value);
+    } else if (value instanceof List) {
+      return new JsonArray((List) value);
+    } else if (value == null) {
+      return new JsonObject();
+    }
+    throw new DecodeException(
+        "Failed to decode " + getMediaTypes().get(0) + " body: expected object or array");
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.decoder;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes <a href="http://ndjson.org">newline delimited JSON</a> bodies into a {@link JsonArray}
+ * of records. Blank lines are skipped. It is not registered with the
+ * {@link java.util.ServiceLoader}: NDJSON bodies are decoded only when streaming is enabled,
+ * otherwise they stay text.
+ */
+public class NdjsonBodyDecoder implements BodyDecoder {
+
+  private static final List<String> MEDIA_TYPES = Arrays
+      .asList("application/x-ndjson", "application/ndjson", "application/jsonl");
+  private static final byte NEW_LINE = '\n';
+
+  @Override
+  public List<String> getMediaTypes() {
+    return MEDIA_TYPES;
+  }
+
+  @Override
+  public Object decode(Buffer body) {
+    JsonArray records = new JsonArray();
+    int lineStart = 0;
+    for (int i = 0; i < body.length(); i++) {
+      if (body.getByte(i) == NEW_LINE) {
+        addRecord(records, body, lineStart, i);
+        lineStart = i + 1;
+      }
+    }
+    addRecord(records, body, lineStart, body.length());
+    return records;
+  }
+
+  /**
+   * Decodes a single line of the body.
+   *
+   * @param line - line without the new line character
+   * @return {@link JsonObject} or {@link JsonArray}, or {@code null} when the line is blank
+   * @throws DecodeException when the line is not valid
+   */
+  public static Object decodeRecord(Buffer line) {
+    int start = 0;
+    int end = line.length();
+    while (start < end && Character.isWhitespace(line.getByte(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(line.getByte(end - 1))) {
+      end--;
+    }
+    if (start == end) {
+      return null;
+    }
+    Buffer record = start == 0 && end == line.length() ? line : line.slice(start, end);
+    return record.getByte(0) == '[' ? new JsonArray(record) : new JsonObject(record);
+  }
+
+  private static void addRecord(JsonArray records, Buffer body, int start, int end) {
+    Object record = decodeRecord(body.slice(start, end));
+    if (record != null) {
+      records.add(record);
+    }
+  }
+}
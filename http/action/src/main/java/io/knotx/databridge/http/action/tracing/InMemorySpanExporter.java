@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps ended spans in memory, so tests can assert on them. One exporter is shared by all tracers
+ * of a Vert.x instance. The oldest spans are dropped when {@code maxSpans} is exceeded.
+ */
+public class InMemorySpanExporter implements SpanExporter, Shareable {
+
+  private static final String EXPORTERS_MAP = "knotx.http.action.tracing.exporters";
+  private static final String EXPORTER_KEY = "in-memory";
+  private static final int MAX_SPANS = 10000;
+
+  private final ConcurrentLinkedQueue<SpanData> spans = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * @param vertx - Vert.x instance
+   * @return the exporter shared by the Vert.x instance
+   */
+  public static InMemorySpanExporter getOrCreate(Vertx vertx) {
+    LocalMap<String, InMemorySpanExporter> exporters = vertx.sharedData()
+        .getLocalMap(EXPORTERS_MAP);
+    InMemorySpanExporter exporter = exporters.get(EXPORTER_KEY);
+    if (exporter == null) {
+      InMemorySpanExporter created = new InMemorySpanExporter();
+      exporter = exporters.putIfAbsent(EXPORTER_KEY, created);
+      if (exporter == null) {
+        exporter = created;
+      }
+    }
+    return exporter;
+  }
+
+  @Override
+  public void export(SpanData span) {
+    spans.add(span);
+    if (size.incrementAndGet() > MAX_SPANS && spans.poll() != null) {
+      size.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return ended spans in the order they were exported
+   */
+  public List<SpanData> getSpans() {
+    return new ArrayList<>(spans);
+  }
+
+  /**
+   * Removes all exported spans.
+   */
+  public void reset() {
+    while (spans.poll() != null) {
+      size.decrementAndGet();
+    }
+  }
+}
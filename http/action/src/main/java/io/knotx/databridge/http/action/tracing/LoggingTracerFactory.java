@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates {@link SamplingTracer} writing spans to the application log with {@link
+ * LoggingSpanExporter}.
+ */
+public class LoggingTracerFactory implements TracerFactory {
+
+  @Override
+  public String getName() {
+    return "logging";
+  }
+
+  @Override
+  public Tracer create(JsonObject config, Sampler sampler, Vertx vertx) {
+    return new SamplingTracer(sampler, new LoggingSpanExporter());
+  }
+}
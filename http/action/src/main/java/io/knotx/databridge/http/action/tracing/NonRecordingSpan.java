@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+/**
+ * Span of the request that was not sampled.
+ */
+final class NonRecordingSpan implements Span {
+
+  private final TraceContext context;
+
+  NonRecordingSpan(TraceContext context) {
+    this.context = context;
+  }
+
+  @Override
+  public TraceContext getContext() {
+    return context;
+  }
+
+  @Override
+  public boolean isRecording() {
+    return false;
+  }
+
+  @Override
+  public Span setAttribute(String key, Object value) {
+    return this;
+  }
+
+  @Override
+  public Span setError(Throwable error) {
+    return this;
+  }
+
+  @Override
+  public void end() {
+    //nothing to export
+  }
+}
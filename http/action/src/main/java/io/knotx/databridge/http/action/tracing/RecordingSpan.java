@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sampled span passed to the {@link SpanExporter} when it ends.
+ */
+final class RecordingSpan implements Span {
+
+  private final String name;
+  private final TraceContext context;
+  private final String parentSpanId;
+  private final SpanExporter exporter;
+  private final long startEpochMicros;
+  private final long startNanos;
+  private final Map<String, Object> attributes = new LinkedHashMap<>();
+  private final AtomicBoolean ended = new AtomicBoolean();
+  private volatile Throwable error;
+
+  RecordingSpan(String name, TraceContext context, TraceContext parent, SpanExporter exporter) {
+    this.name = name;
+    this.context = context;
+    this.parentSpanId = parent == null ? null : parent.getSpanId();
+    this.exporter = exporter;
+    this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    this.startNanos = System.nanoTime();
+  }
+
+  @Override
+  public TraceContext getContext() {
+    return context;
+  }
+
+  @Override
+  public boolean isRecording() {
+    return true;
+  }
+
+  @Override
+  public synchronized Span setAttribute(String key, Object value) {
+    if (value != null) {
+      attributes.put(key, value);
+    }
+    return this;
+  }
+
+  @Override
+  public Span setError(Throwable error) {
+    this.error = error;
+    return this;
+  }
+
+  @Override
+  public void end() {
+    if (ended.compareAndSet(false, true)) {
+      long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+      Map<String, Object> spanAttributes;
+      synchronized (this) {
+        spanAttributes = new LinkedHashMap<>(attributes);
+      }
+      Throwable failure = error;
+      exporter.export(new SpanData(name, context.getTraceId(), context.getSpanId(), parentSpanId,
+          startEpochMicros, durationMicros, spanAttributes,
+          failure == null ? null : String.valueOf(failure.getMessage())));
+    }
+  }
+}
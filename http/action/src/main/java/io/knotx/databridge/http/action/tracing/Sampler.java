@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+/**
+ * Head-based sampler. The sampling decision is taken once, when the trace starts, and is
+ * inherited by child spans. Root traces are sampled with the configured ratio, deterministically
+ * derived from the trace id, so every service using the same ratio takes the same decision.
+ */
+public final class Sampler {
+
+  private final long bound;
+
+  private Sampler(long bound) {
+    this.bound = bound;
+  }
+
+  /**
+   * @param ratio - fraction of root traces to sample, between {@code 0} and {@code 1}
+   * @return sampler
+   */
+  public static Sampler ratio(double ratio) {
+    if (ratio >= 1.0) {
+      return new Sampler(Long.MAX_VALUE);
+    } else if (ratio <= 0.0) {
+      return new Sampler(0L);
+    }
+    return new Sampler((long) (ratio * Long.MAX_VALUE));
+  }
+
+  boolean isSampled(TraceContext parent, long traceIdLow) {
+    if (parent != null) {
+      return parent.isSampled();
+    }
+    return bound == Long.MAX_VALUE || (traceIdLow & Long.MAX_VALUE) < bound;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+/**
+ * {@link Tracer} taking the sampling decision with a {@link Sampler} and passing sampled spans to a
+ * {@link SpanExporter}. Spans that are not sampled only generate their ids.
+ */
+public class SamplingTracer implements Tracer {
+
+  private final Sampler sampler;
+  private final SpanExporter exporter;
+
+  public SamplingTracer(Sampler sampler, SpanExporter exporter) {
+    this.sampler = sampler;
+    this.exporter = exporter;
+  }
+
+  @Override
+  public Span startSpan(String name, TraceContext parent) {
+    long traceIdHigh;
+    long traceIdLow;
+    String traceState = null;
+    if (parent != null) {
+      traceIdHigh = parent.getTraceIdHigh();
+      traceIdLow = parent.getTraceIdLow();
+      traceState = parent.getTraceState();
+    } else {
+      traceIdHigh = TraceContext.randomNonZeroId();
+      traceIdLow = TraceContext.randomNonZeroId();
+    }
+    boolean sampled = sampler.isSampled(parent, traceIdLow);
+    TraceContext context = new TraceContext(traceIdHigh, traceIdLow,
+        TraceContext.randomNonZeroId(), sampled, traceState);
+    return sampled ? new RecordingSpan(name, context, parent, exporter)
+        : new NonRecordingSpan(context);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+/**
+ * Operation measured by a {@link Tracer}. Spans of requests that were not sampled are not
+ * recording: they only carry the trace context that is propagated to the endpoint and ignore
+ * attributes.
+ */
+public interface Span {
+
+  /**
+   * @return the span trace context
+   */
+  TraceContext getContext();
+
+  /**
+   * @return {@code true} when the span is sampled and will be exported
+   */
+  boolean isRecording();
+
+  /**
+   * Sets the span attribute.
+   *
+   * @param key - attribute key
+   * @param value - attribute value
+   * @return a reference to this, so the API can be used fluently
+   */
+  Span setAttribute(String key, Object value);
+
+  /**
+   * Marks the span as failed.
+   *
+   * @param error - failure cause
+   * @return a reference to this, so the API can be used fluently
+   */
+  Span setError(Throwable error);
+
+  /**
+   * Ends the span. Subsequent calls have no effect.
+   */
+  void end();
+}
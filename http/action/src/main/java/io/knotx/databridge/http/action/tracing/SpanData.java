@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of an ended client span.
+ */
+public final class SpanData {
+
+  private static final String CLIENT_KIND = "CLIENT";
+
+  private final String name;
+  private final String traceId;
+  private final String spanId;
+  private final String parentSpanId;
+  private final long startEpochMicros;
+  private final long durationMicros;
+  private final Map<String, Object> attributes;
+  private final String errorMessage;
+
+  SpanData(String name, String traceId, String spanId, String parentSpanId,
+      long startEpochMicros, long durationMicros, Map<String, Object> attributes,
+      String errorMessage) {
+    this.name = name;
+    this.traceId = traceId;
+    this.spanId = spanId;
+    this.parentSpanId = parentSpanId;
+    this.startEpochMicros = startEpochMicros;
+    this.durationMicros = durationMicros;
+    this.attributes = Collections.unmodifiableMap(attributes);
+    this.errorMessage = errorMessage;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getKind() {
+    return CLIENT_KIND;
+  }
+
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public String getSpanId() {
+    return spanId;
+  }
+
+  /**
+   * @return the parent span id or {@code null} for a root span
+   */
+  public String getParentSpanId() {
+    return parentSpanId;
+  }
+
+  public long getStartEpochMicros() {
+    return startEpochMicros;
+  }
+
+  public long getDurationMicros() {
+    return durationMicros;
+  }
+
+  public Map<String, Object> getAttributes() {
+    return attributes;
+  }
+
+  public boolean isError() {
+    return errorMessage != null;
+  }
+
+  /**
+   * @return the failure message or {@code null} when the span did not fail
+   */
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject()
+        .put("name", name)
+        .put("kind", CLIENT_KIND)
+        .put("traceId", traceId)
+        .put("spanId", spanId)
+        .put("startEpochMicros", startEpochMicros)
+        .put("durationMicros", durationMicros)
+        .put("attributes", new JsonObject(attributes))
+        .put("status", errorMessage == null ? "OK" : "ERROR");
+    if (parentSpanId != null) {
+      json.put("parentSpanId", parentSpanId);
+    }
+    if (errorMessage != null) {
+      json.put("errorMessage", errorMessage);
+    }
+    return json;
+  }
+
+  @Override
+  public String toString() {
+    return toJson().encode();
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C Trace Context (<a href="https://www.w3.org/TR/trace-context/">traceparent</a>) of a span.
+ */
+public final class TraceContext {
+
+  public static final String TRACEPARENT = "traceparent";
+  public static final String TRACESTATE = "tracestate";
+
+  private static final String VERSION = "00";
+  private static final String INVALID_VERSION = "ff";
+  private static final int TRACEPARENT_LENGTH = 55;
+  private static final int TRACE_ID_OFFSET = 3;
+  private static final int SPAN_ID_OFFSET = 36;
+  private static final int FLAGS_OFFSET = 53;
+  private static final int SAMPLED_FLAG = 0x01;
+  private static final int HEX = 16;
+
+  private final long traceIdHigh;
+  private final long traceIdLow;
+  private final long spanId;
+  private final boolean sampled;
+  private final String traceState;
+
+  TraceContext(long traceIdHigh, long traceIdLow, long spanId, boolean sampled,
+      String traceState) {
+    this.traceIdHigh = traceIdHigh;
+    this.traceIdLow = traceIdLow;
+    this.spanId = spanId;
+    this.sampled = sampled;
+    this.traceState = traceState;
+  }
+
+  /**
+   * Parses the W3C trace context headers.
+   *
+   * @param traceparent - {@code traceparent} header value
+   * @param tracestate - {@code tracestate} header value, may be {@code null}
+   * @return trace context or {@code null} when {@code traceparent} is missing or invalid
+   */
+  public static TraceContext fromHeaders(String traceparent, String tracestate) {
+    if (traceparent == null) {
+      return null;
+    }
+    String value = traceparent.trim();
+    if (!isValidTraceparent(value)) {
+      return null;
+    }
+    try {
+      long traceIdHigh = parseHex(value, TRACE_ID_OFFSET);
+      long traceIdLow = parseHex(value, TRACE_ID_OFFSET + HEX);
+      long spanId = parseHex(value, SPAN_ID_OFFSET);
+      int flags = Integer.parseInt(value.substring(FLAGS_OFFSET, FLAGS_OFFSET + 2), HEX);
+      if ((traceIdHigh == 0L && traceIdLow == 0L) || spanId == 0L) {
+        return null;
+      }
+      return new TraceContext(traceIdHigh, traceIdLow, spanId, (flags & SAMPLED_FLAG) != 0,
+          tracestate);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static boolean isValidTraceparent(String value) {
+    if (value.length() < TRACEPARENT_LENGTH
+        || value.charAt(TRACE_ID_OFFSET - 1) != '-'
+        || value.charAt(SPAN_ID_OFFSET - 1) != '-'
+        || value.charAt(FLAGS_OFFSET - 1) != '-') {
+      return false;
+    }
+    String version = value.substring(0, 2);
+    if (INVALID_VERSION.equals(version)) {
+      return false;
+    }
+    return !VERSION.equals(version) || value.length() == TRACEPARENT_LENGTH;
+  }
+
+  private static long parseHex(String value, int offset) {
+    return Long.parseUnsignedLong(value.substring(offset, offset + HEX), HEX);
+  }
+
+  static long randomNonZeroId() {
+    long id;
+    do {
+      id = ThreadLocalRandom.current().nextLong();
+    } while (id == 0L);
+    return id;
+  }
+
+  /**
+   * @return 32 lowercase hex characters trace id
+   */
+  public String getTraceId() {
+    return toHex(traceIdHigh) + toHex(traceIdLow);
+  }
+
+  /**
+   * @return 16 lowercase hex characters span id
+   */
+  public String getSpanId() {
+    return toHex(spanId);
+  }
+
+  public boolean isSampled() {
+    return sampled;
+  }
+
+  public String getTraceState() {
+    return traceState;
+  }
+
+  long getTraceIdHigh() {
+    return traceIdHigh;
+  }
+
+  long getTraceIdLow() {
+    return traceIdLow;
+  }
+
+  /**
+   * @return {@code traceparent} header value
+   */
+  public String toTraceparent() {
+    return VERSION + "-" + getTraceId() + "-" + getSpanId() + (sampled ? "-01" : "-00");
+  }
+
+  private static String toHex(long value) {
+    String hex = Long.toHexString(value);
+    StringBuilder builder = new StringBuilder(HEX);
+    for (int i = hex.length(); i < HEX; i++) {
+      builder.append('0');
+    }
+    return builder.append(hex).toString();
+  }
+
+  @Override
+  public String toString() {
+    return toTraceparent();
+  }
+}
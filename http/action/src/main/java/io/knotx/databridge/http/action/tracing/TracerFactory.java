@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates {@link Tracer} instances. Factories are registered with the Java {@link
+ * java.util.ServiceLoader} mechanism and selected by their name in the action tracing
+ * configuration.
+ */
+public interface TracerFactory {
+
+  /**
+   * @return the name of the tracer referenced in the tracing configuration
+   */
+  String getName();
+
+  /**
+   * Creates the tracer.
+   *
+   * @param config - tracer configuration
+   * @param sampler - head-based sampler configured for the action
+   * @param vertx - Vert.x instance
+   * @return new tracer instance
+   */
+  Tracer create(JsonObject config, Sampler sampler, Vertx vertx);
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.ServiceLoader;
+
+/**
+ * Looks up {@link TracerFactory} implementations registered with the {@link ServiceLoader}.
+ */
+public final class TracerProvider {
+
+  private TracerProvider() {
+    //util class
+  }
+
+  /**
+   * Creates the tracer with the factory registered under the name.
+   *
+   * @param name - tracer factory name
+   * @param config - tracer configuration
+   * @param sampler - head-based sampler
+   * @param vertx - Vert.x instance
+   * @return new tracer instance
+   * @throws IllegalArgumentException when there is no factory with the name
+   */
+  public static Tracer create(String name, JsonObject config, Sampler sampler, Vertx vertx) {
+    for (TracerFactory factory : ServiceLoader.load(TracerFactory.class)) {
+      if (factory.getName().equals(name)) {
+        return factory.create(config, sampler, vertx);
+      }
+    }
+    throw new IllegalArgumentException("Tracer factory [" + name + "] is not registered");
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveTimeoutTest {
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+  @Test
+  @DisplayName("Expect request timeout used until enough latencies observed")
+  void expectFallbackUntilMinSamples() {
+    AdaptiveTimeout tested = new AdaptiveTimeout(options(), 3000L, clock::get);
+
+    record(tested, 99, 10);
+
+    assertEquals(3000L, tested.getTimeoutMs());
+  }
+
+  @Test
+  @DisplayName("Expect max timeout used until enough latencies observed without request timeout")
+  void expectMaxTimeoutWithoutRequestTimeout() {
+    AdaptiveTimeout tested = new AdaptiveTimeout(options(), 0L, clock::get);
+
+    assertEquals(5000L, tested.getTimeoutMs());
+  }
+
+  @Test
+  @DisplayName("Expect timeout as a multiple of the latency percentile")
+  void expectMultipleOfPercentile() {
+    AdaptiveTimeout tested = new AdaptiveTimeout(options(), 0L, clock::get);
+
+    record(tested, 980, 100);
+    record(tested, 20, 400);
+
+    long timeoutMs = tested.getTimeoutMs();
+    assertTrue(timeoutMs >= 800L && timeoutMs <= 830L, "timeout " + timeoutMs);
+    assertEquals(1000L, tested.getMetrics().getLong("samples").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect timeout clamped between min and max timeout")
+  void expectTimeoutClamped() {
+    AdaptiveTimeout fast = new AdaptiveTimeout(options(), 0L, clock::get);
+    AdaptiveTimeout slow = new AdaptiveTimeout(options(), 0L, clock::get);
+
+    record(fast, 1000, 1);
+    record(slow, 1000, 4000);
+
+    assertEquals(50L, fast.getTimeoutMs());
+    assertEquals(5000L, slow.getTimeoutMs());
+  }
+
+  @Test
+  @DisplayName("Expect latencies older than the window forgotten")
+  void expectOldLatenciesForgotten() {
+    AdaptiveTimeout tested = new AdaptiveTimeout(options(), 0L, clock::get);
+    record(tested, 1000, 1000);
+    assertEquals(2048L, tested.getTimeoutMs(), 64L);
+
+    clock.addAndGet(61000L);
+    record(tested, 1000, 100);
+
+    long timeoutMs = tested.getTimeoutMs();
+    assertTrue(timeoutMs >= 200L && timeoutMs <= 210L, "timeout " + timeoutMs);
+  }
+
+  @Test
+  @DisplayName("Expect buckets covering the recorded values")
+  void expectBucketsCoverValues() {
+    for (long micros = 0; micros < 10_000_000L; micros += 997L) {
+      int bucket = AdaptiveTimeout.bucket(micros);
+      assertTrue(micros < AdaptiveTimeout.upperBoundMicros(bucket));
+      assertTrue(bucket == 0 || micros >= AdaptiveTimeout.upperBoundMicros(bucket - 1));
+    }
+  }
+
+  private static void record(AdaptiveTimeout tested, int count, long latencyMs) {
+    for (int i = 0; i < count; i++) {
+      tested.record(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+    }
+  }
+
+  private static AdaptiveTimeoutOptions options() {
+    return new AdaptiveTimeoutOptions()
+        .setEnabled(true)
+        .setPercentile(99.0)
+        .setMultiplier(2.0)
+        .setMinTimeoutMs(50L)
+        .setMaxTimeoutMs(5000L)
+        .setWindowMs(60000L)
+        .setMinSamples(100);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class BodyParsingExecutorTest {
+
+  @Test
+  @DisplayName("Expect task result when pool has free capacity")
+  void expectResultWhenCapacityAvailable(Vertx vertx) {
+    BodyParsingExecutor tested = BodyParsingExecutor.getOrCreate(vertx, options("free"));
+
+    assertEquals("parsed", tested.execute(() -> "parsed", ParsingRejectionPolicy.FAIL)
+        .blockingGet());
+    assertEquals(1L, tested.getMetrics().getLong("completed").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect RejectedExecutionException when queue is full and FAIL policy")
+  void expectRejectionWhenQueueFull(Vertx vertx) throws InterruptedException {
+    BodyParsingExecutor tested = BodyParsingExecutor.getOrCreate(vertx, options("fail"));
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    tested.execute(() -> {
+      started.countDown();
+      return release.await(10, TimeUnit.SECONDS);
+    }, ParsingRejectionPolicy.FAIL).subscribe();
+    started.await(10, TimeUnit.SECONDS);
+
+    assertThrows(RejectedExecutionException.class,
+        () -> tested.execute(() -> "rejected", ParsingRejectionPolicy.FAIL).blockingGet());
+    release.countDown();
+    JsonObject metrics = tested.getMetrics();
+    assertEquals(1L, metrics.getLong("rejected").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect task run by caller when queue is full and CALLER_RUNS policy")
+  void expectCallerRunsWhenQueueFull(Vertx vertx) throws InterruptedException {
+    BodyParsingExecutor tested = BodyParsingExecutor.getOrCreate(vertx, options("caller"));
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    tested.execute(() -> {
+      started.countDown();
+      return release.await(10, TimeUnit.SECONDS);
+    }, ParsingRejectionPolicy.FAIL).subscribe();
+    started.await(10, TimeUnit.SECONDS);
+
+    String callerThread = Thread.currentThread().getName();
+    assertEquals(callerThread, tested.execute(() -> Thread.currentThread().getName(),
+        ParsingRejectionPolicy.CALLER_RUNS).blockingGet());
+    release.countDown();
+    assertEquals(1L, tested.getMetrics().getLong("callerRuns").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect tasks executed when the verticle that created the pool is undeployed")
+  void expectResultWhenCreatingVerticleUndeployed(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    List<BodyParsingExecutor> executors = new CopyOnWriteArrayList<>();
+    Supplier<AbstractVerticle> verticle = () -> new AbstractVerticle() {
+      @Override
+      public void start() {
+        executors.add(BodyParsingExecutor.getOrCreate(vertx, options("undeploy")));
+      }
+    };
+
+    vertx.deployVerticle(verticle.get(), testContext.succeeding(first ->
+        vertx.deployVerticle(verticle.get(), testContext.succeeding(second ->
+            vertx.undeploy(first, testContext.succeeding(undeployed -> executors.get(1)
+                .execute(() -> "parsed", ParsingRejectionPolicy.FAIL)
+                .subscribe((result, error) -> testContext.verify(() -> {
+                  assertSame(executors.get(0), executors.get(1));
+                  assertEquals("parsed", result);
+                  testContext.completeNow();
+                }))))))));
+
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  private BodyParsingOptions options(String poolName) {
+    return new BodyParsingOptions()
+        .setOffloadThresholdBytes(1)
+        .setWorkerPoolName(poolName)
+        .setWorkerPoolSize(1)
+        .setWorkerQueueSize(0);
+  }
+}
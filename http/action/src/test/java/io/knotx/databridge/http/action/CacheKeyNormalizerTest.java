@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.vertx.reactivex.core.MultiMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CacheKeyNormalizerTest {
+
+  private static final String PREFIX = "localhost:3000";
+
+  @Test
+  @DisplayName("Expect resolved path as the key by default")
+  void expectPathKeyByDefault() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions());
+
+    assertEquals("localhost:3000/product?b=2&a=1", tested.key(request("/product?b=2&a=1")));
+  }
+
+  @Test
+  @DisplayName("Expect all sent headers in the key by default")
+  void expectSentHeadersInKeyByDefault() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions());
+
+    String alice = tested.key(request("/product", "Cookie", "session=alice"));
+    String bob = tested.key(request("/product", "cookie", "session=bob"));
+
+    assertEquals("localhost:3000/product\ncookie:session=alice", alice);
+    assertNotEquals(alice, bob);
+  }
+
+  @Test
+  @DisplayName("Expect trace context and deadline headers not in the key by default")
+  void expectPerRequestHeadersNotInKeyByDefault() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions(),
+        Collections.singleton("X-Request-Deadline"));
+
+    assertEquals("localhost:3000/product\ncookie:session=alice",
+        tested.key(request("/product", "Cookie", "session=alice",
+            "traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+            "tracestate", "vendor=value",
+            "x-request-deadline", "1500")));
+  }
+
+  @Test
+  @DisplayName("Expect no headers in the key when an empty header list is configured")
+  void expectNoHeadersInKeyWhenEmptyListConfigured() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions()
+        .setHeaders(Collections.emptySet()));
+
+    assertEquals("localhost:3000/product",
+        tested.key(request("/product", "Cookie", "session=alice")));
+  }
+
+  @Test
+  @DisplayName("Expect same key when query parameters differ in order, empty and tracking parameters")
+  void expectSameKeyWhenQueryNormalized() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions()
+        .setSortQueryParams(true)
+        .setDropEmptyQueryParams(true)
+        .setIgnoredQueryParams(new HashSet<>(Arrays.asList("utm_*", "fbclid"))));
+
+    assertEquals("localhost:3000/product?a=1&b=2", tested.key(request("/product?b=2&a=1")));
+    assertEquals("localhost:3000/product?a=1&b=2",
+        tested.key(request("/product?utm_source=mail&b=2&empty=&flag&a=1&fbclid=x")));
+    assertEquals("localhost:3000/product", tested.key(request("/product?utm_medium=cpc")));
+  }
+
+  @Test
+  @DisplayName("Expect only configured path segments lowercased")
+  void expectConfiguredSegmentsLowercased() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions()
+        .setLowercasePathSegments(Collections.singleton(1)));
+
+    assertEquals("localhost:3000/Product/sku-1/Details?Q=A",
+        tested.key(request("/Product/SKU-1/Details?Q=A")));
+  }
+
+  @Test
+  @DisplayName("Expect configured header values in the key and other headers ignored")
+  void expectConfiguredHeadersInKey() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions()
+        .setHeaders(Collections.singleton("Accept-Language")));
+
+    String english = tested.key(request("/product", "accept-language", "en", "X-Other", "1"));
+    String englishOther = tested.key(request("/product", "Accept-Language", "en", "X-Other", "2"));
+    String german = tested.key(request("/product", "Accept-Language", "de", "X-Other", "1"));
+
+    assertEquals(english, englishOther);
+    assertNotEquals(english, german);
+  }
+
+  @Test
+  @DisplayName("Expect fixed-size hashed keys")
+  void expectFixedSizeHashedKeys() {
+    CacheKeyNormalizer tested = new CacheKeyNormalizer(PREFIX, new CacheKeyOptions()
+        .setHashed(true));
+
+    String shortKey = tested.key(request("/a"));
+    String longKey = tested.key(request("/product?" + String.join("&",
+        Collections.nCopies(100, "param=value"))));
+
+    assertEquals(22, shortKey.length());
+    assertEquals(22, longKey.length());
+    assertNotEquals(shortKey, longKey);
+    assertEquals(shortKey, tested.key(request("/a")));
+  }
+
+  private static EndpointRequest request(String path, String... headers) {
+    MultiMap multiMap = MultiMap.caseInsensitiveMultiMap();
+    for (int i = 0; i < headers.length; i += 2) {
+      multiMap.add(headers[i], headers[i + 1]);
+    }
+    return new EndpointRequest(path, multiMap);
+  }
+
+}
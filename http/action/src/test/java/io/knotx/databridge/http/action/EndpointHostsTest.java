@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static io.knotx.databridge.http.action.PhaseTimings.NO_RESPONSE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.databridge.http.action.EndpointHosts.Host;
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EndpointHostsTest {
+
+  private static final List<String> HOSTS = Arrays.asList("first:8080", "second:8080");
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+  @Test
+  @DisplayName("Expect host ejected after consecutive failures and all requests sent to the other host")
+  void expectHostEjectedAfterConsecutiveFailures() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), clock::get);
+    Host first = tested.getHosts().get(0);
+
+    tested.record(first, 503, null, FAST);
+    tested.record(first, NO_RESPONSE, new TimeoutException(), FAST);
+    tested.record(first, NO_RESPONSE, new ConnectException(), FAST);
+
+    for (int i = 0; i < 100; i++) {
+      assertNotSame(first, tested.select());
+    }
+    assertEquals(1, tested.getMetrics().getJsonArray("hosts").getJsonObject(0)
+        .getInteger("ejections").intValue());
+  }
+
+  @Test
+  @DisplayName("Expect failures counter reset by a successful response")
+  void expectFailuresResetBySuccess() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), clock::get);
+    Host first = tested.getHosts().get(0);
+
+    tested.record(first, 500, null, FAST);
+    tested.record(first, 500, null, FAST);
+    tested.record(first, 200, null, FAST);
+    tested.record(first, 500, null, FAST);
+
+    assertEquals(1.0, tested.weight(first, clock.get()));
+  }
+
+  @Test
+  @DisplayName("Expect predicate errors of received responses not counted as failures")
+  void expectPredicateErrorsNotCounted() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), clock::get);
+    Host first = tested.getHosts().get(0);
+
+    for (int i = 0; i < 5; i++) {
+      tested.record(first, 404, new IllegalStateException("predicate"), FAST);
+    }
+
+    assertEquals(1.0, tested.weight(first, clock.get()));
+  }
+
+  @Test
+  @DisplayName("Expect growing ejection time and slow start after return")
+  void expectGrowingEjectionAndSlowStart() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), clock::get);
+    Host first = tested.getHosts().get(0);
+
+    failInRow(tested, first);
+    clock.addAndGet(1000L);
+    assertEquals(1.0 / 10, tested.weight(first, clock.get()), 0.001);
+    clock.addAndGet(5000L);
+    assertEquals(0.5, tested.weight(first, clock.get()), 0.001);
+
+    failInRow(tested, first);
+    clock.addAndGet(1999L);
+    assertEquals(0.0, tested.weight(first, clock.get()));
+    clock.addAndGet(1L + 10000L);
+    assertEquals(1.0, tested.weight(first, clock.get()));
+  }
+
+  @Test
+  @DisplayName("Expect no more hosts ejected than max ejection percent")
+  void expectEjectionsLimitedByPercent() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), clock::get);
+
+    failInRow(tested, tested.getHosts().get(0));
+    failInRow(tested, tested.getHosts().get(1));
+
+    assertEquals(1.0, tested.weight(tested.getHosts().get(1), clock.get()));
+    assertEquals(1L, tested.getMetrics().getLong("skippedEjections").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect host with latency above the median multiple ejected")
+  void expectSlowHostEjected() {
+    EndpointHosts tested = new EndpointHosts(
+        Arrays.asList("first:8080", "second:8080", "third:8080"), options(), clock::get);
+    Host slow = tested.getHosts().get(2);
+    for (int i = 0; i < 10; i++) {
+      tested.record(tested.getHosts().get(0), 200, null, FAST);
+      tested.record(tested.getHosts().get(1), 200, null, FAST);
+      tested.record(slow, 200, null, SLOW);
+    }
+
+    tested.checkLatency();
+
+    assertEquals(0.0, tested.weight(slow, clock.get()));
+    assertEquals(1.0, tested.weight(tested.getHosts().get(0), clock.get()));
+  }
+
+  @Test
+  @DisplayName("Expect the only host selected even when ejected")
+  void expectOnlyHostSelectedWhenEjected() {
+    EndpointHosts tested = new EndpointHosts(Collections.singletonList("only:8080"),
+        options().setMaxEjectionPercent(100), clock::get);
+    Host only = tested.getHosts().get(0);
+
+    failInRow(tested, only);
+
+    assertSame(only, tested.select());
+  }
+
+  @Test
+  @DisplayName("Expect host drained after failed health checks and back after passed ones")
+  void expectUnhealthyHostDrainedUntilHealthy() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), new HealthCheckOptions()
+        .setEnabled(true).setUnhealthyThreshold(2).setHealthyThreshold(2), clock::get);
+    Host first = tested.getHosts().get(0);
+    tested.recordHealthCheck(first, true);
+
+    tested.recordHealthCheck(first, false);
+    assertEquals(1.0, tested.weight(first, clock.get()));
+    tested.recordHealthCheck(first, false);
+    assertEquals(0.0, tested.weight(first, clock.get()));
+    for (int i = 0; i < 100; i++) {
+      assertNotSame(first, tested.select());
+    }
+    tested.recordHealthCheck(first, true);
+    assertEquals(0.0, tested.weight(first, clock.get()));
+    tested.recordHealthCheck(first, true);
+    assertEquals(1.0, tested.weight(first, clock.get()));
+    assertEquals(2L, tested.getMetrics().getJsonArray("hosts").getJsonObject(0)
+        .getLong("failedHealthChecks").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect no healthy host when all hosts failed health checks")
+  void expectNoHealthyHostWhenAllFailed() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), new HealthCheckOptions()
+        .setEnabled(true).setUnhealthyThreshold(1), clock::get);
+    tested.recordHealthCheck(tested.getHosts().get(1), true);
+
+    tested.recordHealthCheck(tested.getHosts().get(0), false);
+    assertTrue(tested.hasHealthyHost());
+    tested.recordHealthCheck(tested.getHosts().get(1), false);
+
+    assertFalse(tested.hasHealthyHost());
+  }
+
+  @Test
+  @DisplayName("Expect hosts without traffic until the first health check and drained by a failed one")
+  void expectHostsUnknownUntilFirstHealthCheck() {
+    EndpointHosts tested = new EndpointHosts(HOSTS, options(), new HealthCheckOptions()
+        .setEnabled(true), clock::get);
+    Host first = tested.getHosts().get(0);
+    Host second = tested.getHosts().get(1);
+
+    assertFalse(tested.hasHealthyHost());
+    tested.recordHealthCheck(first, false);
+    tested.recordHealthCheck(second, true);
+
+    assertEquals(0.0, tested.weight(first, clock.get()));
+    assertEquals(1.0, tested.weight(second, clock.get()));
+    assertTrue(tested.hasHealthyHost());
+  }
+
+  @Test
+  @DisplayName("Expect IllegalArgumentException when host has no port")
+  void expectExceptionWhenHostWithoutPort() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new EndpointHosts(Collections.singletonList("localhost"), options(), clock::get));
+  }
+
+  private void failInRow(EndpointHosts tested, Host host) {
+    for (int i = 0; i < 3; i++) {
+      tested.record(host, 500, null, FAST);
+    }
+    assertTrue(tested.weight(host, clock.get()) <= 0.0
+        || tested.getMetrics().getLong("skippedEjections") > 0);
+  }
+
+  private static OutlierDetectionOptions options() {
+    return new OutlierDetectionOptions()
+        .setEnabled(true)
+        .setConsecutiveFailures(3)
+        .setMinRequests(5)
+        .setBaseEjectionTimeMs(1000L)
+        .setMaxEjectionTimeMs(60000L)
+        .setSlowStartMs(10000L);
+  }
+}
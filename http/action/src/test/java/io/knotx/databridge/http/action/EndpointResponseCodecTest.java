@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.core.buffer.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EndpointResponseCodecTest {
+
+  @Test
+  @DisplayName("Expect the same response after encoding and decoding")
+  void expectSameResponseAfterRoundTrip() {
+    EndpointResponse response = new EndpointResponse(HttpResponseStatus.OK, "OK",
+        HttpVersion.HTTP_1_1,
+        MultiMap.caseInsensitiveMultiMap().add("Set-Cookie", "a=1").add("Set-Cookie", "b=2")
+            .add("Content-Type", "application/json"),
+        MultiMap.caseInsensitiveMultiMap().add("trailer", "value"),
+        Buffer.buffer("{\"title\":\"za\u017c\u00f3\u0142\u0107\"}"));
+
+    EndpointResponse decoded = EndpointResponseCodec
+        .decode(EndpointResponseCodec.encode(response));
+
+    assertEquals(HttpResponseStatus.OK, decoded.getStatusCode());
+    assertEquals("OK", decoded.getStatusMessage());
+    assertEquals(HttpVersion.HTTP_1_1, decoded.getHttpVersion());
+    assertEquals(response.getHeaders().getAll("Set-Cookie"),
+        decoded.getHeaders().getAll("Set-Cookie"));
+    assertEquals("application/json", decoded.getHeaders().get("content-type"));
+    assertEquals("value", decoded.getTrailers().get("trailer"));
+    assertEquals(response.getBody().toString(), decoded.getBody().toString());
+  }
+
+  @Test
+  @DisplayName("Expect null fields preserved after encoding and decoding")
+  void expectNullFieldsPreserved() {
+    EndpointResponse response = new EndpointResponse(HttpResponseStatus.NOT_FOUND, null, null,
+        MultiMap.caseInsensitiveMultiMap(), MultiMap.caseInsensitiveMultiMap(), Buffer.buffer());
+
+    EndpointResponse decoded = EndpointResponseCodec
+        .decode(EndpointResponseCodec.encode(response));
+
+    assertEquals(HttpResponseStatus.NOT_FOUND, decoded.getStatusCode());
+    assertNull(decoded.getStatusMessage());
+    assertNull(decoded.getHttpVersion());
+    assertEquals(0, decoded.getBody().length());
+  }
+}
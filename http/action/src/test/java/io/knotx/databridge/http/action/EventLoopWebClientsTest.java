@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class EventLoopWebClientsTest {
+
+  @Test
+  @DisplayName("Expect the same client for the same event loop context and another one for another context")
+  void expectClientBoundToEventLoopContext(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    EventLoopWebClients tested = new EventLoopWebClients(vertx, new WebClientOptions(), true);
+    Context first = vertx.getOrCreateContext();
+    Context second = vertx.getOrCreateContext();
+
+    first.runOnContext(v -> {
+      WebClient firstClient = tested.get();
+      second.runOnContext(w -> testContext.verify(() -> {
+        WebClient secondClient = tested.get();
+        assertNotSame(firstClient, secondClient);
+        assertSame(secondClient, tested.get());
+        assertNotSame(tested.get(), getOutsideOfContext(tested));
+        first.runOnContext(x -> testContext.verify(() -> {
+          assertSame(firstClient, tested.get());
+          testContext.completeNow();
+        }));
+      }));
+    });
+
+    assertTrue(testContext.awaitCompletion(10, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect the shared client when event loop affinity is disabled")
+  void expectSharedClientWithoutAffinity(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    EventLoopWebClients tested = new EventLoopWebClients(vertx, new WebClientOptions(), false);
+    WebClient shared = tested.get();
+
+    vertx.getOrCreateContext().runOnContext(v -> testContext.verify(() -> {
+      assertSame(shared, tested.get());
+      testContext.completeNow();
+    }));
+
+    assertTrue(testContext.awaitCompletion(10, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  private static WebClient getOutsideOfContext(EventLoopWebClients tested)
+      throws InterruptedException {
+    WebClient[] client = new WebClient[1];
+    Thread thread = new Thread(() -> client[0] = tested.get());
+    thread.start();
+    thread.join();
+    return client[0];
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.knotx.fragments.handler.api.domain.FragmentResult.ERROR_TRANSITION;
+import static io.knotx.fragments.handler.api.domain.FragmentResult.SUCCESS_TRANSITION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.handler.api.actionlog.ActionLogLevel;
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.knotx.fragments.handler.api.domain.payload.ActionPayload;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.MultiMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class FanOutHttpActionTest {
+
+  private static final String ACTION_ALIAS = "fanOut";
+  private static final String PRODUCT_PATH = "/product";
+  private static final String PRICE_PATH = "/price";
+  private static final String PRODUCT_BODY = "{\"id\": 1}";
+  private static final String PRICE_BODY = "{\"amount\": 10}";
+
+  private WireMockServer wireMockServer;
+
+  @BeforeEach
+  void setUp() {
+    this.wireMockServer = new WireMockServer(options().dynamicPort());
+    this.wireMockServer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.wireMockServer.stop();
+  }
+
+  @Test
+  @DisplayName("Expect payloads of all endpoints merged under their keys")
+  void expectPayloadsMerged(VertxTestContext testContext, Vertx vertx) throws Throwable {
+    // given
+    stub(PRODUCT_PATH, 200, PRODUCT_BODY);
+    stub(PRICE_PATH, 200, PRICE_BODY);
+    FanOutHttpAction tested = action(vertx, true);
+
+    // when, then
+    verifyExecution(tested, fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      JsonObject payload = fragmentResult.getFragment().getPayload()
+          .getJsonObject(ACTION_ALIAS);
+      assertEquals(new JsonObject(PRODUCT_BODY),
+          payload.getJsonObject("product").getJsonObject("_result"));
+      assertEquals(new JsonObject(PRICE_BODY),
+          payload.getJsonObject("price").getJsonObject("_result"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect _success transition and partial payload when optional endpoint fails")
+  void expectSuccessWhenOptionalEndpointFails(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    stub(PRODUCT_PATH, 200, PRODUCT_BODY);
+    stub(PRICE_PATH, 500, "");
+    FanOutHttpAction tested = action(vertx, false);
+
+    // when, then
+    verifyExecution(tested, fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      JsonObject payload = fragmentResult.getFragment().getPayload()
+          .getJsonObject(ACTION_ALIAS);
+      assertEquals(new JsonObject(PRODUCT_BODY),
+          payload.getJsonObject("product").getJsonObject("_result"));
+      assertFalse(new ActionPayload(payload.getJsonObject("price")).getResponse().isSuccess());
+      assertNotNull(fragmentResult.getNodeLog().getJsonObject("logs").getJsonObject("price"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect _error transition when required endpoint fails")
+  void expectErrorWhenRequiredEndpointFails(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    stub(PRODUCT_PATH, 200, PRODUCT_BODY);
+    stub(PRICE_PATH, 500, "");
+    FanOutHttpAction tested = action(vertx, true);
+
+    // when, then
+    verifyExecution(tested,
+        fragmentResult -> assertEquals(ERROR_TRANSITION, fragmentResult.getTransition()),
+        testContext);
+  }
+
+  @Test
+  @DisplayName("Expect IllegalArgumentException when no endpoints configured")
+  void expectExceptionWhenNoEndpoints(Vertx vertx) {
+    assertThrows(IllegalArgumentException.class,
+        () -> new FanOutHttpAction(vertx, new FanOutHttpActionOptions(), ACTION_ALIAS,
+            ActionLogLevel.INFO));
+  }
+
+  private void stub(String path, int status, String body) {
+    wireMockServer.stubFor(get(urlEqualTo(path))
+        .willReturn(aResponse()
+            .withStatus(status)
+            .withHeader("Content-Type", "application/json")
+            .withBody(body)));
+  }
+
+  private FanOutHttpAction action(Vertx vertx, boolean priceRequired) {
+    return new FanOutHttpAction(vertx, new FanOutHttpActionOptions()
+        .setEndpoints(Arrays.asList(
+            endpoint("product", PRODUCT_PATH, true),
+            endpoint("price", PRICE_PATH, priceRequired))),
+        ACTION_ALIAS, ActionLogLevel.INFO);
+  }
+
+  private FanOutEndpointOptions endpoint(String key, String path, boolean required) {
+    return new FanOutEndpointOptions()
+        .setKey(key)
+        .setRequired(required)
+        .setRequestTimeoutMs(10000)
+        .setEndpointOptions(new EndpointOptions()
+            .setPath(path)
+            .setDomain("localhost")
+            .setPort(wireMockServer.port())
+            .setAllowedRequestHeaders(Collections.emptySet()));
+  }
+
+  private void verifyExecution(FanOutHttpAction tested, Consumer<FragmentResult> assertions,
+      VertxTestContext testContext) throws Throwable {
+    ClientRequest clientRequest = new ClientRequest();
+    clientRequest.setPath(PRODUCT_PATH);
+    clientRequest.setHeaders(MultiMap.caseInsensitiveMultiMap());
+    clientRequest.setParams(MultiMap.caseInsensitiveMultiMap());
+    tested.apply(new FragmentContext(new Fragment("type", new JsonObject(), "body"),
+        clientRequest), testContext.succeeding(result -> {
+      testContext.verify(() -> assertions.accept(result));
+      testContext.completeNow();
+    }));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+}
@@ -47,6 +47,8 @@ import java.util.stream.Stream;
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -220,6 +222,48 @@ public class HttpActionNodeLogTest {
     }, testContext);
   }
 
+  @Test
+  @DisplayName("Expect phase timings in node log when endpoint responded")
+  void actionLogShouldContainPhaseTimings(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    String endpointPath = "/api/timings";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, JSON_BODY, APPLICATION_JSON,
+        null, false, ActionLogLevel.INFO);
+
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      JsonObject timings = fragmentResult.getNodeLog().getJsonObject("logs")
+          .getJsonObject("timings");
+      assertNotNull(timings);
+      assertTrue(timings.getDouble("requestPrepared") <= timings.getDouble("requestSent"));
+      assertTrue(timings.getDouble("requestSent") <= timings.getDouble("parsed"));
+      assertTrue(timings.getDouble("parsed") <= timings.getDouble("completed"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect phase timings in node log with error log level when service returns 500")
+  void actionLogShouldContainPhaseTimingsGiven500Response(VertxTestContext testContext,
+      Vertx vertx) throws Throwable {
+    String endpointPath = "/api/timings-500-response";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath,
+        HttpStatus.SC_INTERNAL_SERVER_ERROR,
+        null, StringUtil.EMPTY_STRING, null, false, ActionLogLevel.ERROR);
+
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      JsonObject timings = fragmentResult.getNodeLog().getJsonObject("logs")
+          .getJsonObject("timings");
+      assertNotNull(timings);
+      assertNotNull(timings.getDouble("completed"));
+      assertNull(timings.getDouble("parsed"));
+    }, testContext);
+  }
+
   private HttpAction setupTestingInstances(Vertx vertx, String endpointPath, String body,
       String contentType, String jsonPredicate, boolean forceJson, ActionLogLevel logLevel) {
     return setupTestingInstances(vertx, endpointPath, HttpStatus.SC_OK, body, contentType,
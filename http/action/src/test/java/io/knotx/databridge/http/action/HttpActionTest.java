@@ -16,7 +16,9 @@
 package io.knotx.databridge.http.action;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
@@ -28,7 +30,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.knotx.databridge.http.action.tracing.InMemorySpanExporter;
+import io.knotx.databridge.http.action.tracing.SpanData;
 import io.knotx.fragments.api.Fragment;
 import io.knotx.fragments.handler.api.actionlog.ActionLogLevel;
 import io.knotx.fragments.handler.api.domain.FragmentContext;
@@ -39,20 +45,25 @@ import io.knotx.fragments.handler.api.domain.payload.ActionResponse;
 import io.knotx.fragments.handler.api.domain.payload.ActionResponseError;
 import io.knotx.server.api.context.ClientRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Checkpoint;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import io.vertx.reactivex.core.MultiMap;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
@@ -346,176 +357,1120 @@ class HttpActionTest {
   }
 
   @Test
-  @DisplayName("Expect error transition when endpoint returned error status code")
-  void errorTransitionWhenErrorStatusCode(VertxTestContext testContext,
+  @DisplayName("Expect only allowed response headers in metadata when metadataHeaders configured")
+  void onlyAllowedResponseHeadersInMetadata(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    HttpAction tested = metadataAction(vertx, new ResponseOptions()
+        .setMetadataHeaders(Collections.singleton("ResponseHeader")));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      ActionPayload payload = new ActionPayload(
+          fragmentResult.getFragment()
+              .getPayload()
+              .getJsonObject(ACTION_ALIAS));
+      JsonObject headers = payload.getResponse().getMetadata().getJsonObject("headers");
+      assertEquals(new JsonObject().put("responseHeader", new JsonArray().add("response")),
+          headers);
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect no response headers in metadata when metadataHeaders is empty")
+  void noResponseHeadersInMetadataWhenEmptyAllowList(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    HttpAction tested = metadataAction(vertx, new ResponseOptions()
+        .setMetadataHeaders(Collections.emptySet()));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      ActionPayload payload = new ActionPayload(
+          fragmentResult.getFragment()
+              .getPayload()
+              .getJsonObject(ACTION_ALIAS));
+      JsonObject metadata = payload.getResponse().getMetadata();
+      assertEquals("200", metadata.getString("statusCode"));
+      assertFalse(metadata.containsKey("headers"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect no request headers in metadata when requestHeadersInMetadata is disabled")
+  void noRequestHeadersInMetadataWhenDisabled(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    HttpAction tested = metadataAction(vertx, new ResponseOptions()
+        .setRequestHeadersInMetadata(false));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap()
+            .add("requestHeader", "request"), HttpActionTest.VALID_REQUEST_PATH);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      ActionPayload payload = new ActionPayload(
+          fragmentResult.getFragment()
+              .getPayload()
+              .getJsonObject(ACTION_ALIAS));
+      JsonObject metadata = payload.getRequest().getMetadata();
+      assertTrue(metadata == null || !metadata.containsKey("headers"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect fragment payload appended with JSON body parsed on worker pool when body exceeds offload threshold")
+  void appendPayloadWhenBodyParsedOnWorkerPool(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse()
+            .withHeader("Content-Type", APPLICATION_JSON)
+            .withBody(JSON_BODY)));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setBodyParsingOptions(new BodyParsingOptions().setOffloadThresholdBytes(1)),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      JsonObject result = fragmentResult.getFragment().getPayload()
+          .getJsonObject(ACTION_ALIAS).getJsonObject("_result");
+      assertEquals("Product", result.getString("label"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect endpoint called once when response is served from cache")
+  void endpointCalledOnceWhenResponseCached(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse()
+            .withHeader("Content-Type", APPLICATION_JSON)
+            .withBody(VALID_JSON_RESPONSE_BODY)));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setCacheOptions(new CacheOptions().setEnabled(true)),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+    Checkpoint checkpoint = testContext.checkpoint(2);
+
+    // when
+    tested.apply(new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(first -> {
+          checkpoint.flag();
+          tested.apply(new FragmentContext(createFragment(), clientRequest),
+              testContext.succeeding(second -> testContext.verify(() -> {
+                // then
+                assertEquals(SUCCESS_TRANSITION, second.getTransition());
+                assertEquals(new JsonObject().put("data", "service response"),
+                    second.getFragment().getPayload().getJsonObject(ACTION_ALIAS)
+                        .getJsonObject("_result"));
+                wireMockServer.verify(1, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+                checkpoint.flag();
+              })));
+        }));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect endpoint called again when cached response invalidated by tag through event bus")
+  void endpointCalledAgainWhenCachedResponseInvalidatedByTag(VertxTestContext testContext,
       Vertx vertx) throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse()
+            .withHeader("Content-Type", APPLICATION_JSON)
+            .withHeader("Cache-Tag", "product-1, products")
+            .withBody(VALID_JSON_RESPONSE_BODY)));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setCacheOptions(new CacheOptions()
+                .setEnabled(true)
+                .setInvalidationAddress("knotx.cache.test")
+                .setTagHeader("Cache-Tag")),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+    Checkpoint checkpoint = testContext.checkpoint(3);
+
+    // when
+    tested.apply(new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(first -> {
+          checkpoint.flag();
+          vertx.eventBus().<JsonObject>request("knotx.cache.test",
+              new JsonObject().put("action", "invalidate").put("tag", "products"),
+              testContext.succeeding(reply -> {
+                assertEquals(1, reply.body().getInteger("invalidated").intValue());
+                checkpoint.flag();
+                tested.apply(new FragmentContext(createFragment(), clientRequest),
+                    testContext.succeeding(second -> testContext.verify(() -> {
+                      // then
+                      assertEquals(SUCCESS_TRANSITION, second.getTransition());
+                      wireMockServer.verify(2, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+                      checkpoint.flag();
+                    })));
+              }));
+        }));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect cache admin serving the remaining caches when the verticle that registered it is undeployed")
+  void cacheAdminServedAfterFirstUserUndeployed(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    HttpActionOptions options = new HttpActionOptions()
+        .setEndpointOptions(new EndpointOptions()
+            .setPath(VALID_REQUEST_PATH)
+            .setDomain("localhost")
+            .setPort(wireMockServer.port())
+            .setAllowedRequestHeaders(Collections.emptySet()))
+        .setCacheOptions(new CacheOptions()
+            .setEnabled(true)
+            .setInvalidationAddress("knotx.cache.undeploy.test"));
+    Supplier<AbstractVerticle> actionVerticle = () -> new AbstractVerticle() {
+      @Override
+      public void start() {
+        new HttpAction(vertx, options, ACTION_ALIAS, actionLogLevel);
+      }
+    };
+
+    // when
+    vertx.deployVerticle(actionVerticle.get(), testContext.succeeding(first ->
+        vertx.deployVerticle(actionVerticle.get(), testContext.succeeding(second ->
+            vertx.undeploy(first, testContext.succeeding(undeployed -> vertx.setTimer(100,
+                timerId -> vertx.eventBus().<JsonObject>request("knotx.cache.undeploy.test",
+                    new JsonObject().put("action", "stats"),
+                    testContext.succeeding(reply -> testContext.verify(() -> {
+                      // then
+                      assertEquals(1, reply.body().getJsonArray("caches").size());
+                      testContext.completeNow();
+                    }))))))))));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect error transition without calling endpoint when host failed health check")
+  void errorTransitionWhenHostUnhealthy(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo("/health"))
+        .willReturn(aResponse().withStatus(HttpResponseStatus.SERVICE_UNAVAILABLE.code())));
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setHealthCheckOptions(new HealthCheckOptions()
+                .setEnabled(true)
+                .setUnhealthyThreshold(1)),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+
+    // when
+    vertx.setTimer(1000, timerId -> tested.apply(
+        new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(result -> testContext.verify(() -> {
+          // then
+          assertEquals(ERROR_TRANSITION, result.getTransition());
+          wireMockServer.verify(0, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+          testContext.completeNow();
+        }))));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect request sent to the replica with the endpoint domain as the Host header")
+  void requestSentToReplicaWithDomainHost(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .withHeader("Host", equalTo("localhost:" + wireMockServer.port()))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(new EndpointOptions()
+                .setPath(VALID_REQUEST_PATH)
+                .setDomain("localhost")
+                .setPort(wireMockServer.port())
+                .setHosts(Collections.singletonList("127.0.0.1:" + wireMockServer.port()))
+                .setAllowedRequestHeaders(Collections.emptySet())),
+        ACTION_ALIAS, actionLogLevel);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(),
+        fragmentResult -> assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition()),
+        testContext);
+  }
+
+  @Test
+  @DisplayName("Expect endpoint not called until the first health check passes")
+  void endpointNotCalledUntilFirstHealthCheckPassed(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo("/health"))
+        .willReturn(aResponse().withFixedDelay(500)));
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(new EndpointOptions()
+                .setPath(VALID_REQUEST_PATH)
+                .setDomain("localhost")
+                .setPort(wireMockServer.port())
+                .setAllowedRequestHeaders(Collections.emptySet()))
+            .setHealthCheckOptions(new HealthCheckOptions()
+                .setEnabled(true)),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+
+    // when
+    tested.apply(new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(beforeCheck -> testContext.verify(() -> {
+          // then
+          assertEquals(ERROR_TRANSITION, beforeCheck.getTransition());
+          wireMockServer.verify(0, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+          vertx.setTimer(1500, timerId -> tested.apply(
+              new FragmentContext(createFragment(), clientRequest),
+              testContext.succeeding(afterCheck -> testContext.verify(() -> {
+                assertEquals(SUCCESS_TRANSITION, afterCheck.getTransition());
+                testContext.completeNow();
+              }))));
+        })));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect host drained by the first failed health check regardless of the threshold")
+  void errorTransitionWhenFirstHealthCheckFailed(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo("/health"))
+        .willReturn(aResponse().withStatus(HttpResponseStatus.SERVICE_UNAVAILABLE.code())));
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(new EndpointOptions()
+                .setPath(VALID_REQUEST_PATH)
+                .setDomain("localhost")
+                .setPort(wireMockServer.port())
+                .setAllowedRequestHeaders(Collections.emptySet()))
+            .setHealthCheckOptions(new HealthCheckOptions()
+                .setEnabled(true)
+                .setUnhealthyThreshold(3)),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+
+    // when
+    vertx.setTimer(500, timerId -> tested.apply(
+        new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(result -> testContext.verify(() -> {
+          // then
+          assertEquals(ERROR_TRANSITION, result.getTransition());
+          wireMockServer.verify(0, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+          testContext.completeNow();
+        }))));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect health checks continued when the verticle that started them is undeployed")
+  void healthChecksContinuedAfterFirstUserUndeployed(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo("/health")).willReturn(aResponse()));
+    HttpActionOptions options = new HttpActionOptions()
+        .setEndpointOptions(new EndpointOptions()
+            .setPath(VALID_REQUEST_PATH)
+            .setDomain("localhost")
+            .setPort(wireMockServer.port())
+            .setAllowedRequestHeaders(Collections.emptySet()))
+        .setHealthCheckOptions(new HealthCheckOptions()
+            .setEnabled(true)
+            .setIntervalMs(100));
+    Supplier<AbstractVerticle> actionVerticle = () -> new AbstractVerticle() {
+      @Override
+      public void start() {
+        new HttpAction(vertx, options, ACTION_ALIAS, actionLogLevel);
+      }
+    };
+
+    // when
+    vertx.deployVerticle(actionVerticle.get(), testContext.succeeding(first ->
+        vertx.deployVerticle(actionVerticle.get(), testContext.succeeding(second ->
+            vertx.undeploy(first, testContext.succeeding(undeployed -> {
+              wireMockServer.resetRequests();
+              vertx.setTimer(1000, timerId -> testContext.verify(() -> {
+                // then
+                assertTrue(wireMockServer.findAll(getRequestedFor(urlEqualTo("/health"))).size()
+                    > 1);
+                testContext.completeNow();
+              }));
+            }))))));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect Accept header sent and CBOR response decoded into JSON payload")
+  void appendPayloadWhenEndpointResponseWithCbor(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    JsonObject expected = new JsonObject().put("data", "service response");
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .withHeader("Accept", equalTo("application/cbor, application/json"))
+        .willReturn(aResponse()
+            .withHeader("Content-Type", "application/cbor")
+            .withBody(new ObjectMapper(new CBORFactory()).writeValueAsBytes(expected.getMap()))));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setResponseOptions(new ResponseOptions().setAcceptedContentTypes(
+                Arrays.asList("application/cbor", "application/json"))),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+
+    // when, then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      assertEquals(expected, fragmentResult.getFragment().getPayload()
+          .getJsonObject(ACTION_ALIAS).getJsonObject("_result"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect endpoint called once and the same error payload when error response cached")
+  void endpointCalledOnceWhenErrorResponseCached(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withStatus(HttpResponseStatus.NOT_FOUND.code())));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setCacheOptions(new CacheOptions()
+                .setEnabled(true)
+                .setNegativeStatusCodes(Collections.singleton(404))),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+    Checkpoint checkpoint = testContext.checkpoint(2);
+
+    // when
+    tested.apply(new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(first -> {
+          checkpoint.flag();
+          tested.apply(new FragmentContext(createFragment(), clientRequest),
+              testContext.succeeding(second -> testContext.verify(() -> {
+                // then
+                assertEquals(ERROR_TRANSITION, second.getTransition());
+                assertEquals(first.getFragment().getPayload(), second.getFragment().getPayload());
+                wireMockServer.verify(1, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+                checkpoint.flag();
+              })));
+        }));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect error transition without calling endpoint when rate limit is exceeded")
+  void errorTransitionWhenRateLimitExceeded(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setRateLimitOptions(new RateLimitOptions().setPermitsPerSecond(1).setBurst(1)),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+    Checkpoint checkpoint = testContext.checkpoint(2);
+
+    // when
+    tested.apply(new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(first -> {
+          checkpoint.flag();
+          tested.apply(new FragmentContext(createFragment(), clientRequest),
+              testContext.succeeding(second -> testContext.verify(() -> {
+                // then
+                assertEquals(SUCCESS_TRANSITION, first.getTransition());
+                assertEquals(ERROR_TRANSITION, second.getTransition());
+                ActionPayload payload = new ActionPayload(
+                    second.getFragment().getPayload().getJsonObject(ACTION_ALIAS));
+                assertEquals("429 Too Many Requests", payload.getResponse().getError().getCode());
+                wireMockServer.verify(1, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+                checkpoint.flag();
+              })));
+        }));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect error transition when endpoint returned error status code")
+  void errorTransitionWhenErrorStatusCode(VertxTestContext testContext,
+      Vertx vertx) throws Throwable {
+    // given, when
+    HttpAction tested = errorAction(vertx, 500, "Internal Error");
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap()
+            .add("requestHeader", "request"), HttpActionTest.VALID_REQUEST_PATH);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(),
+        fragmentResult -> assertEquals(ERROR_TRANSITION, fragmentResult.getTransition()),
+        testContext);
+  }
+
+  @ParameterizedTest(name = "Expect success transition and response as JSON")
+  @MethodSource("dataExpectSuccessTransitionAndJsonBody")
+  void testSuccessTransitionsExpectedAndResponseAsJson(String contentType, boolean forceJson,
+      String jsonPredicate, String responseBody, VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    String endpointPath = "/api/success-json";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
+        jsonPredicate, forceJson, actionLogLevel);
+
+    verifyExecution(tested, clientRequest, new Fragment("type", new JsonObject(), "expectedBody"),
+        fragmentResult -> {
+          assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+          JsonObject result = fragmentResult.getFragment().getPayload()
+              .getJsonObject("httpAction").getJsonObject("_result");
+          assertEquals(new JsonObject()
+              .put("id", 21762532)
+              .put("url", "http://knotx.io")
+              .put("label", "Product"), result);
+        }, testContext);
+  }
+
+  @ParameterizedTest(name = "Expect success transition and response as raw text")
+  @MethodSource("dataExpectSuccessTransitionAndTextBody")
+  void testSuccessTransitionExpectedAndResponseAsRawText(String contentType, boolean forceJson,
+      String jsonPredicate, String responseBody, VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    String endpointPath = "/api/success-text";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
+        jsonPredicate, forceJson, actionLogLevel);
+
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      String result = (String) fragmentResult.getFragment().getPayload().getJsonObject("httpAction")
+          .getMap().get("_result");
+      assertEquals(JSON_BODY, result);
+    }, testContext);
+  }
+
+  @ParameterizedTest(name = "Expect _error transition and empty payload")
+  @MethodSource("dataExpectErrorTransitionAndNullBody")
+  void testErrorTransitionAndEmptyPayload(String contentType, boolean forceJson,
+      String jsonPredicate, String responseBody, VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    String endpointPath = "/api/error-no-response";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
+        jsonPredicate, forceJson, actionLogLevel);
+
+    verifyExecution(tested, clientRequest, new Fragment("type", EMPTY_JSON, "expectedBody"),
+        fragmentResult -> {
+          assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
+          JsonObject result = fragmentResult.getFragment().getPayload();
+          assertEquals(EMPTY_JSON, result);
+        }, testContext);
+  }
+
+  @ParameterizedTest(name = "Expect _error transition, empty payload and ReplyException")
+  @MethodSource("dataExpectExceptionAndNullBody")
+  void testExpectExceptionAndNoResponse(String contentType, boolean forceJson, String jsonPredicate,
+      String responseBody, VertxTestContext testContext, Vertx vertx) throws Throwable {
+    String endpointPath = "/api/exception-no-response";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
+        jsonPredicate, forceJson, actionLogLevel);
+
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertNotNull(fragmentResult);
+      assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
+      assertEquals(EMPTY_JSON, fragmentResult.getFragment().getPayload());
+      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
+      JsonObject exception = (JsonObject) logs.getJsonArray("errors").getList().get(0);
+      assertEquals(ReplyException.class.getCanonicalName(), exception.getString("className"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect IllegalArgumentException when not existing predicate provided")
+  void expectErrorWhenNotExistingPredicateProvided(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    String endpointPath = "/api/exception-wrong-predicate";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, JSON_BODY, APPLICATION_JSON,
+        NOT_EXISTING_PREDICATE, false, actionLogLevel);
+
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertNotNull(fragmentResult);
+      assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
+      assertEquals(EMPTY_JSON, fragmentResult.getFragment().getPayload());
+      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
+      JsonObject exception = (JsonObject) logs.getJsonArray("errors").getList().get(0);
+      assertEquals(IllegalArgumentException.class.getCanonicalName(),
+          exception.getString("className"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect _error transition, empty payload and DecodeException when service responds with invalid json when json expected")
+  void expectErrorTransitionAndEmptyPayloadWhenInvalidJsonProvided(VertxTestContext testContext,
+      Vertx vertx)
+      throws Throwable {
+    String endpointPath = "/api/invalid-api-response";
+
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), endpointPath);
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, RAW_BODY, APPLICATION_JSON,
+        null, false, ActionLogLevel.INFO);
+
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertNotNull(fragmentResult);
+      assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
+      assertEquals(EMPTY_JSON, fragmentResult.getFragment().getPayload());
+      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
+      JsonObject exception = (JsonObject) logs.getJsonArray("errors").getList().get(0);
+      assertEquals(DecodeException.class.getCanonicalName(), exception.getString("className"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect _timeout transition when endpoint times out")
+  void errorTransitionWhenEndpointTimesOut(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    int requestTimeoutMs = 1000;
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withFixedDelay(2 * requestTimeoutMs)));
+
+    ClientRequest clientRequest = new ClientRequest();
+    clientRequest.setHeaders(MultiMap.caseInsensitiveMultiMap());
+
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port());
+
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setRequestTimeoutMs(requestTimeoutMs), ACTION_ALIAS, actionLogLevel);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(),
+        fragmentResult -> assertEquals(TIMEOUT_TRANSITION, fragmentResult.getTransition()),
+        testContext);
+  }
+
+  @Test
+  @DisplayName("Expect _timeout transition without calling endpoint when deadline has passed")
+  void timeoutTransitionWhenDeadlinePassed(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap()
+            .add("X-Deadline", String.valueOf(System.currentTimeMillis() - 1)),
+        VALID_REQUEST_PATH);
+    HttpAction tested = deadlineAction(vertx, new DeadlineOptions()
+        .setClientRequestHeader("X-Deadline"));
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(TIMEOUT_TRANSITION, fragmentResult.getTransition());
+      wireMockServer.verify(0, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect remaining time budget sent to endpoint when deadline is in Fragment's payload")
+  void remainingBudgetSentToEndpoint(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .withHeader("X-Budget-Ms", matching("\\d+"))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = deadlineAction(vertx, new DeadlineOptions()
+        .setPayloadKey("deadline")
+        .setPropagationHeader("X-Budget-Ms"));
+    Fragment fragment = createFragment()
+        .appendPayload("deadline", System.currentTimeMillis() + 30000);
+
+    // then
+    verifyExecution(tested, clientRequest, fragment,
+        fragmentResult -> assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition()),
+        testContext);
+  }
+
+  @Test
+  @DisplayName("Expect TCP endpoint called when Unix domain socket configured without native transport")
+  void tcpFallbackWhenNativeTransportNotAvailable(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setUnixSocketPath("/tmp/not-existing-sidecar.sock")
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions().setEndpointOptions(endpointOptions), ACTION_ALIAS, actionLogLevel);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(),
+        fragmentResult -> assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition()),
+        testContext);
+  }
+
+  @Test
+  @DisplayName("Expect client span in the incoming trace and traceparent sent to endpoint")
+  void clientSpanJoinsIncomingTrace(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+    String parentSpanId = "00f067aa0ba902b7";
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .withHeader("traceparent", matching("00-" + traceId + "-[0-9a-f]{16}-01"))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap()
+            .add("traceparent", "00-" + traceId + "-" + parentSpanId + "-01"),
+        VALID_REQUEST_PATH);
+    HttpAction tested = tracingAction(vertx, 0.0);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      List<SpanData> spans = InMemorySpanExporter.getOrCreate(vertx).getSpans();
+      assertEquals(1, spans.size());
+      SpanData span = spans.get(0);
+      assertEquals(traceId, span.getTraceId());
+      assertEquals(parentSpanId, span.getParentSpanId());
+      assertEquals(ACTION_ALIAS, span.getAttributes().get("knotx.action.alias"));
+      assertEquals(200, span.getAttributes().get("http.status_code"));
+      assertEquals(VALID_JSON_RESPONSE_BODY.length(),
+          span.getAttributes().get("http.response_content_length"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect _timeout transition and span recorded when sampled endpoint call times out")
+  void timeoutTransitionWithSpanWhenEndpointTimesOut(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    int requestTimeoutMs = 500;
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withFixedDelay(2 * requestTimeoutMs)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = tracingAction(vertx, 1.0, requestTimeoutMs);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(TIMEOUT_TRANSITION, fragmentResult.getTransition());
+      List<SpanData> spans = InMemorySpanExporter.getOrCreate(vertx).getSpans();
+      assertEquals(1, spans.size());
+      SpanData span = spans.get(0);
+      assertEquals(408, span.getAttributes().get("http.status_code"));
+      assertEquals(0, span.getAttributes().get("http.response_content_length"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect endpoint called once when traced response is served from cache")
+  void endpointCalledOnceWhenTracedResponseCached(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .withHeader("traceparent", matching("00-[0-9a-f]{32}-[0-9a-f]{16}-01"))
+        .willReturn(aResponse()
+            .withHeader("Content-Type", APPLICATION_JSON)
+            .withBody(VALID_JSON_RESPONSE_BODY)));
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setCacheOptions(new CacheOptions().setEnabled(true))
+            .setTracingOptions(new TracingOptions()
+                .setEnabled(true)
+                .setTracer("in-memory")
+                .setSamplingRatio(1.0)),
+        ACTION_ALIAS, actionLogLevel);
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), HttpActionTest.VALID_REQUEST_PATH);
+    Checkpoint checkpoint = testContext.checkpoint(2);
+
+    // when
+    tested.apply(new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(first -> {
+          checkpoint.flag();
+          tested.apply(new FragmentContext(createFragment(), clientRequest),
+              testContext.succeeding(second -> testContext.verify(() -> {
+                // then
+                assertEquals(SUCCESS_TRANSITION, second.getTransition());
+                wireMockServer.verify(1, getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+                assertEquals(2, InMemorySpanExporter.getOrCreate(vertx).getSpans().size());
+                checkpoint.flag();
+              })));
+        }));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect no span recorded and not sampled traceparent sent when trace not sampled")
+  void noSpanRecordedWhenTraceNotSampled(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .withHeader("traceparent", matching("00-[0-9a-f]{32}-[0-9a-f]{16}-00"))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = tracingAction(vertx, 0.0);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      assertTrue(InMemorySpanExporter.getOrCreate(vertx).getSpans().isEmpty());
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect verbose logs when trigger header sent and request not sampled")
+  void verboseLogsWhenTriggerHeaderSent(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap().add("X-Debug-Log", "secret"), VALID_REQUEST_PATH);
+    HttpAction tested = logSamplingAction(vertx, 0L);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
+      assertTrue(logs.containsKey("request"));
+      assertTrue(logs.containsKey("responseBody"));
+    }, testContext);
+  }
+
+  @Test
+  @DisplayName("Expect no verbose logs when trigger header sent with other value")
+  void noVerboseLogsWhenTriggerHeaderValueDiffers(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
     // given, when
-    HttpAction tested = errorAction(vertx, 500, "Internal Error");
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
     ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
-        MultiMap.caseInsensitiveMultiMap()
-            .add("requestHeader", "request"), HttpActionTest.VALID_REQUEST_PATH);
+        MultiMap.caseInsensitiveMultiMap().add("X-Debug-Log", "true"), VALID_REQUEST_PATH);
+    HttpAction tested = logSamplingAction(vertx, 0L);
 
     // then
-    verifyExecution(tested, clientRequest, createFragment(),
-        fragmentResult -> assertEquals(ERROR_TRANSITION, fragmentResult.getTransition()),
-        testContext);
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
+      assertFalse(logs.containsKey("request"));
+      assertFalse(logs.containsKey("responseBody"));
+    }, testContext);
   }
 
-  @ParameterizedTest(name = "Expect success transition and response as JSON")
-  @MethodSource("dataExpectSuccessTransitionAndJsonBody")
-  void testSuccessTransitionsExpectedAndResponseAsJson(String contentType, boolean forceJson,
-      String jsonPredicate, String responseBody, VertxTestContext testContext, Vertx vertx)
+  @Test
+  @DisplayName("Expect no verbose logs of triggered request when action log level is error")
+  void noVerboseLogsAboveConfiguredLevel(VertxTestContext testContext, Vertx vertx)
       throws Throwable {
-    String endpointPath = "/api/success-json";
-
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
     ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
-        MultiMap.caseInsensitiveMultiMap(), endpointPath);
-    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
-        jsonPredicate, forceJson, actionLogLevel);
+        MultiMap.caseInsensitiveMultiMap().add("X-Debug-Log", "secret"), VALID_REQUEST_PATH);
+    actionLogLevel = ActionLogLevel.ERROR;
+    HttpAction tested = logSamplingAction(vertx, 0L);
 
-    verifyExecution(tested, clientRequest, new Fragment("type", new JsonObject(), "expectedBody"),
-        fragmentResult -> {
-          assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
-          JsonObject result = fragmentResult.getFragment().getPayload()
-              .getJsonObject("httpAction").getJsonObject("_result");
-          assertEquals(new JsonObject()
-              .put("id", 21762532)
-              .put("url", "http://knotx.io")
-              .put("label", "Product"), result);
-        }, testContext);
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
+      assertFalse(logs.containsKey("request"));
+      assertFalse(logs.containsKey("responseBody"));
+    }, testContext);
   }
 
-  @ParameterizedTest(name = "Expect success transition and response as raw text")
-  @MethodSource("dataExpectSuccessTransitionAndTextBody")
-  void testSuccessTransitionExpectedAndResponseAsRawText(String contentType, boolean forceJson,
-      String jsonPredicate, String responseBody, VertxTestContext testContext, Vertx vertx)
+  @Test
+  @DisplayName("Expect request and response logged without body when slow call not sampled")
+  void slowCallLoggedWhenRequestNotSampled(VertxTestContext testContext, Vertx vertx)
       throws Throwable {
-    String endpointPath = "/api/success-text";
-
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY).withFixedDelay(200)));
     ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
-        MultiMap.caseInsensitiveMultiMap(), endpointPath);
-    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
-        jsonPredicate, forceJson, actionLogLevel);
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = logSamplingAction(vertx, 100L);
 
+    // then
     verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
       assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
-      String result = (String) fragmentResult.getFragment().getPayload().getJsonObject("httpAction")
-          .getMap().get("_result");
-      assertEquals(JSON_BODY, result);
+      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
+      assertTrue(logs.containsKey("request"));
+      assertTrue(logs.containsKey("response"));
+      assertTrue(logs.containsKey("timings"));
+      assertFalse(logs.containsKey("responseBody"));
     }, testContext);
   }
 
-  @ParameterizedTest(name = "Expect _error transition and empty payload")
-  @MethodSource("dataExpectErrorTransitionAndNullBody")
-  void testErrorTransitionAndEmptyPayload(String contentType, boolean forceJson,
-      String jsonPredicate, String responseBody, VertxTestContext testContext, Vertx vertx)
+  @Test
+  @DisplayName("Expect NDJSON records in payload when response streamed")
+  void appendRecordsWhenNdjsonResponseStreamed(VertxTestContext testContext, Vertx vertx)
       throws Throwable {
-    String endpointPath = "/api/error-no-response";
-
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withHeader("Content-Type", "application/x-ndjson")
+            .withBody(ndjson(3))));
     ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
-        MultiMap.caseInsensitiveMultiMap(), endpointPath);
-    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
-        jsonPredicate, forceJson, actionLogLevel);
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = streamingAction(vertx, new StreamingOptions().setEnabled(true));
 
-    verifyExecution(tested, clientRequest, new Fragment("type", EMPTY_JSON, "expectedBody"),
-        fragmentResult -> {
-          assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
-          JsonObject result = fragmentResult.getFragment().getPayload();
-          assertEquals(EMPTY_JSON, result);
-        }, testContext);
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      JsonArray records = fragmentResult.getFragment().getPayload()
+          .getJsonObject(ACTION_ALIAS).getJsonArray("_result");
+      assertEquals(3, records.size());
+      assertEquals(2, records.getJsonObject(2).getInteger("id"));
+    }, testContext);
   }
 
-  @ParameterizedTest(name = "Expect _error transition, empty payload and ReplyException")
-  @MethodSource("dataExpectExceptionAndNullBody")
-  void testExpectExceptionAndNoResponse(String contentType, boolean forceJson, String jsonPredicate,
-      String responseBody, VertxTestContext testContext, Vertx vertx) throws Throwable {
-    String endpointPath = "/api/exception-no-response";
-
+  @Test
+  @DisplayName("Expect NDJSON body as text in payload when streaming disabled")
+  void appendTextWhenNdjsonResponseNotStreamed(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withHeader("Content-Type", "application/x-ndjson")
+            .withBody(ndjson(3))));
     ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
-        MultiMap.caseInsensitiveMultiMap(), endpointPath);
-    HttpAction tested = setupTestingInstances(vertx, endpointPath, responseBody, contentType,
-        jsonPredicate, forceJson, actionLogLevel);
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = streamingAction(vertx, new StreamingOptions());
 
+    // then
     verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
-      assertNotNull(fragmentResult);
-      assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
-      assertEquals(EMPTY_JSON, fragmentResult.getFragment().getPayload());
-      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
-      JsonObject exception = (JsonObject) logs.getJsonArray("errors").getList().get(0);
-      assertEquals(ReplyException.class.getCanonicalName(), exception.getString("className"));
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      assertEquals(ndjson(3), fragmentResult.getFragment().getPayload()
+          .getJsonObject(ACTION_ALIAS).getString("_result"));
     }, testContext);
   }
 
   @Test
-  @DisplayName("Expect IllegalArgumentException when not existing predicate provided")
-  void expectErrorWhenNotExistingPredicateProvided(VertxTestContext testContext, Vertx vertx)
-      throws Throwable {
-    String endpointPath = "/api/exception-wrong-predicate";
+  @DisplayName("Expect _success transition when streamed response has no content")
+  void successTransitionWhenStreamedResponseHasNoContent(VertxTestContext testContext,
+      Vertx vertx) throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withStatus(204)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = streamingAction(vertx, new StreamingOptions().setEnabled(true));
 
+    // then
+    verifyExecution(tested, clientRequest, createFragment(),
+        fragmentResult -> assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition()),
+        testContext);
+  }
+
+  @Test
+  @DisplayName("Expect only records within the limits in payload when streamed response cut off")
+  void appendRecordsWithinLimitsWhenStreamCutOff(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withHeader("Content-Type", "application/x-ndjson")
+            .withBody(ndjson(1000))));
     ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
-        MultiMap.caseInsensitiveMultiMap(), endpointPath);
-    HttpAction tested = setupTestingInstances(vertx, endpointPath, JSON_BODY, APPLICATION_JSON,
-        NOT_EXISTING_PREDICATE, false, actionLogLevel);
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = streamingAction(vertx, new StreamingOptions()
+        .setEnabled(true)
+        .setMaxRecords(10)
+        .setMaxBytes(1000));
 
+    // then
     verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
-      assertNotNull(fragmentResult);
-      assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
-      assertEquals(EMPTY_JSON, fragmentResult.getFragment().getPayload());
-      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
-      JsonObject exception = (JsonObject) logs.getJsonArray("errors").getList().get(0);
-      assertEquals(IllegalArgumentException.class.getCanonicalName(),
-          exception.getString("className"));
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      JsonArray records = fragmentResult.getFragment().getPayload()
+          .getJsonObject(ACTION_ALIAS).getJsonArray("_result");
+      assertEquals(10, records.size());
+      assertEquals(9, records.getJsonObject(9).getInteger("id"));
     }, testContext);
   }
 
   @Test
-  @DisplayName("Expect _error transition, empty payload and DecodeException when service responds with invalid json when json expected")
-  void expectErrorTransitionAndEmptyPayloadWhenInvalidJsonProvided(VertxTestContext testContext,
-      Vertx vertx)
+  @DisplayName("Expect streamed response of exactly max bytes complete and cached")
+  void cacheStreamedResponseOfMaxBytes(VertxTestContext testContext, Vertx vertx)
       throws Throwable {
-    String endpointPath = "/api/invalid-api-response";
+    verifyStreamedResponseCaching(vertx, testContext, 0, 1);
+  }
+
+  @Test
+  @DisplayName("Expect truncated streamed response not cached")
+  void notCacheTruncatedStreamedResponse(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    verifyStreamedResponseCaching(vertx, testContext, -1, 2);
+  }
 
+  @Test
+  @DisplayName("Expect action invocations and endpoint rate limiter in the metrics snapshot")
+  void metricsInSnapshot(VertxTestContext testContext, Vertx vertx) throws Throwable {
+    // given, when
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withBody(VALID_JSON_RESPONSE_BODY)));
     ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
-        MultiMap.caseInsensitiveMultiMap(), endpointPath);
-    HttpAction tested = setupTestingInstances(vertx, endpointPath, RAW_BODY, APPLICATION_JSON,
-        null, false, ActionLogLevel.INFO);
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(new EndpointOptions()
+                .setPath(VALID_REQUEST_PATH)
+                .setDomain("localhost")
+                .setPort(wireMockServer.port())
+                .setAllowedRequestHeaders(Collections.emptySet()))
+            .setRateLimitOptions(new RateLimitOptions().setPermitsPerSecond(100)),
+        ACTION_ALIAS, actionLogLevel);
 
+    // then
     verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
-      assertNotNull(fragmentResult);
-      assertEquals(ERROR_TRANSITION, fragmentResult.getTransition());
-      assertEquals(EMPTY_JSON, fragmentResult.getFragment().getPayload());
-      JsonObject logs = fragmentResult.getNodeLog().getJsonObject("logs");
-      JsonObject exception = (JsonObject) logs.getJsonArray("errors").getList().get(0);
-      assertEquals(DecodeException.class.getCanonicalName(), exception.getString("className"));
+      JsonObject snapshot = HttpActionStats.snapshot(vertx);
+      assertEquals(1L, snapshot.getJsonObject("actions").getJsonObject(ACTION_ALIAS)
+          .getLong("invocations").longValue());
+      assertEquals(1, snapshot.getJsonObject("rateLimiters").size());
     }, testContext);
   }
 
   @Test
-  @DisplayName("Expect _timeout transition when endpoint times out")
-  void errorTransitionWhenEndpointTimesOut(VertxTestContext testContext, Vertx vertx)
+  @DisplayName("Expect JSON response parsed as usual when streaming enabled")
+  void appendPayloadWhenJsonResponseNotStreamed(VertxTestContext testContext, Vertx vertx)
       throws Throwable {
     // given, when
-    int requestTimeoutMs = 1000;
     wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
-        .willReturn(aResponse().withFixedDelay(2 * requestTimeoutMs)));
-
-    ClientRequest clientRequest = new ClientRequest();
-    clientRequest.setHeaders(MultiMap.caseInsensitiveMultiMap());
-
-    EndpointOptions endpointOptions = new EndpointOptions()
-        .setPath(VALID_REQUEST_PATH)
-        .setDomain("localhost")
-        .setPort(wireMockServer.port());
-
-    HttpAction tested = new HttpAction(vertx,
-        new HttpActionOptions()
-            .setEndpointOptions(endpointOptions)
-            .setRequestTimeoutMs(requestTimeoutMs), ACTION_ALIAS, actionLogLevel);
+        .willReturn(aResponse().withHeader("Content-Type", "application/json")
+            .withBody(VALID_JSON_RESPONSE_BODY)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = streamingAction(vertx, new StreamingOptions().setEnabled(true));
 
     // then
-    verifyExecution(tested, clientRequest, createFragment(),
-        fragmentResult -> assertEquals(TIMEOUT_TRANSITION, fragmentResult.getTransition()),
-        testContext);
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(SUCCESS_TRANSITION, fragmentResult.getTransition());
+      assertEquals(new JsonObject(VALID_JSON_RESPONSE_BODY), fragmentResult.getFragment()
+          .getPayload().getJsonObject(ACTION_ALIAS).getJsonObject("_result"));
+    }, testContext);
   }
 
   @Test
@@ -753,6 +1708,135 @@ class HttpActionTest {
         new HttpActionOptions().setEndpointOptions(endpointOptions), ACTION_ALIAS, actionLogLevel);
   }
 
+  private HttpAction metadataAction(Vertx vertx, ResponseOptions responseOptions) {
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse()
+            .withHeader("responseHeader", "response")
+            .withHeader("otherHeader", "other")
+            .withBody(VALID_JSON_RESPONSE_BODY)));
+
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.singleton("requestHeader"));
+
+    return new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setResponseOptions(responseOptions), ACTION_ALIAS, actionLogLevel);
+  }
+
+  private HttpAction tracingAction(Vertx vertx, double samplingRatio) {
+    return tracingAction(vertx, samplingRatio, new HttpActionOptions().getRequestTimeoutMs());
+  }
+
+  private HttpAction tracingAction(Vertx vertx, double samplingRatio, long requestTimeoutMs) {
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+
+    return new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setTracingOptions(new TracingOptions()
+                .setEnabled(true)
+                .setTracer("in-memory")
+                .setSamplingRatio(samplingRatio))
+            .setRequestTimeoutMs(requestTimeoutMs), ACTION_ALIAS, actionLogLevel);
+  }
+
+  private HttpAction logSamplingAction(Vertx vertx, long slowCallThresholdMs) {
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+
+    return new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setLogSamplingOptions(new LogSamplingOptions()
+                .setEnabled(true)
+                .setSampleRate(0.0)
+                .setTriggerHeader("X-Debug-Log")
+                .setTriggerValue("secret")
+                .setSlowCallThresholdMs(slowCallThresholdMs)), ACTION_ALIAS, actionLogLevel);
+  }
+
+  private HttpAction streamingAction(Vertx vertx, StreamingOptions streamingOptions) {
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+
+    return new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setStreamingOptions(streamingOptions), ACTION_ALIAS, actionLogLevel);
+  }
+
+  private void verifyStreamedResponseCaching(Vertx vertx, VertxTestContext testContext,
+      int maxBytesDelta, int expectedEndpointCalls) throws Throwable {
+    String body = ndjson(3);
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withHeader("Content-Type", "application/x-ndjson")
+            .withBody(body)));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap(), VALID_REQUEST_PATH);
+    HttpAction tested = new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(new EndpointOptions()
+                .setPath(VALID_REQUEST_PATH)
+                .setDomain("localhost")
+                .setPort(wireMockServer.port())
+                .setAllowedRequestHeaders(Collections.emptySet()))
+            .setStreamingOptions(new StreamingOptions()
+                .setEnabled(true)
+                .setMaxBytes(body.length() + maxBytesDelta))
+            .setCacheOptions(new CacheOptions().setEnabled(true)),
+        ACTION_ALIAS, actionLogLevel);
+
+    tested.apply(new FragmentContext(createFragment(), clientRequest),
+        testContext.succeeding(first -> tested.apply(
+            new FragmentContext(createFragment(), clientRequest),
+            testContext.succeeding(second -> testContext.verify(() -> {
+              assertEquals(SUCCESS_TRANSITION, second.getTransition());
+              wireMockServer.verify(expectedEndpointCalls,
+                  getRequestedFor(urlEqualTo(VALID_REQUEST_PATH)));
+              testContext.completeNow();
+            })))));
+    assertTrue(testContext.awaitCompletion(60, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  private String ndjson(int records) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < records; i++) {
+      body.append(new JsonObject().put("id", i).put("label", "record " + i).encode()).append('\n');
+    }
+    return body.toString();
+  }
+
+  private HttpAction deadlineAction(Vertx vertx, DeadlineOptions deadlineOptions) {
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port())
+        .setAllowedRequestHeaders(Collections.emptySet());
+
+    return new HttpAction(vertx,
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setRequestTimeoutMs(10000)
+            .setDeadlineOptions(deadlineOptions), ACTION_ALIAS, actionLogLevel);
+  }
+
   private HttpAction getHttpActionWithAdditionalHeaders(Vertx vertx,
       JsonObject additionalHeaders, String expectedHeaderKey, String expectedHeaderValue) {
     wireMockServer.stubFor(get(urlEqualTo(HttpActionTest.VALID_REQUEST_PATH))
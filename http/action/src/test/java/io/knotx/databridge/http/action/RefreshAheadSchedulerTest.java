@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reactivex.Completable;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.reactivex.core.MultiMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class RefreshAheadSchedulerTest {
+
+  private static final long TTL = 300L;
+
+  @Test
+  @DisplayName("Expect hot entry refreshed before expiry and cold entry not refreshed")
+  void expectOnlyHotEntryRefreshed(Vertx vertx) throws InterruptedException {
+    List<String> refreshedKeys = new CopyOnWriteArrayList<>();
+    CountDownLatch refreshed = new CountDownLatch(1);
+    RefreshAheadScheduler tested = new RefreshAheadScheduler(vertx, options(),
+        (key, request) -> Completable.fromAction(() -> {
+          refreshedKeys.add(key);
+          refreshed.countDown();
+        }));
+
+    tested.onStored("hot", request("/hot"), TTL);
+    tested.onStored("cold", request("/cold"), TTL);
+    tested.onHit("hot");
+    tested.onHit("hot");
+    tested.onHit("cold");
+
+    assertTrue(refreshed.await(TTL, TimeUnit.MILLISECONDS));
+    Thread.sleep(TTL);
+    assertEquals(1, refreshedKeys.size());
+    assertEquals("hot", refreshedKeys.get(0));
+  }
+
+  @Test
+  @DisplayName("Expect no more refreshes in progress than max concurrency")
+  void expectConcurrencyLimited(Vertx vertx) throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(2);
+    RefreshAheadScheduler tested = new RefreshAheadScheduler(vertx,
+        options().setMaxConcurrency(1),
+        (key, request) -> {
+          started.countDown();
+          return Completable.never();
+        });
+
+    tested.onStored("first", request("/first"), TTL);
+    tested.onStored("second", request("/second"), TTL);
+    for (String key : new String[]{"first", "second"}) {
+      tested.onHit(key);
+      tested.onHit(key);
+    }
+
+    assertFalse(started.await(TTL, TimeUnit.MILLISECONDS));
+    assertEquals(1L, started.getCount());
+    assertEquals(1, tested.getMetrics().getInteger("inFlight").intValue());
+  }
+
+  @Test
+  @DisplayName("Expect entries living no longer than the refresh window not tracked")
+  void expectShortLivedEntriesNotTracked(Vertx vertx) {
+    RefreshAheadScheduler tested = new RefreshAheadScheduler(vertx, options(),
+        (key, request) -> Completable.complete());
+
+    tested.onStored("long", request("/long"), TTL);
+    tested.onStored("short", request("/short"), TTL - 50L);
+    tested.onStored("long", request("/long"), 10L);
+
+    assertEquals(0, tested.getMetrics().getInteger("tracked").intValue());
+  }
+
+  private RefreshAheadOptions options() {
+    return new RefreshAheadOptions()
+        .setEnabled(true)
+        .setRefreshBeforeExpiryMs(TTL - 50L)
+        .setJitterMs(0L)
+        .setMinHits(2)
+        .setCheckIntervalMs(10L);
+  }
+
+  private EndpointRequest request(String path) {
+    return new EndpointRequest(path, MultiMap.caseInsensitiveMultiMap());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ResponseTransformTest {
+
+  private static final JsonObject BODY = new JsonObject(
+      "{\"data\": {\"user\": {\"firstName\": \"John\", \"lastName\": \"Doe\"},"
+          + " \"items\": [{\"id\": 1, \"name\": \"first\", \"price\": 10},"
+          + " {\"id\": 2, \"name\": \"second\"}]}}");
+
+  @Test
+  @DisplayName("Expect fields renamed and flattened from paths")
+  void expectFieldsFromPaths() {
+    ResponseTransform tested = ResponseTransform.compile(new JsonObject()
+        .put("name", "data.user.firstName")
+        .put("firstItem", "data.items.0.name")
+        .put("missing", "data.user.age"));
+
+    assertEquals(new JsonObject().put("name", "John").put("firstItem", "first"),
+        tested.apply(BODY));
+  }
+
+  @Test
+  @DisplayName("Expect nested object built for each element of the $path array")
+  void expectObjectBuiltForEachElement() {
+    ResponseTransform tested = ResponseTransform.compile(new JsonObject()
+        .put("products", new JsonObject()
+            .put("$path", "data.items")
+            .put("sku", "id")
+            .put("price", "price")
+            .put("currency", new JsonArray().add("'EUR'"))));
+
+    assertEquals(new JsonObject().put("products", new JsonArray()
+            .add(new JsonObject().put("sku", 1).put("price", 10).put("currency", "EUR"))
+            .add(new JsonObject().put("sku", 2).put("currency", "EUR"))),
+        tested.apply(BODY));
+  }
+
+  @Test
+  @DisplayName("Expect derived field concatenated from paths and literals, and constants kept")
+  void expectDerivedAndConstantFields() {
+    ResponseTransform tested = ResponseTransform.compile(new JsonObject()
+        .put("fullName", new JsonArray()
+            .add("data.user.firstName").add("' '").add("data.user.lastName"))
+        .put("version", 2)
+        .put("cached", false));
+
+    assertEquals(new JsonObject().put("fullName", "John Doe").put("version", 2)
+        .put("cached", false), tested.apply(BODY));
+  }
+
+  @Test
+  @DisplayName("Expect empty object when the root $path is missing in the body")
+  void expectEmptyObjectWhenRootPathMissing() {
+    ResponseTransform tested = ResponseTransform.compile(new JsonObject()
+        .put("$path", "data.order")
+        .put("id", "id"));
+
+    assertEquals(new JsonObject(), tested.apply(BODY));
+  }
+
+  @Test
+  @DisplayName("Expect raw text body not transformed and no transform without spec")
+  void expectTextBodyNotTransformed() {
+    ResponseTransform tested = ResponseTransform.compile(new JsonObject().put("name", "name"));
+
+    assertEquals("plain text", tested.apply("plain text"));
+    assertNull(ResponseTransform.compile(null));
+  }
+
+  @Test
+  @DisplayName("Expect invalid spec rejected when compiled")
+  void expectInvalidSpecRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> ResponseTransform.compile(new JsonObject().put("name", "data..user")));
+    assertThrows(IllegalArgumentException.class,
+        () -> ResponseTransform.compile(new JsonObject()
+            .put("items", new JsonObject().put("$path", 1))));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action;
+
+import static io.knotx.databridge.http.action.TokenBucketRateLimiter.REJECTED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class TokenBucketRateLimiterTest {
+
+  private static final long NO_WAIT = 0L;
+
+  @Test
+  @DisplayName("Expect burst of tokens granted immediately and next request rejected")
+  void expectBurstGrantedAndNextRejected() {
+    TokenBucketRateLimiter tested = new TokenBucketRateLimiter(1, 3);
+
+    assertEquals(0L, tested.tryAcquire(NO_WAIT));
+    assertEquals(0L, tested.tryAcquire(NO_WAIT));
+    assertEquals(0L, tested.tryAcquire(NO_WAIT));
+    assertEquals(REJECTED, tested.tryAcquire(NO_WAIT));
+    assertEquals(1L, tested.getMetrics().getLong("rejected").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect wait time when token is available within max wait time")
+  void expectWaitTimeWhenTokenAvailableSoon() {
+    TokenBucketRateLimiter tested = new TokenBucketRateLimiter(10, 1);
+
+    assertEquals(0L, tested.tryAcquire(NO_WAIT));
+    long waitNanos = tested.tryAcquire(TimeUnit.SECONDS.toNanos(1));
+
+    assertTrue(waitNanos > 0 && waitNanos <= TimeUnit.MILLISECONDS.toNanos(100));
+  }
+
+  @Test
+  @DisplayName("Expect requests rejected when limiter is paused")
+  void expectRejectedWhenPaused() {
+    TokenBucketRateLimiter tested = new TokenBucketRateLimiter(100, 100);
+
+    tested.pause(TimeUnit.SECONDS.toNanos(10));
+
+    assertEquals(REJECTED, tested.tryAcquire(TimeUnit.SECONDS.toNanos(1)));
+  }
+
+  @Test
+  @DisplayName("Expect endpoint limiter shared with the first configuration when another differs")
+  void expectSharedLimiterWithFirstConfiguration(Vertx vertx) {
+    TokenBucketRateLimiter first = TokenBucketRateLimiter.getOrCreate(vertx, "localhost:3000",
+        new RateLimitOptions().setPermitsPerSecond(1).setBurst(1));
+    TokenBucketRateLimiter second = TokenBucketRateLimiter.getOrCreate(vertx, "localhost:3000",
+        new RateLimitOptions().setPermitsPerSecond(100).setBurst(100));
+
+    assertSame(first, second);
+    assertEquals(0L, second.tryAcquire(NO_WAIT));
+    assertEquals(REJECTED, second.tryAcquire(NO_WAIT));
+  }
+
+  @Test
+  @DisplayName("Expect Retry-After header parsed from seconds and HTTP date")
+  void expectRetryAfterParsed() {
+    assertEquals(120000L, TokenBucketRateLimiter.parseRetryAfterMs("120"));
+    assertEquals(0L, TokenBucketRateLimiter.parseRetryAfterMs("Wed, 21 Oct 2015 07:28:00 GMT"));
+    assertEquals(0L, TokenBucketRateLimiter.parseRetryAfterMs("soon"));
+  }
+}
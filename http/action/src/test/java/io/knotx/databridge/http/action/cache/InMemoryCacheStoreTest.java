@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.vertx.core.buffer.Buffer;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InMemoryCacheStoreTest {
+
+  private static final long TTL = 60000L;
+
+  @Test
+  @DisplayName("Expect overwritten entry kept when older entries are evicted")
+  void expectOverwrittenEntryKept() {
+    InMemoryCacheStore tested = new InMemoryCacheStore(2);
+    put(tested, "a");
+    put(tested, "b");
+    put(tested, "a");
+
+    put(tested, "c");
+
+    assertNotNull(get(tested, "a"));
+    assertNull(get(tested, "b"));
+    assertNotNull(get(tested, "c"));
+    assertEquals(2, tested.size());
+  }
+
+  @Test
+  @DisplayName("Expect invalidated entries not counted when evicting")
+  void expectInvalidatedEntriesNotEvictingLiveOnes() {
+    InMemoryCacheStore tested = new InMemoryCacheStore(2);
+    for (int i = 0; i < 100; i++) {
+      put(tested, "a");
+      tested.invalidate("a", ar -> {
+      });
+    }
+
+    put(tested, "b");
+    put(tested, "c");
+
+    assertNotNull(get(tested, "b"));
+    assertNotNull(get(tested, "c"));
+    assertEquals(2, tested.size());
+  }
+
+  private static void put(CacheStore store, String key) {
+    store.put(key, Buffer.buffer(key), TTL, ar -> {
+    });
+  }
+
+  private static Buffer get(CacheStore store, String key) {
+    AtomicReference<Buffer> result = new AtomicReference<>();
+    store.get(key, ar -> result.set(ar.result()));
+    return result.get();
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class OffHeapStorageTest {
+
+  private static final long TTL = 60000L;
+  private static final long MAX_WEIGHT = 10000L;
+
+  @Test
+  @DisplayName("Expect cached value served from the direct memory without copying")
+  void expectDirectValueNotCopied(VertxTestContext testContext) {
+    TinyLfuCacheStore tested = new TinyLfuCacheStore(MAX_WEIGHT, 1, 100, 1,
+        new OffHeapStorage());
+
+    tested.put("key", Buffer.buffer("value"), TTL, testContext.succeeding(
+        stored -> tested.get("key", testContext.succeeding(value -> testContext.verify(() -> {
+          assertEquals(Buffer.buffer("value"), value);
+          assertTrue(value.getByteBuf().isDirect());
+          assertEquals(5L, tested.getMetrics().getLong("offHeapBytes").longValue());
+          tested.release(value);
+          tested.close();
+          testContext.completeNow();
+        })))));
+  }
+
+  @Test
+  @DisplayName("Expect value read before invalidation valid until the reader releases it")
+  void expectReadValueValidUntilReleased(VertxTestContext testContext) {
+    TinyLfuCacheStore tested = new TinyLfuCacheStore(MAX_WEIGHT, 1, 100, 1,
+        new OffHeapStorage());
+
+    tested.put("key", Buffer.buffer("value"), TTL, testContext.succeeding(
+        stored -> tested.get("key", testContext.succeeding(
+            value -> tested.invalidate("key", testContext.succeeding(invalidated -> {
+              tested.put("other", Buffer.buffer("other"), TTL, testContext.succeeding(
+                  otherStored -> testContext.verify(() -> {
+                    assertEquals(Buffer.buffer("value"), value);
+                    assertEquals(5L, tested.getMetrics().getLong("offHeapBytes").longValue());
+                    tested.release(value);
+                    tested.close();
+                    testContext.completeNow();
+                  })));
+            }))))));
+  }
+}
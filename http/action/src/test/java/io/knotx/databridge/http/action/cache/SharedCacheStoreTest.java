@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class SharedCacheStoreTest {
+
+  private static final long TTL = 60000L;
+  private static final JsonObject CONFIG = new JsonObject().put("maxEntries", 100);
+
+  @Test
+  @DisplayName("Expect the same store returned for the same name and configuration")
+  void expectSameStoreShared(Vertx vertx, VertxTestContext testContext) {
+    CacheStore first = CacheStoreProvider.getOrCreateShared("local", CONFIG, vertx);
+    CacheStore second = CacheStoreProvider.getOrCreateShared("local", CONFIG, vertx);
+    CacheStore other = CacheStoreProvider
+        .getOrCreateShared("local", new JsonObject().put("maxEntries", 10), vertx);
+
+    assertSame(first, second);
+    assertNotSame(first, other);
+    first.put("key", Buffer.buffer("value"), TTL, testContext.succeeding(
+        stored -> second.get("key", testContext.succeeding(value -> testContext.verify(() -> {
+          assertEquals(Buffer.buffer("value"), value);
+          testContext.completeNow();
+        })))));
+  }
+
+  @Test
+  @DisplayName("Expect new store created when the last user closed the shared store")
+  void expectStoreReleasedWhenLastUserClosed(Vertx vertx, VertxTestContext testContext) {
+    CacheStore first = CacheStoreProvider.getOrCreateShared("local", CONFIG, vertx);
+    CacheStore second = CacheStoreProvider.getOrCreateShared("local", CONFIG, vertx);
+
+    first.put("key", Buffer.buffer("value"), TTL, testContext.succeeding(stored -> {
+      first.close();
+      second.close();
+      CacheStore recreated = CacheStoreProvider.getOrCreateShared("local", CONFIG, vertx);
+      testContext.verify(() -> assertNotSame(first, recreated));
+      recreated.get("key", testContext.succeeding(value -> testContext.verify(() -> {
+        assertNull(value);
+        testContext.completeNow();
+      })));
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect handler called on the caller context when the store completes on another")
+  void expectHandlerCalledOnCallerContext(Vertx vertx, VertxTestContext testContext) {
+    CacheStore completingOnOtherThread = new InMemoryCacheStore(100) {
+      @Override
+      public void get(String key, Handler<AsyncResult<Buffer>> handler) {
+        new Thread(() -> super.get(key, handler)).start();
+      }
+    };
+    vertx.runOnContext(v -> {
+      Context caller = Vertx.currentContext();
+      CacheStore tested = new SharedCacheStore(vertx, completingOnOtherThread,
+          vertx.sharedData().getLocalMap("test"), "id");
+      tested.get("key", testContext.succeeding(value -> testContext.verify(() -> {
+        assertSame(caller, Vertx.currentContext());
+        testContext.completeNow();
+      })));
+    });
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class TcpCacheStoreTest {
+
+  private static final long TTL = 60000L;
+
+  private TcpCacheServer server;
+  private TcpCacheStore tested;
+
+  @BeforeEach
+  void setUp(Vertx vertx, VertxTestContext testContext) {
+    server = new TcpCacheServer(vertx, new InMemoryCacheStore(100));
+    server.listen(0, testContext.succeeding(port -> {
+      tested = new TcpCacheStore(vertx, "localhost", port, 1000L);
+      testContext.completeNow();
+    }));
+  }
+
+  @AfterEach
+  void tearDown(VertxTestContext testContext) {
+    tested.close();
+    server.close(testContext.succeeding(v -> testContext.completeNow()));
+  }
+
+  @Test
+  @DisplayName("Expect stored value returned by remote store")
+  void expectStoredValue(VertxTestContext testContext) {
+    tested.put("key", Buffer.buffer(new byte[]{1, 2, 3}), TTL, testContext.succeeding(
+        stored -> tested.get("key", testContext.succeeding(value -> testContext.verify(() -> {
+          assertEquals(Buffer.buffer(new byte[]{1, 2, 3}), value);
+          testContext.completeNow();
+        })))));
+  }
+
+  @Test
+  @DisplayName("Expect null when key is not stored")
+  void expectNullWhenMiss(VertxTestContext testContext) {
+    tested.get("missing", testContext.succeeding(value -> testContext.verify(() -> {
+      assertNull(value);
+      testContext.completeNow();
+    })));
+  }
+
+  @Test
+  @DisplayName("Expect null when key is invalidated")
+  void expectNullWhenInvalidated(VertxTestContext testContext) {
+    tested.put("key", Buffer.buffer("value"), TTL, testContext.succeeding(
+        stored -> tested.invalidate("key", testContext.succeeding(
+            invalidated -> tested.get("key", testContext.succeeding(
+                value -> testContext.verify(() -> {
+                  assertNull(value);
+                  testContext.completeNow();
+                })))))));
+  }
+
+  @Test
+  @DisplayName("Expect stored value returned when the connecting verticle is undeployed")
+  void expectStoredValueWhenConnectingVerticleUndeployed(VertxTestContext testContext,
+      Vertx vertx) {
+    AbstractVerticle connecting = new AbstractVerticle() {
+      @Override
+      public void start(Future<Void> startFuture) {
+        tested.put("key", Buffer.buffer("value"), TTL, startFuture);
+      }
+    };
+
+    vertx.deployVerticle(connecting, testContext.succeeding(id ->
+        vertx.undeploy(id, testContext.succeeding(undeployed -> vertx.setTimer(100,
+            timerId -> tested.get("key", testContext.succeeding(value -> testContext.verify(() -> {
+              assertEquals(Buffer.buffer("value"), value);
+              testContext.completeNow();
+            }))))))));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheStoreTest {
+
+  private static final long TTL = 60000L;
+  private static final int ENTRY_SIZE = 100;
+  private static final long MAX_WEIGHT = 100L * ENTRY_SIZE;
+
+  @Test
+  @DisplayName("Expect popular entry kept when many one-hit wonders are stored")
+  void expectPopularEntryKeptDuringScan() {
+    TinyLfuCacheStore tested = new TinyLfuCacheStore(MAX_WEIGHT, 1, 1000);
+    put(tested, "popular", ENTRY_SIZE);
+    for (int i = 0; i < 10; i++) {
+      assertNotNull(get(tested, "popular"));
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      put(tested, "scan-" + i, ENTRY_SIZE);
+    }
+
+    assertNotNull(get(tested, "popular"));
+    JsonObject metrics = tested.getMetrics();
+    assertTrue(metrics.getLong("admissionRejections") > 0);
+    assertTrue(metrics.getLong("weightBytes") <= MAX_WEIGHT);
+  }
+
+  @Test
+  @DisplayName("Expect less popular entries evicted to keep values size under the limit")
+  void expectWeightBounded() {
+    TinyLfuCacheStore tested = new TinyLfuCacheStore(MAX_WEIGHT, 1, 1000);
+
+    for (int i = 0; i < 15; i++) {
+      for (int reads = 0; reads < i; reads++) {
+        get(tested, "large-" + i);
+      }
+      put(tested, "large-" + i, ENTRY_SIZE * 10);
+    }
+
+    JsonObject metrics = tested.getMetrics();
+    assertTrue(metrics.getLong("weightBytes") <= MAX_WEIGHT);
+    assertTrue(metrics.getLong("evictions") > 0);
+    assertNull(get(tested, "large-0"));
+    assertNotNull(get(tested, "large-14"));
+  }
+
+  @Test
+  @DisplayName("Expect entry larger than the cache rejected")
+  void expectTooLargeEntryRejected() {
+    TinyLfuCacheStore tested = new TinyLfuCacheStore(MAX_WEIGHT, 1, 1000);
+
+    put(tested, "huge", (int) MAX_WEIGHT + 1);
+
+    assertNull(get(tested, "huge"));
+    assertEquals(1L, tested.getMetrics().getLong("admissionRejections").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect hit ratio reported")
+  void expectHitRatio() {
+    TinyLfuCacheStore tested = new TinyLfuCacheStore(MAX_WEIGHT, 1, 1000);
+    put(tested, "key", ENTRY_SIZE);
+
+    get(tested, "key");
+    get(tested, "missing");
+
+    JsonObject metrics = tested.getMetrics();
+    assertEquals(1L, metrics.getLong("hits").longValue());
+    assertEquals(1L, metrics.getLong("misses").longValue());
+    assertEquals(0.5, metrics.getDouble("hitRatio"), 0.0001);
+  }
+
+  @Test
+  @DisplayName("Expect null when key is invalidated")
+  void expectNullWhenInvalidated() {
+    TinyLfuCacheStore tested = new TinyLfuCacheStore(MAX_WEIGHT, 1, 1000);
+    put(tested, "key", ENTRY_SIZE);
+
+    tested.invalidate("key", ar -> {
+    });
+
+    assertNull(get(tested, "key"));
+    assertEquals(0L, tested.getMetrics().getLong("weightBytes").longValue());
+  }
+
+  private static void put(CacheStore store, String key, int size) {
+    store.put(key, Buffer.buffer(new byte[size]), TTL, ar -> {
+    });
+  }
+
+  private static Buffer get(CacheStore store, String key) {
+    AtomicReference<Buffer> result = new AtomicReference<>();
+    store.get(key, ar -> result.set(ar.result()));
+    return result.get();
+  }
+
+}
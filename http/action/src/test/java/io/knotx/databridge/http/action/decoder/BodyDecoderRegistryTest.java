@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.decoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+class BodyDecoderRegistryTest {
+
+  private static final JsonObject OBJECT = new JsonObject()
+      .put("id", 21762532)
+      .put("label", "Product")
+      .put("tags", new JsonArray().add("a").add("b"))
+      .put("price", new JsonObject().put("amount", 9.99).put("currency", "EUR"));
+
+  private final BodyDecoderRegistry tested = BodyDecoderRegistry.load();
+
+  static Stream<Arguments> formats() {
+    return Stream.of(
+        Arguments.of("application/cbor", new CBORFactory()),
+        Arguments.of("application/x-jackson-smile", new SmileFactory()),
+        Arguments.of("application/msgpack", new MessagePackFactory()),
+        Arguments.of("application/x-msgpack; charset=binary", new MessagePackFactory())
+    );
+  }
+
+  @ParameterizedTest(name = "Expect {0} object decoded into the JSON payload structure")
+  @MethodSource("formats")
+  void expectObjectDecoded(String contentType, JsonFactory factory) throws Exception {
+    BodyDecoder decoder = tested.find(contentType);
+
+    assertNotNull(decoder);
+    assertEquals(OBJECT, decoder.decode(encode(factory, OBJECT.getMap())));
+  }
+
+  @ParameterizedTest(name = "Expect {0} array decoded into the JSON payload structure")
+  @MethodSource("formats")
+  void expectArrayDecoded(String contentType, JsonFactory factory) throws Exception {
+    JsonArray array = new JsonArray().add(OBJECT).add(OBJECT);
+
+    assertEquals(array, tested.find(contentType).decode(encode(factory, array.getList())));
+  }
+
+  @Test
+  @DisplayName("Expect DecodeException when body is not valid")
+  void expectDecodeExceptionWhenInvalidBody() {
+    BodyDecoder decoder = tested.find("application/cbor");
+
+    assertThrows(DecodeException.class,
+        () -> decoder.decode(Buffer.buffer(new byte[]{(byte) 0xff, 0x01})));
+  }
+
+  @Test
+  @DisplayName("Expect newline delimited JSON decoded into an array of records")
+  void expectNdjsonDecoded() {
+    BodyDecoder decoder = BodyDecoderRegistry.of(new NdjsonBodyDecoder())
+        .find("application/x-ndjson; charset=utf-8");
+
+    assertEquals(new JsonArray().add(OBJECT).add(new JsonArray().add(1)).add(OBJECT),
+        decoder.decode(Buffer.buffer(OBJECT.encode() + "\n[1]\r\n\n" + OBJECT.encode())));
+  }
+
+  @Test
+  @DisplayName("Expect no decoder for JSON, NDJSON and missing content type")
+  void expectNoDecoderForJson() {
+    assertNull(tested.find("application/json"));
+    assertNull(tested.find("application/x-ndjson"));
+    assertNull(tested.find(null));
+  }
+
+  private static Buffer encode(JsonFactory factory, Object value) throws Exception {
+    return Buffer.buffer(new ObjectMapper(factory).writeValueAsBytes(value));
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.action.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SamplingTracerTest {
+
+  private static final String TRACEPARENT =
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+  @Test
+  @DisplayName("Expect traceparent header parsed and formatted back")
+  void traceparentRoundTrip() {
+    TraceContext context = TraceContext.fromHeaders(TRACEPARENT, "vendor=value");
+
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.getTraceId());
+    assertEquals("00f067aa0ba902b7", context.getSpanId());
+    assertTrue(context.isSampled());
+    assertEquals("vendor=value", context.getTraceState());
+    assertEquals(TRACEPARENT, context.toTraceparent());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "",
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7",
+      "ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+      "00-00000000000000000000000000000000-00f067aa0ba902b7-01",
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01",
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra",
+      "00-4bf92f3577b34da6a3ce929d0e0e473z-00f067aa0ba902b7-01"
+  })
+  @DisplayName("Expect invalid traceparent header ignored")
+  void invalidTraceparentIgnored(String traceparent) {
+    assertNull(TraceContext.fromHeaders(traceparent, null));
+  }
+
+  @Test
+  @DisplayName("Expect child span in the parent trace with parent sampling decision")
+  void childSpanFollowsParent() {
+    List<SpanData> exported = new ArrayList<>();
+    SamplingTracer tested = new SamplingTracer(Sampler.ratio(0.0), exported::add);
+    TraceContext parent = TraceContext.fromHeaders(TRACEPARENT, null);
+
+    Span span = tested.startSpan("span", parent);
+    span.setAttribute("key", "value").end();
+    span.end();
+
+    assertTrue(span.isRecording());
+    assertEquals(parent.getTraceId(), span.getContext().getTraceId());
+    assertNotEquals(parent.getSpanId(), span.getContext().getSpanId());
+    assertEquals(1, exported.size());
+    assertEquals(parent.getSpanId(), exported.get(0).getParentSpanId());
+    assertEquals("value", exported.get(0).getAttributes().get("key"));
+  }
+
+  @Test
+  @DisplayName("Expect new traces not recorded when sampling ratio is 0")
+  void newTraceNotSampled() {
+    List<SpanData> exported = new ArrayList<>();
+    SamplingTracer tested = new SamplingTracer(Sampler.ratio(0.0), exported::add);
+
+    Span span = tested.startSpan("span", null);
+    span.setAttribute("key", "value").end();
+
+    assertFalse(span.isRecording());
+    assertFalse(span.getContext().isSampled());
+    assertTrue(span.getContext().toTraceparent().endsWith("-00"));
+    assertTrue(exported.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Expect new traces recorded when sampling ratio is 1")
+  void newTraceSampled() {
+    List<SpanData> exported = new ArrayList<>();
+    SamplingTracer tested = new SamplingTracer(Sampler.ratio(1.0), exported::add);
+
+    Span span = tested.startSpan("span", null);
+    span.setError(new IllegalStateException("failure")).end();
+
+    assertTrue(span.getContext().isSampled());
+    assertEquals(1, exported.size());
+    assertNull(exported.get(0).getParentSpanId());
+    assertEquals("failure", exported.get(0).getErrorMessage());
+  }
+}
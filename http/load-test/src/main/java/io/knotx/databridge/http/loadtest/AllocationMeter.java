@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the number of bytes allocated on the heap by all live threads of the JVM. Requires the
+ * HotSpot {@code com.sun.management.ThreadMXBean} extension; on other JVMs no allocations are
+ * reported.
+ */
+class AllocationMeter {
+
+  private static final long NOT_SUPPORTED = -1L;
+
+  private final com.sun.management.ThreadMXBean threadBean;
+
+  AllocationMeter() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+      threadBean = (com.sun.management.ThreadMXBean) bean;
+      threadBean.setThreadAllocatedMemoryEnabled(true);
+    } else {
+      threadBean = null;
+    }
+  }
+
+  boolean isSupported() {
+    return threadBean != null;
+  }
+
+  /**
+   * Returns the total number of bytes allocated so far by live threads, or {@code -1} when the JVM
+   * does not support the measurement. Bytes allocated by threads that already terminated are not
+   * included, which is fine for the long-living event loop threads.
+   *
+   * @return allocated bytes
+   */
+  long allocatedBytes() {
+    if (threadBean == null) {
+      return NOT_SUPPORTED;
+    }
+    long total = 0;
+    for (long allocated : threadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+      if (allocated > 0) {
+        total += allocated;
+      }
+    }
+    return total;
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import java.util.Random;
+
+/**
+ * Distribution of the stub server response latency.
+ */
+public enum LatencyDistribution {
+
+  /**
+   * Every response is delayed by the mean.
+   */
+  FIXED {
+    @Override
+    double sample(Random random, double mean, double stdDev) {
+      return mean;
+    }
+  },
+
+  /**
+   * Delays are spread evenly between {@code 0} and twice the mean.
+   */
+  UNIFORM {
+    @Override
+    double sample(Random random, double mean, double stdDev) {
+      return random.nextDouble() * 2 * mean;
+    }
+  },
+
+  /**
+   * Delays follow the exponential distribution with the given mean - most responses are fast with
+   * a long tail of slow ones.
+   */
+  EXPONENTIAL {
+    @Override
+    double sample(Random random, double mean, double stdDev) {
+      return -mean * Math.log(1.0 - random.nextDouble());
+    }
+  },
+
+  /**
+   * Delays follow the log-normal distribution with the given mean and standard deviation, which
+   * resembles latencies of real services.
+   */
+  LOG_NORMAL {
+    @Override
+    double sample(Random random, double mean, double stdDev) {
+      if (mean <= 0) {
+        return 0;
+      }
+      double variance = Math.log(1 + (stdDev * stdDev) / (mean * mean));
+      double mu = Math.log(mean) - variance / 2;
+      return Math.exp(mu + Math.sqrt(variance) * random.nextGaussian());
+    }
+  };
+
+  /**
+   * Samples a delay in milliseconds, never negative.
+   *
+   * @param random - source of randomness
+   * @param mean - mean delay in milliseconds
+   * @param stdDev - standard deviation in milliseconds, used by {@link #LOG_NORMAL} only
+   * @return delay in milliseconds
+   */
+  public long sampleMs(Random random, double mean, double stdDev) {
+    return Math.max(0L, Math.round(sample(random, mean, stdDev)));
+  }
+
+  abstract double sample(Random random, double mean, double stdDev);
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import io.knotx.databridge.http.action.HttpActionFactory;
+import io.knotx.fragments.handler.api.Action;
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import java.io.File;
+
+/**
+ * Runs the HTTP Action against the local stub server and writes the report to a file. The only
+ * (optional) argument is the path of a JSON file with {@link LoadTestOptions}.
+ */
+public final class LoadTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+  private static final String ACTION_ALIAS = "load-test";
+  private static final String STUB_PATH = "/load";
+
+  private final Vertx vertx;
+  private final LoadTestOptions options;
+
+  public LoadTest(Vertx vertx, LoadTestOptions options) {
+    this.vertx = vertx;
+    this.options = options;
+  }
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    Single<LoadTestOptions> options = args.length > 0
+        ? vertx.fileSystem().rxReadFile(args[0])
+        .map(buffer -> new LoadTestOptions(buffer.toJsonObject()))
+        : Single.just(new LoadTestOptions());
+    options
+        .flatMap(loadTestOptions -> new LoadTest(vertx, loadTestOptions).run())
+        .doFinally(vertx::close)
+        .subscribe(
+            report -> LOGGER.info("Load test finished: {}", report.toJson().encodePrettily()),
+            error -> LOGGER.error("Load test failed", error));
+  }
+
+  /**
+   * Starts the stub server, drives the action and writes the report file.
+   *
+   * @return the load test report
+   */
+  Single<LoadTestReport> run() {
+    StubServer stubServer = new StubServer(vertx, options.getStubServer());
+    return stubServer.start()
+        .map(this::createAction)
+        .flatMap(action -> new OpenModelDriver(vertx, action, options).run())
+        .flatMap(report -> writeReport(report).andThen(Single.just(report)))
+        .flatMap(report -> stubServer.stop().andThen(Single.just(report)));
+  }
+
+  private Action createAction(int stubPort) {
+    JsonObject config = options.getAction().copy();
+    if (!config.containsKey("endpointOptions")) {
+      config.put("endpointOptions", new JsonObject()
+          .put("path", STUB_PATH)
+          .put("domain", "localhost")
+          .put("port", stubPort));
+    }
+    return new HttpActionFactory().create(ACTION_ALIAS, config, vertx.getDelegate(), null);
+  }
+
+  private Completable writeReport(LoadTestReport report) {
+    File reportFile = new File(options.getReportFile()).getAbsoluteFile();
+    return vertx.fileSystem().rxMkdirs(reportFile.getParent())
+        .onErrorComplete()
+        .andThen(vertx.fileSystem().rxWriteFile(reportFile.getPath(),
+            Buffer.newInstance(report.toJson().toBuffer())));
+  }
+
+}
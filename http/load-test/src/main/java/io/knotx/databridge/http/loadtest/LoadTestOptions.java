@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Load test configuration. The HTTP Action is applied at the target rate with Poisson (open
+ * model) arrivals, so slow responses do not slow down the arrival of new requests.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class LoadTestOptions {
+
+  private static final long DEFAULT_DURATION = 60000L;
+  private static final long DEFAULT_WARM_UP = 10000L;
+  private static final long DEFAULT_DRAIN_TIMEOUT = 10000L;
+  private static final double DEFAULT_TARGET_RPS = 100.0;
+  private static final int DEFAULT_MAX_IN_FLIGHT = 10000;
+  private static final String DEFAULT_REPORT_FILE = "build/load-test/report.json";
+
+  private long durationMs = DEFAULT_DURATION;
+  private long warmUpMs = DEFAULT_WARM_UP;
+  private long drainTimeoutMs = DEFAULT_DRAIN_TIMEOUT;
+  private double targetRps = DEFAULT_TARGET_RPS;
+  private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+  private String reportFile = DEFAULT_REPORT_FILE;
+  private StubServerOptions stubServer = new StubServerOptions();
+  private JsonObject action = new JsonObject();
+
+  public LoadTestOptions() {
+    //empty default constructor
+  }
+
+  public LoadTestOptions(LoadTestOptions other) {
+    this.durationMs = other.durationMs;
+    this.warmUpMs = other.warmUpMs;
+    this.drainTimeoutMs = other.drainTimeoutMs;
+    this.targetRps = other.targetRps;
+    this.maxInFlight = other.maxInFlight;
+    this.reportFile = other.reportFile;
+    this.stubServer = new StubServerOptions(other.stubServer);
+    this.action = other.action.copy();
+  }
+
+  public LoadTestOptions(JsonObject json) {
+    this();
+    LoadTestOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    LoadTestOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public long getDurationMs() {
+    return durationMs;
+  }
+
+  /**
+   * Sets how long requests are measured, excluding the warm-up. By default it is set to
+   * {@code 60000}.
+   *
+   * @param durationMs - measured duration in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setDurationMs(long durationMs) {
+    this.durationMs = durationMs;
+    return this;
+  }
+
+  public long getWarmUpMs() {
+    return warmUpMs;
+  }
+
+  /**
+   * Sets how long requests are sent before the measurement starts, so the JIT compiler and
+   * connection pools are warm. By default it is set to {@code 10000}.
+   *
+   * @param warmUpMs - warm-up duration in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setWarmUpMs(long warmUpMs) {
+    this.warmUpMs = warmUpMs;
+    return this;
+  }
+
+  public long getDrainTimeoutMs() {
+    return drainTimeoutMs;
+  }
+
+  /**
+   * Sets how long the driver waits for in-flight requests after the last request was sent.
+   * Requests still in flight after that time are reported as unfinished. By default it is set to
+   * {@code 10000}.
+   *
+   * @param drainTimeoutMs - drain timeout in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setDrainTimeoutMs(long drainTimeoutMs) {
+    this.drainTimeoutMs = drainTimeoutMs;
+    return this;
+  }
+
+  public double getTargetRps() {
+    return targetRps;
+  }
+
+  /**
+   * Sets the mean number of requests started per second. By default it is set to {@code 100}.
+   *
+   * @param targetRps - target arrival rate
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setTargetRps(double targetRps) {
+    this.targetRps = targetRps;
+    return this;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Sets the maximum number of requests in flight. Arrivals above the limit are not sent and are
+   * reported as dropped, so an overloaded system does not exhaust the driver memory. By default it
+   * is set to {@code 10000}.
+   *
+   * @param maxInFlight - maximum number of concurrent requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  public String getReportFile() {
+    return reportFile;
+  }
+
+  /**
+   * Sets the path of the JSON report file. By default it is set to
+   * {@code build/load-test/report.json}.
+   *
+   * @param reportFile - report file path
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setReportFile(String reportFile) {
+    this.reportFile = reportFile;
+    return this;
+  }
+
+  public StubServerOptions getStubServer() {
+    return stubServer;
+  }
+
+  /**
+   * Sets the stub upstream server options.
+   *
+   * @param stubServer - stub server options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setStubServer(StubServerOptions stubServer) {
+    this.stubServer = stubServer;
+    return this;
+  }
+
+  public JsonObject getAction() {
+    return action;
+  }
+
+  /**
+   * Sets the HTTP Action configuration, see {@code HttpActionOptions}. When no
+   * {@code endpointOptions} are configured, the action calls the stub server.
+   *
+   * @param action - HTTP Action configuration
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadTestOptions setAction(JsonObject action) {
+    this.action = action;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "LoadTestOptions{" +
+        "durationMs=" + durationMs +
+        ", warmUpMs=" + warmUpMs +
+        ", drainTimeoutMs=" + drainTimeoutMs +
+        ", targetRps=" + targetRps +
+        ", maxInFlight=" + maxInFlight +
+        ", reportFile='" + reportFile + '\'' +
+        ", stubServer=" + stubServer +
+        ", action=" + action +
+        '}';
+  }
+}
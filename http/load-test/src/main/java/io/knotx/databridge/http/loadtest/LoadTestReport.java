@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Result of the load test: throughput, latency percentiles and allocation rate of the measured
+ * period. Latencies are measured from the intended start of each request, so queueing caused by an
+ * overloaded system is included (no coordinated omission).
+ */
+class LoadTestReport {
+
+  private static final double MICROS_IN_MILLI = 1000.0;
+
+  private final LoadTestOptions options;
+  private final long elapsedNanos;
+  private final long sent;
+  private final long succeeded;
+  private final long failed;
+  private final long dropped;
+  private final long unfinished;
+  private final Histogram latency;
+  private final long allocatedBytes;
+
+  LoadTestReport(LoadTestOptions options, long elapsedNanos, long sent, long succeeded,
+      long failed, long dropped, long unfinished, Histogram latency, long allocatedBytes) {
+    this.options = options;
+    this.elapsedNanos = elapsedNanos;
+    this.sent = sent;
+    this.succeeded = succeeded;
+    this.failed = failed;
+    this.dropped = dropped;
+    this.unfinished = unfinished;
+    this.latency = latency;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  long getSent() {
+    return sent;
+  }
+
+  long getCompleted() {
+    return succeeded + failed;
+  }
+
+  long getSucceeded() {
+    return succeeded;
+  }
+
+  long getFailed() {
+    return failed;
+  }
+
+  long getDropped() {
+    return dropped;
+  }
+
+  long getUnfinished() {
+    return unfinished;
+  }
+
+  double getThroughputRps() {
+    return elapsedNanos > 0 ? getCompleted() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos
+        : 0.0;
+  }
+
+  JsonObject toJson() {
+    JsonObject json = new JsonObject()
+        .put("targetRps", options.getTargetRps())
+        .put("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+        .put("sent", sent)
+        .put("completed", getCompleted())
+        .put("succeeded", succeeded)
+        .put("failed", failed)
+        .put("dropped", dropped)
+        .put("unfinished", unfinished)
+        .put("throughputRps", getThroughputRps())
+        .put("latencyMs", latencyJson())
+        .put("stubServer", options.getStubServer().toJson());
+    if (allocatedBytes >= 0) {
+      json.put("allocation", allocationJson());
+    }
+    return json;
+  }
+
+  private JsonObject latencyJson() {
+    return new JsonObject()
+        .put("mean", latency.getMean() / MICROS_IN_MILLI)
+        .put("p50", percentile(50.0))
+        .put("p90", percentile(90.0))
+        .put("p99", percentile(99.0))
+        .put("p99.9", percentile(99.9))
+        .put("max", latency.getMaxValue() / MICROS_IN_MILLI);
+  }
+
+  private double percentile(double percentile) {
+    return latency.getValueAtPercentile(percentile) / MICROS_IN_MILLI;
+  }
+
+  private JsonObject allocationJson() {
+    double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    long completed = getCompleted();
+    return new JsonObject()
+        .put("bytes", allocatedBytes)
+        .put("bytesPerSecond", seconds > 0 ? allocatedBytes / seconds : 0.0)
+        .put("bytesPerRequest", completed > 0 ? allocatedBytes / (double) completed : 0.0);
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import static io.knotx.fragments.handler.api.domain.FragmentResult.SUCCESS_TRANSITION;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.handler.api.Action;
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.knotx.server.api.context.ClientRequest;
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Applies the action at the target rate with exponentially distributed gaps between arrivals
+ * (open model). Arrivals do not wait for previous requests, so when the system slows down the
+ * number of requests in flight grows instead of the arrival rate dropping, exactly like with real
+ * clients.
+ */
+class OpenModelDriver {
+
+  private static final long TICK_MS = 1L;
+  private static final long DRAIN_CHECK_MS = 10L;
+  private static final int LATENCY_SIGNIFICANT_DIGITS = 3;
+
+  private final Vertx vertx;
+  private final Action action;
+  private final LoadTestOptions options;
+  private final AllocationMeter allocationMeter = new AllocationMeter();
+  private final Recorder latency = new Recorder(LATENCY_SIGNIFICANT_DIGITS);
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong succeeded = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicInteger measuredInFlight = new AtomicInteger();
+
+  private long measurementStart;
+  private long arrivalsEnd;
+  private long nextArrival;
+  private boolean measuring;
+  private long allocatedAtStart;
+
+  OpenModelDriver(Vertx vertx, Action action, LoadTestOptions options) {
+    this.vertx = vertx;
+    this.action = action;
+    this.options = options;
+  }
+
+  Single<LoadTestReport> run() {
+    return Single.create(emitter -> vertx.runOnContext(v -> start(emitter)));
+  }
+
+  private void start(SingleEmitter<LoadTestReport> emitter) {
+    long now = System.nanoTime();
+    measurementStart = now + TimeUnit.MILLISECONDS.toNanos(options.getWarmUpMs());
+    arrivalsEnd = measurementStart + TimeUnit.MILLISECONDS.toNanos(options.getDurationMs());
+    nextArrival = now;
+    vertx.setPeriodic(TICK_MS, timerId -> {
+      if (!tick()) {
+        vertx.cancelTimer(timerId);
+        drain(emitter);
+      }
+    });
+  }
+
+  /**
+   * Sends all requests whose intended start time has passed.
+   *
+   * @return {@code false} when all requests were sent
+   */
+  private boolean tick() {
+    long now = System.nanoTime();
+    if (!measuring && now >= measurementStart) {
+      measuring = true;
+      allocatedAtStart = allocationMeter.allocatedBytes();
+    }
+    while (nextArrival <= now && nextArrival < arrivalsEnd) {
+      send(nextArrival);
+      nextArrival += interArrivalNanos();
+    }
+    return nextArrival < arrivalsEnd;
+  }
+
+  private long interArrivalNanos() {
+    double meanNanos = TimeUnit.SECONDS.toNanos(1) / options.getTargetRps();
+    return Math.max(1L,
+        Math.round(-meanNanos * Math.log(1.0 - ThreadLocalRandom.current().nextDouble())));
+  }
+
+  private void send(long intendedStart) {
+    boolean measured = intendedStart >= measurementStart;
+    if (inFlight.get() >= options.getMaxInFlight()) {
+      if (measured) {
+        dropped.incrementAndGet();
+      }
+      return;
+    }
+    inFlight.incrementAndGet();
+    if (measured) {
+      sent.incrementAndGet();
+      measuredInFlight.incrementAndGet();
+    }
+    FragmentContext fragmentContext = new FragmentContext(
+        new Fragment("load-test", new JsonObject(), ""), new ClientRequest());
+    action.apply(fragmentContext, result -> complete(intendedStart, measured, result));
+  }
+
+  private void complete(long intendedStart, boolean measured,
+      AsyncResult<FragmentResult> result) {
+    inFlight.decrementAndGet();
+    if (!measured) {
+      return;
+    }
+    measuredInFlight.decrementAndGet();
+    latency.recordValue(
+        Math.max(0L, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart)));
+    if (result.succeeded() && SUCCESS_TRANSITION.equals(result.result().getTransition())) {
+      succeeded.incrementAndGet();
+    } else {
+      failed.incrementAndGet();
+    }
+  }
+
+  private void drain(SingleEmitter<LoadTestReport> emitter) {
+    long drainDeadline = System.nanoTime()
+        + TimeUnit.MILLISECONDS.toNanos(options.getDrainTimeoutMs());
+    vertx.setPeriodic(DRAIN_CHECK_MS, timerId -> {
+      if (inFlight.get() == 0 || System.nanoTime() >= drainDeadline) {
+        vertx.cancelTimer(timerId);
+        emitter.onSuccess(report());
+      }
+    });
+  }
+
+  private LoadTestReport report() {
+    long allocated = allocationMeter.isSupported()
+        ? allocationMeter.allocatedBytes() - allocatedAtStart
+        : -1L;
+    return new LoadTestReport(options, arrivalsEnd - measurementStart, sent.get(),
+        succeeded.get(), failed.get(), dropped.get(), measuredInFlight.get(),
+        latency.getIntervalHistogram(), allocated);
+  }
+
+}
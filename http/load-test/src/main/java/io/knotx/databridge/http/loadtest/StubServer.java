@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServer;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Local upstream answering every request with a JSON body of the configured size after a delay
+ * sampled from the configured latency distribution. A configured fraction of requests fails with
+ * the error status code.
+ */
+class StubServer {
+
+  private static final String APPLICATION_JSON = "application/json";
+
+  private final Vertx vertx;
+  private final StubServerOptions options;
+  private final Buffer successBody;
+  private final Buffer errorBody;
+  private HttpServer server;
+
+  StubServer(Vertx vertx, StubServerOptions options) {
+    this.vertx = vertx;
+    this.options = options;
+    this.successBody = jsonBody(options.getBodySizeBytes());
+    this.errorBody = Buffer.newInstance(new JsonObject().put("error", "stub error").toBuffer());
+  }
+
+  /**
+   * Starts the server.
+   *
+   * @return the port the server listens on
+   */
+  Single<Integer> start() {
+    server = vertx.createHttpServer().requestHandler(this::handle);
+    return server.rxListen(options.getPort())
+        .map(HttpServer::actualPort);
+  }
+
+  Completable stop() {
+    return server == null ? Completable.complete() : server.rxClose();
+  }
+
+  private void handle(HttpServerRequest request) {
+    Random random = ThreadLocalRandom.current();
+    boolean failed = random.nextDouble() < options.getErrorRate();
+    long delay = options.getLatencyDistribution()
+        .sampleMs(random, options.getLatencyMeanMs(), options.getLatencyStdDevMs());
+    if (delay < 1) {
+      respond(request, failed);
+    } else {
+      vertx.setTimer(delay, timerId -> respond(request, failed));
+    }
+  }
+
+  private void respond(HttpServerRequest request, boolean failed) {
+    request.response()
+        .setStatusCode(failed ? options.getErrorStatusCode() : 200)
+        .putHeader(HttpHeaders.CONTENT_TYPE.toString(), APPLICATION_JSON)
+        .end(failed ? errorBody : successBody);
+  }
+
+  private static Buffer jsonBody(int sizeBytes) {
+    String envelope = new JsonObject().put("data", "").encode();
+    int padding = Math.max(0, sizeBytes - envelope.length());
+    return Buffer.newInstance(
+        new JsonObject().put("data", StringUtils.repeat('x', padding)).toBuffer());
+  }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the stub upstream server answering the HTTP Action calls during the load test.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class StubServerOptions {
+
+  private static final int DEFAULT_PORT = 3999;
+  private static final double DEFAULT_LATENCY_MEAN = 20.0;
+  private static final double DEFAULT_LATENCY_STD_DEV = 10.0;
+  private static final int DEFAULT_BODY_SIZE = 1024;
+  private static final int DEFAULT_ERROR_STATUS_CODE = 500;
+
+  private int port = DEFAULT_PORT;
+  private LatencyDistribution latencyDistribution = LatencyDistribution.LOG_NORMAL;
+  private double latencyMeanMs = DEFAULT_LATENCY_MEAN;
+  private double latencyStdDevMs = DEFAULT_LATENCY_STD_DEV;
+  private double errorRate;
+  private int errorStatusCode = DEFAULT_ERROR_STATUS_CODE;
+  private int bodySizeBytes = DEFAULT_BODY_SIZE;
+
+  public StubServerOptions() {
+    //empty default constructor
+  }
+
+  public StubServerOptions(StubServerOptions other) {
+    this.port = other.port;
+    this.latencyDistribution = other.latencyDistribution;
+    this.latencyMeanMs = other.latencyMeanMs;
+    this.latencyStdDevMs = other.latencyStdDevMs;
+    this.errorRate = other.errorRate;
+    this.errorStatusCode = other.errorStatusCode;
+    this.bodySizeBytes = other.bodySizeBytes;
+  }
+
+  public StubServerOptions(JsonObject json) {
+    this();
+    StubServerOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    StubServerOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Sets the port the stub server listens on. Setting {@code 0} picks a random free port. By
+   * default it is set to {@code 3999}.
+   *
+   * @param port - stub server port
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StubServerOptions setPort(int port) {
+    this.port = port;
+    return this;
+  }
+
+  public LatencyDistribution getLatencyDistribution() {
+    return latencyDistribution;
+  }
+
+  /**
+   * Sets the distribution of the response latency. By default it is set to {@code LOG_NORMAL}.
+   *
+   * @param latencyDistribution - one of {@code FIXED}, {@code UNIFORM}, {@code EXPONENTIAL},
+   * {@code LOG_NORMAL}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StubServerOptions setLatencyDistribution(LatencyDistribution latencyDistribution) {
+    this.latencyDistribution = latencyDistribution;
+    return this;
+  }
+
+  public double getLatencyMeanMs() {
+    return latencyMeanMs;
+  }
+
+  /**
+   * Sets the mean response latency in milliseconds. By default it is set to {@code 20}.
+   *
+   * @param latencyMeanMs - mean latency in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StubServerOptions setLatencyMeanMs(double latencyMeanMs) {
+    this.latencyMeanMs = latencyMeanMs;
+    return this;
+  }
+
+  public double getLatencyStdDevMs() {
+    return latencyStdDevMs;
+  }
+
+  /**
+   * Sets the standard deviation of the {@code LOG_NORMAL} response latency in milliseconds. By
+   * default it is set to {@code 10}.
+   *
+   * @param latencyStdDevMs - latency standard deviation in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StubServerOptions setLatencyStdDevMs(double latencyStdDevMs) {
+    this.latencyStdDevMs = latencyStdDevMs;
+    return this;
+  }
+
+  public double getErrorRate() {
+    return errorRate;
+  }
+
+  /**
+   * Sets the fraction of requests, between {@code 0} and {@code 1}, answered with the error status
+   * code. By default it is set to {@code 0}.
+   *
+   * @param errorRate - fraction of failed responses
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StubServerOptions setErrorRate(double errorRate) {
+    this.errorRate = errorRate;
+    return this;
+  }
+
+  public int getErrorStatusCode() {
+    return errorStatusCode;
+  }
+
+  /**
+   * Sets the status code of failed responses. By default it is set to {@code 500}.
+   *
+   * @param errorStatusCode - status code of failed responses
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StubServerOptions setErrorStatusCode(int errorStatusCode) {
+    this.errorStatusCode = errorStatusCode;
+    return this;
+  }
+
+  public int getBodySizeBytes() {
+    return bodySizeBytes;
+  }
+
+  /**
+   * Sets the approximate size of the JSON response body in bytes. By default it is set to
+   * {@code 1024}.
+   *
+   * @param bodySizeBytes - response body size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public StubServerOptions setBodySizeBytes(int bodySizeBytes) {
+    this.bodySizeBytes = bodySizeBytes;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "StubServerOptions{" +
+        "port=" + port +
+        ", latencyDistribution=" + latencyDistribution +
+        ", latencyMeanMs=" + latencyMeanMs +
+        ", latencyStdDevMs=" + latencyStdDevMs +
+        ", errorRate=" + errorRate +
+        ", errorStatusCode=" + errorStatusCode +
+        ", bodySizeBytes=" + bodySizeBytes +
+        '}';
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.databridge.http.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.Vertx;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class LoadTestTest {
+
+  private static final long DURATION_MS = 1000L;
+  private static final double TARGET_RPS = 50.0;
+
+  @Test
+  @DisplayName("Expect report with throughput and latency percentiles written to the file.")
+  void reportWritten(VertxTestContext testContext, io.vertx.core.Vertx vertx)
+      throws Throwable {
+    // given
+    File reportFile = File.createTempFile("load-test", ".json");
+    LoadTestOptions options = options(reportFile, 0.0);
+
+    // when
+    new LoadTest(new Vertx(vertx), options).run()
+        .subscribe(
+            report -> testContext.verify(() -> {
+              // then
+              assertTrue(report.getSent() > 0);
+              assertEquals(report.getSent(), report.getSucceeded());
+              assertEquals(0, report.getFailed());
+              JsonObject json = readReport(reportFile);
+              assertEquals(report.getSent(), json.getLong("completed").longValue());
+              assertTrue(json.getJsonObject("latencyMs").getDouble("p99") >= 5.0);
+              assertTrue(json.getDouble("throughputRps") > 0);
+              testContext.completeNow();
+            }),
+            testContext::failNow);
+
+    assertTrue(testContext.awaitCompletion(10, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect failed requests counted when stub server responds with errors.")
+  void errorsCounted(VertxTestContext testContext, io.vertx.core.Vertx vertx) throws Throwable {
+    // given
+    File reportFile = File.createTempFile("load-test", ".json");
+    LoadTestOptions options = options(reportFile, 1.0);
+
+    // when
+    new LoadTest(new Vertx(vertx), options).run()
+        .subscribe(
+            report -> testContext.verify(() -> {
+              // then
+              assertTrue(report.getSent() > 0);
+              assertEquals(0, report.getSucceeded());
+              assertEquals(report.getSent(), report.getFailed());
+              testContext.completeNow();
+            }),
+            testContext::failNow);
+
+    assertTrue(testContext.awaitCompletion(10, TimeUnit.SECONDS));
+    if (testContext.failed()) {
+      throw testContext.causeOfFailure();
+    }
+  }
+
+  private static LoadTestOptions options(File reportFile, double errorRate) {
+    return new LoadTestOptions()
+        .setWarmUpMs(0)
+        .setDurationMs(DURATION_MS)
+        .setTargetRps(TARGET_RPS)
+        .setReportFile(reportFile.getAbsolutePath())
+        .setStubServer(new StubServerOptions()
+            .setPort(0)
+            .setLatencyDistribution(LatencyDistribution.FIXED)
+            .setLatencyMeanMs(5)
+            .setErrorRate(errorRate));
+  }
+
+  private static JsonObject readReport(File reportFile) throws IOException {
+    return new JsonObject(new String(Files.readAllBytes(reportFile.toPath()), "UTF-8"));
+  }
+
+}
@@ -19,3 +19,5 @@ rootProject.name = "knotx-data-bridge"
 include("knotx-action-http")
 project(":knotx-action-http").projectDir = file("http/action")
 
+include("knotx-action-http-load-test")
+project(":knotx-action-http-load-test").projectDir = file("http/load-test")